@@ -0,0 +1,79 @@
+package com.zlikun.kong.benchmark;
+
+import com.zlikun.kong.balancer.Balancer;
+import com.zlikun.kong.entity.Target;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 负载均衡目标选择基准测试：加权轮询、一致性哈希，以及移除并恢复一个目标（重建轮盘）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 17:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalancerBenchmark {
+
+    @Param({"10", "100"})
+    private int targets;
+
+    @Param({"1000", "10000"})
+    private int slots;
+
+    private Balancer balancer;
+    private List<Target> all;
+    private List<Target> removed;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        all = new ArrayList<>();
+        for (int i = 0; i < targets; i++) {
+            Target target = new Target();
+            target.setTarget("192.168.0." + i + ":8080");
+            target.setWeight(50 + i % 4 * 50);
+            all.add(target);
+        }
+        removed = new ArrayList<>(all.subList(1, targets));
+        balancer = new Balancer(slots, all);
+        keys = new String[1024];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "consumer-" + i;
+        }
+    }
+
+    @Benchmark
+    public String roundRobin() {
+        return balancer.next();
+    }
+
+    @Benchmark
+    public String hash() {
+        return balancer.select(keys[next++ & (keys.length - 1)]);
+    }
+
+    @Benchmark
+    public int update() {
+        return balancer.update(removed) + balancer.update(all);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.zlikun.kong.benchmark;
+
+import com.zlikun.kong.EmbeddedKong;
+import com.zlikun.kong.Futures;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin API客户端吞吐量基准测试，使用进程内替身 EmbeddedKong 并注入往返延迟，
+ * 每次调用查询 requests 个服务：blocking 串行阻塞请求，async 异步并发请求（受 maxRequestsPerHost 限制）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class KongClientBenchmark {
+
+    /**
+     * 注入的往返延迟（毫秒）
+     */
+    @Param({"0", "2"})
+    private int latency;
+
+    @Param({"32"})
+    private int requests;
+
+    @Param({"8", "32"})
+    private int maxRequestsPerHost;
+
+    private EmbeddedKong server;
+    private KongAdminClient kong;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = new EmbeddedKong(0, 64).start();
+        kong = new KongAdminClient(server.getUrl(), maxRequestsPerHost);
+        for (int i = 0; i < requests; i++) {
+            Service service = new Service();
+            service.setName("service_" + i);
+            service.setHost("api.zlikun.com");
+            kong.services().create(service);
+        }
+        server.setLatency(latency, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Service> blocking() throws IOException {
+        List<Service> services = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            services.add(kong.services().retrieve("service_" + i));
+        }
+        return services;
+    }
+
+    @Benchmark
+    public List<Service> async() throws IOException {
+        List<CompletableFuture<Service>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(kong.services().retrieveAsync("service_" + i));
+        }
+        return Futures.get(Futures.all(futures));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.zlikun.kong.benchmark;
+
+import com.zlikun.kong.ratelimit.Period;
+import com.zlikun.kong.ratelimit.RateLimitConfig;
+import com.zlikun.kong.ratelimit.RateLimiter;
+import com.zlikun.kong.ratelimit.WindowMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内限流吞吐量基准测试：consumers 个消费者（1 时所有线程竞争同一组计数器），限制足够大，请求都被放行
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 15:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    private int consumers;
+
+    @Param({"FIXED", "SLIDING"})
+    private WindowMode mode;
+
+    private RateLimiter limiter;
+    private String[] identifiers;
+
+    @Setup
+    public void setup() {
+        limiter = new RateLimiter(new RateLimitConfig()
+                .limit(Period.SECOND, Integer.MAX_VALUE)
+                .limit(Period.MINUTE, Integer.MAX_VALUE), mode);
+        identifiers = new String[consumers];
+        for (int i = 0; i < consumers; i++) {
+            identifiers[i] = "consumer-" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(identifiers[ThreadLocalRandom.current().nextInt(consumers)]);
+    }
+
+}
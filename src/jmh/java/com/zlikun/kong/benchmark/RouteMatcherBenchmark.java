@@ -0,0 +1,74 @@
+package com.zlikun.kong.benchmark;
+
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.router.RouteMatch;
+import com.zlikun.kong.router.RouteMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地路由匹配基准测试，routes 个路由：按服务分域名（含通配符域名）、每个服务若干前缀路径，少量正则路径
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteMatcherBenchmark {
+
+    @Param({"500", "5000"})
+    private int routes;
+
+    private RouteMatcher matcher;
+    private int services;
+    private int next;
+
+    @Setup
+    public void setup() {
+        services = Math.max(1, routes / 10);
+        List<Route> list = new ArrayList<>(routes);
+        for (int i = 0; i < routes; i++) {
+            int service = i % services;
+            Route route = new Route();
+            route.setId("route-" + i);
+            route.setHosts(Collections.singletonList(service % 4 == 0 ? "*.s" + service + ".zlikun.com" : "api.s" + service + ".zlikun.com"));
+            if (i % 50 == 0) {
+                route.setPaths(Collections.singletonList("/v\\d+/r" + i + "/\\d+"));
+            } else {
+                route.setPaths(Arrays.asList("/r" + i, "/r" + i + "/items"));
+            }
+            route.setMethods(i % 3 == 0 ? Collections.singletonList("GET") : null);
+            list.add(route);
+        }
+        matcher = new RouteMatcher(list);
+    }
+
+    @Benchmark
+    public RouteMatch match() {
+        int i = next = (next + 7) % routes;
+        int service = i % services;
+        String host = service % 4 == 0 ? "www.s" + service + ".zlikun.com" : "api.s" + service + ".zlikun.com";
+        String path = i % 50 == 0 ? "/v1/r" + i + "/1" : "/r" + i + "/items/1";
+        return matcher.match("GET", "http", host, path);
+    }
+
+}
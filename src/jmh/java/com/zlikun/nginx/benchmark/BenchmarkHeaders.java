@@ -0,0 +1,47 @@
+package com.zlikun.nginx.benchmark;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * 基准测试使用的请求消息头，模拟经过Nginx代理后到达应用的典型请求（共20个消息头）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 19:00
+ */
+final class BenchmarkHeaders {
+
+    static final String[][] HEADERS = {
+            {"host", "192.168.0.9:8080"},
+            {"x-real-ip", "192.168.0.104"},
+            {"x-forwarded-for", "10.0.0.21, 192.168.0.104"},
+            {"x-forwarded-proto", "http"},
+            {"x-forwarded-host", "api.zlikun.com"},
+            {"x-forwarded-port", "80"},
+            {"x-request-id", "4c0f4c1b-6a52-4f59-9a8e-0a5b2d8c1f77"},
+            {"connection", "keep-alive"},
+            {"cache-control", "max-age=0"},
+            {"upgrade-insecure-requests", "1"},
+            {"user-agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/66.0 Safari/537.36"},
+            {"accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8"},
+            {"accept-encoding", "gzip, deflate"},
+            {"accept-language", "zh-CN,zh;q=0.9,en;q=0.8"},
+            {"referer", "http://api.zlikun.com/"},
+            {"cookie", "JSESSIONID=6F3A1C0E9B7D4E2F8A1B3C5D7E9F0A2B; theme=dark"},
+            {"dnt", "1"},
+            {"x-kong-proxy-latency", "1"},
+            {"x-consumer-id", "fb344495-6aee-4909-8213-821d1dbd04bd"},
+            {"x-consumer-username", "consumer_zlikun"},
+    };
+
+    private BenchmarkHeaders() {
+    }
+
+    static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        for (String[] header : HEADERS) {
+            request.addHeader(header[0], header[1]);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.zlikun.nginx.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基准测试入口：开启GC Profiler统计每次操作的内存分配，并与基线结果比较
+ * 参数：
+ * --include=正则       要运行的基准测试，按JMH规则匹配完整的基准测试名（含包名），默认全部
+ * --baseline=文件      基线结果(JMH JSON格式)，不存在时将本次结果保存为基线（首次运行）
+ * --result=文件        本次结果输出位置
+ * --threshold=0.10     耗时或分配量超过基线该比例时视为退化
+ * --update-baseline    将本次结果合并到基线中，覆盖同名条目，未运行的条目保留
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 19:00
+ */
+public class BenchmarkRunner {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        String include = ".*";
+        File baseline = new File("src/jmh/baseline.json");
+        File result = new File("target/jmh-result.json");
+        double threshold = 0.10;
+        boolean updateBaseline = false;
+        // exec插件会将 -Djmh.args 作为一个整体传入，这里按空白拆分
+        for (String arg : String.join(" ", args).trim().split("\\s+")) {
+            if (arg.startsWith("--include=")) {
+                include = arg.substring("--include=".length());
+            } else if (arg.startsWith("--baseline=")) {
+                baseline = new File(arg.substring("--baseline=".length()));
+            } else if (arg.startsWith("--result=")) {
+                result = new File(arg.substring("--result=".length()));
+            } else if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if (arg.equals("--update-baseline")) {
+                updateBaseline = true;
+            } else if (!arg.isEmpty()) {
+                throw new IllegalArgumentException("unknown argument: " + arg);
+            }
+        }
+        if (result.getParentFile() != null) {
+            result.getParentFile().mkdirs();
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.getAbsolutePath())
+                .build();
+        new Runner(options).run();
+
+        if (!baseline.exists()) {
+            // 首次运行：基线与机器相关，不随代码提交，以本次结果作为后续对比的基线
+            Files.copy(result.toPath(), baseline.toPath());
+            System.out.println("no baseline found, created " + baseline + " from this run");
+            return;
+        }
+        if (updateBaseline) {
+            merge(baseline, result);
+            System.out.println("baseline updated: " + baseline);
+            return;
+        }
+        int regressions = compare(baseline, result, threshold);
+        if (regressions > 0) {
+            System.out.println(regressions + " regression(s) beyond " + Math.round(threshold * 100) + "% of baseline");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 按 基准测试名+参数 对比耗时和每次操作分配字节数，两者都是越小越好
+     *
+     * @return 退化的条目数
+     */
+    static int compare(File baseline, File result, double threshold) throws IOException {
+        Map<String, double[]> base = load(baseline);
+        Map<String, double[]> current = load(result);
+        int regressions = 0;
+        System.out.println();
+        System.out.printf("%-80s %14s %14s %8s %12s %12s %8s%n",
+                "Benchmark", "base(ns/op)", "now(ns/op)", "delta", "base(B/op)", "now(B/op)", "delta");
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+            double[] now = entry.getValue();
+            double[] old = base.get(entry.getKey());
+            if (old == null) {
+                System.out.printf("%-80s %14s %14.1f %8s %12s %12.1f %8s%n",
+                        entry.getKey(), "-", now[0], "new", "-", now[1], "new");
+                continue;
+            }
+            double scoreDelta = delta(old[0], now[0]);
+            double allocDelta = delta(old[1], now[1]);
+            // 分配量基数很小时（如0~16字节）按绝对值判断，避免误报
+            boolean regressed = scoreDelta > threshold || (allocDelta > threshold && now[1] - old[1] > 16);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.1f %14.1f %+7.1f%% %12.1f %12.1f %+7.1f%%%s%n",
+                    entry.getKey(), old[0], now[0], scoreDelta * 100, old[1], now[1], allocDelta * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    /**
+     * 将本次结果合并到基线：同名条目替换，基线中其它条目保留，只运行部分基准测试时不会丢失其余基线
+     */
+    static void merge(File baseline, File result) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> entries = new LinkedHashMap<>();
+        for (File file : new File[]{baseline, result}) {
+            for (JsonNode node : mapper.readTree(file)) {
+                entries.put(key(node), node);
+            }
+        }
+        ArrayNode merged = mapper.createArrayNode().addAll(entries.values());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(baseline, merged);
+    }
+
+    private static double delta(double base, double now) {
+        return base == 0 ? (now == 0 ? 0 : 1) : (now - base) / base;
+    }
+
+    /**
+     * 读取JMH JSON结果
+     *
+     * @return 基准测试名+参数 -> [主指标, 每次操作分配字节数]
+     */
+    private static Map<String, double[]> load(File file) throws IOException {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            double alloc = 0;
+            Iterator<Map.Entry<String, JsonNode>> secondary = node.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                // JMH 1.21 的指标名带有前缀"·"
+                if (metric.getKey().endsWith(ALLOC_NORM)) {
+                    alloc = metric.getValue().path("score").asDouble();
+                }
+            }
+            results.put(key(node), new double[]{node.path("primaryMetric").path("score").asDouble(), alloc});
+        }
+        return results;
+    }
+
+    /**
+     * 基准测试名+参数，如：com.zlikun.nginx.benchmark.HandlerBenchmark.direct[mode=FULL,preEncoded=true]
+     */
+    private static String key(JsonNode node) {
+        StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+        JsonNode params = node.path("params");
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> param = fields.next();
+            key.append(key.indexOf("[") < 0 ? "[" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        if (params.size() > 0) {
+            key.append(']');
+        }
+        return key.toString();
+    }
+
+}
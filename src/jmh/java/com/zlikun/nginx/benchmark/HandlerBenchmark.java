@@ -0,0 +1,111 @@
+package com.zlikun.nginx.benchmark;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.controller.NginxController;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderCaptureMode;
+import com.zlikun.nginx.header.HeaderCaptureProperties;
+import com.zlikun.nginx.response.HelloResponse;
+import com.zlikun.nginx.response.ResponseProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 控制器处理方法基准测试：直接调用处理方法，以及经过 DispatcherServlet 的完整Spring MVC调用链
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 19:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    @Param({"OFF", "SAMPLED", "FULL"})
+    public HeaderCaptureMode mode;
+
+    @Param({"false", "true"})
+    public boolean preEncoded;
+
+    private AccessRecordPipeline pipeline;
+    private NginxController controller;
+    private MockMvc mockMvc;
+    private MockHttpServletRequestBuilder dispatchRequest;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        AccessRecordProperties accessProperties = new AccessRecordProperties();
+        File file = File.createTempFile("access-record", ".log");
+        file.deleteOnExit();
+        accessProperties.setFile(file.getAbsolutePath());
+        pipeline = new AccessRecordPipeline(accessProperties);
+        pipeline.start();
+
+        HeaderCaptureProperties headerProperties = new HeaderCaptureProperties();
+        headerProperties.setMode(mode);
+        ResponseProperties responseProperties = new ResponseProperties();
+        responseProperties.setPreEncoded(preEncoded);
+        controller = new NginxController(new HeaderCapture(headerProperties, pipeline), new HelloResponse(responseProperties));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        dispatchRequest = MockMvcRequestBuilders.get("/nginx");
+        for (String[] header : BenchmarkHeaders.HEADERS) {
+            dispatchRequest.header(header[0], header[1]);
+        }
+
+        request = BenchmarkHeaders.request("/nginx");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    /**
+     * 直接调用处理方法
+     */
+    @Benchmark
+    public ResponseEntity<String> direct() throws Exception {
+        // 预编码模式会写入响应体，每次调用前清空，两种模式都包含这部分开销
+        response.reset();
+        return controller.index(request, response);
+    }
+
+    /**
+     * 经过 DispatcherServlet、处理器映射、参数解析和消息转换器的完整调用链
+     */
+    @Benchmark
+    public MvcResult dispatch() throws Exception {
+        return mockMvc.perform(dispatchRequest).andReturn();
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.zlikun.nginx.benchmark;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.access.OverflowPolicy;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderCaptureProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.File;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息头遍历和日志输出开销基准测试
+ * legacyLogging 为原控制器中逐个消息头调用 log.info 的写法，日志写入 target/jmh-benchmark.log
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 19:00
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderBenchmark {
+
+    private MockHttpServletRequest request;
+    private AccessRecordPipeline pipeline;
+    private HeaderCapture headerCapture;
+
+    @Setup
+    public void setUp() throws Exception {
+        request = BenchmarkHeaders.request("/nginx");
+
+        AccessRecordProperties properties = new AccessRecordProperties();
+        File file = File.createTempFile("access-record", ".log");
+        file.deleteOnExit();
+        properties.setFile(file.getAbsolutePath());
+        // 只衡量请求线程上的开销，缓冲区满时直接丢弃
+        properties.setOverflowPolicy(OverflowPolicy.DROP);
+        pipeline = new AccessRecordPipeline(properties);
+        pipeline.start();
+        headerCapture = new HeaderCapture(new HeaderCaptureProperties(), pipeline);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    /**
+     * 仅遍历消息头
+     */
+    @Benchmark
+    public void enumeration(Blackhole blackhole) {
+        Enumeration<String> headers = request.getHeaderNames();
+        while (headers.hasMoreElements()) {
+            String name = headers.nextElement();
+            blackhole.consume(request.getHeader(name));
+        }
+    }
+
+    /**
+     * 原写法：每个消息头同步输出一行日志
+     */
+    @Benchmark
+    public void legacyLogging() {
+        log.info("Hello, Nginx!");
+        Enumeration<String> headers = request.getHeaderNames();
+        while (headers.hasMoreElements()) {
+            String name = headers.nextElement();
+            log.info("header - name = {}, value = {}", name, request.getHeader(name));
+        }
+    }
+
+    /**
+     * 现写法：写入复用快照，发布一条记录到异步管道
+     */
+    @Benchmark
+    public void capture() {
+        headerCapture.capture(request);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.zlikun.nginx.benchmark;
+
+import com.zlikun.nginx.securelink.ExpiryPolicy;
+import com.zlikun.nginx.securelink.SecureLinkCache;
+import com.zlikun.nginx.securelink.SecureLinkSigner;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 防盗链签名基准测试，commonsCodec 与 SecureLinkTest 中的写法一致，signer 为 SecureLinkSigner，
+ * cachedLink 为按5分钟分桶的 SecureLinkCache（热点资源每个时间桶只计算一次摘要）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 19:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureLinkBenchmark {
+
+    private final String salt = "salt";
+    private final String uri = "/nginx.tar.gz";
+    private long expire = 1523686533L;
+
+    private final SecureLinkSigner signer = new SecureLinkSigner(salt);
+    private final StringBuilder link = new StringBuilder(64);
+    private final SecureLinkCache cache = new SecureLinkCache(signer, ExpiryPolicy.bucketed(60, 300), 4096);
+    private long now = 1523686533L;
+
+    @Benchmark
+    public String commonsCodec() {
+        // 每次调用使用不同的过期时间，避免JIT将结果常量化
+        expire++;
+        return Base64.encodeBase64URLSafeString(DigestUtils.md5(salt + uri + expire));
+    }
+
+    @Benchmark
+    public String signer() {
+        expire++;
+        return signer.sign(uri, expire);
+    }
+
+    /**
+     * 直接追加到复用的 StringBuilder 中，不产生任何对象
+     */
+    @Benchmark
+    public StringBuilder signerAppendLink() {
+        expire++;
+        link.setLength(0);
+        signer.appendLink(uri, expire, link);
+        return link;
+    }
+
+    /**
+     * 每次调用推进1秒，大约每300次调用进入下一个时间桶
+     */
+    @Benchmark
+    public String cachedLink() {
+        now++;
+        return cache.link(uri, now);
+    }
+
+}
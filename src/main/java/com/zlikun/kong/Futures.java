@@ -0,0 +1,118 @@
+package com.zlikun.kong;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 组合异步请求的工具方法
+ * 与 CompletableFuture.allOf 不同，任意一个失败时立即以该异常结束，并取消其他未完成的请求
+ * <pre>
+ * CompletableFuture&lt;Map&lt;String, Service&gt;&gt; services = Futures.traverse(names, kong.services()::retrieveAsync);
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 09:00
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * 等待所有结果，结果顺序与参数顺序一致
+     */
+    public static <T> CompletableFuture<List<T>> all(List<? extends CompletableFuture<? extends T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<List<T>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                futures.forEach(f -> f.cancel(mayInterruptIfRunning));
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            if (e == null) {
+                List<T> values = new ArrayList<>(futures.size());
+                futures.forEach(f -> values.add(f.join()));
+                result.complete(values);
+            }
+        });
+        // 先取消其他请求再结束，调用方看到异常时其他请求都已取消；被取消的请求不会覆盖最先出现的异常
+        AtomicBoolean failed = new AtomicBoolean();
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((v, e) -> {
+                if (e != null && failed.compareAndSet(false, true)) {
+                    futures.forEach(f -> f.cancel(false));
+                    result.completeExceptionally(unwrap(e));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 对每个键并发发起请求，结果按键的顺序组成Map，如：每个路由上的插件
+     */
+    public static <K, V> CompletableFuture<Map<K, V>> traverse(Collection<K> keys, Function<? super K, ? extends CompletableFuture<? extends V>> request) {
+        List<K> order = new ArrayList<>(keys);
+        List<CompletableFuture<? extends V>> futures = new ArrayList<>(order.size());
+        for (K key : order) {
+            futures.add(request.apply(key));
+        }
+        return Futures.<V>all(futures).thenApply(values -> {
+            Map<K, V> result = new LinkedHashMap<>();
+            for (int i = 0; i < order.size(); i++) {
+                result.put(order.get(i), values.get(i));
+            }
+            return result;
+        });
+    }
+
+    public static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * 阻塞等待结果，请求失败时抛出原始的 IOException（如：KongException）
+     */
+    public static <T> T get(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 去掉 CompletionException、ExecutionException 包装
+     */
+    public static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+}
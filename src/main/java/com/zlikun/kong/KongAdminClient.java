@@ -0,0 +1,341 @@
+package com.zlikun.kong;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.zlikun.kong.entity.Certificate;
+import com.zlikun.kong.entity.Consumer;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Sni;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Kong Admin API客户端（0.13.x），线程安全，通常整个应用共用一个实例
+ * 1. 默认使用进程内共享的 OkHttpClient（同一个连接池和调度器），多个客户端实例之间复用连接
+ * 2. 每次请求的响应都在方法返回前关闭，连接归还到连接池，不会泄漏
+ * 3. 响应体直接以流的方式解析为实体对象，不先读取为字符串
+ * 4. xxxAsync 方法基于 OkHttp enqueue 返回 CompletableFuture，并发数受调度器的 maxRequestsPerHost 限制，
+ *    回调在 OkHttp 的线程中执行，后续阶段中不要阻塞等待其他请求（并发已满时会死锁），应使用 thenCompose 组合
+ * <pre>
+ * KongAdminClient kong = new KongAdminClient("http://admin.zlikun.com");
+ * Service service = kong.services().retrieve("service_users");
+ * Page&lt;Route&gt; routes = kong.routes().listByService("service_users", 100, null);
+ * ServiceView view = Futures.get(kong.serviceViewAsync("service_users"));
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+public class KongAdminClient {
+
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static final OkHttpClient SHARED = newHttpClient(64, 32, 32, TimeUnit.MINUTES.toMillis(5));
+
+    private final HttpUrl baseUrl;
+    private final OkHttpClient http;
+    private final ObjectMapper mapper;
+
+    private final Resource<Service> services;
+    private final Routes routes;
+    private final Plugins plugins;
+    private final Resource<Consumer> consumers;
+    private final Resource<Upstream> upstreams;
+    private final Resource<Certificate> certificates;
+    private final Resource<Sni> snis;
+    private final ConcurrentMap<String, Resource<Target>> targets = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseUrl Admin API地址，如：http://admin.zlikun.com
+     */
+    public KongAdminClient(String baseUrl) {
+        this(baseUrl, SHARED);
+    }
+
+    /**
+     * @param maxRequestsPerHost 该客户端异步请求的最大并发数，超过时排队，与共享客户端共用线程池和连接池
+     */
+    public KongAdminClient(String baseUrl, int maxRequestsPerHost) {
+        this(baseUrl, withMaxRequestsPerHost(SHARED, maxRequestsPerHost));
+    }
+
+    public KongAdminClient(String baseUrl, OkHttpClient http) {
+        HttpUrl url = HttpUrl.parse(baseUrl);
+        if (url == null) {
+            throw new IllegalArgumentException("invalid admin url: " + baseUrl);
+        }
+        this.baseUrl = url;
+        this.http = http;
+        this.mapper = newObjectMapper();
+        this.services = new Resource<>(this, "services", Service.class);
+        this.routes = new Routes(this);
+        this.plugins = new Plugins(this);
+        this.consumers = new Resource<>(this, "consumers", Consumer.class);
+        this.upstreams = new Resource<>(this, "upstreams", Upstream.class);
+        this.certificates = new Resource<>(this, "certificates", Certificate.class);
+        this.snis = new Resource<>(this, "snis", Sni.class);
+    }
+
+    /**
+     * 进程内共享的 OkHttpClient，需要调整超时等参数时通过 sharedHttpClient().newBuilder() 派生，仍共用连接池和调度器
+     */
+    public static OkHttpClient sharedHttpClient() {
+        return SHARED;
+    }
+
+    /**
+     * 创建一个独立连接池和调度器的 OkHttpClient
+     *
+     * @param maxRequests        最大并发请求数
+     * @param maxRequestsPerHost 单个主机的最大并发请求数，Admin API通常只有一个主机，应与 maxIdleConnections 一致
+     * @param maxIdleConnections 最大空闲连接数
+     * @param keepAliveMillis    空闲连接保持时间（毫秒）
+     */
+    public static OkHttpClient newHttpClient(int maxRequests, int maxRequestsPerHost, int maxIdleConnections, long keepAliveMillis) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+                .connectTimeout(5, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 派生一个独立并发限制的 OkHttpClient，共用原客户端的线程池和连接池
+     * 注意：调度器的并发限制只对异步请求（enqueue）生效，阻塞请求（execute）不受限制
+     */
+    public static OkHttpClient withMaxRequestsPerHost(OkHttpClient http, int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher(http.dispatcher().executorService());
+        dispatcher.setMaxRequests(Math.max(maxRequestsPerHost, http.dispatcher().getMaxRequests()));
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return http.newBuilder().dispatcher(dispatcher).build();
+    }
+
+    /**
+     * Admin API的JSON映射：字段名为下划线风格，忽略未知字段，不输出null字段（PATCH时只更新非null字段），
+     * Kong（lua-cjson）会将空数组编码为 {}，解析为集合时按空集合处理
+     */
+    public static ObjectMapper newObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.addHandler(new DeserializationProblemHandler() {
+            @Override
+            public Object handleUnexpectedToken(DeserializationContext ctxt, Class<?> targetType, JsonToken t,
+                                                JsonParser p, String failureMsg) throws IOException {
+                if (t == JsonToken.START_OBJECT && Collection.class.isAssignableFrom(targetType)) {
+                    p.skipChildren();
+                    return new ArrayList<>();
+                }
+                return NOT_HANDLED;
+            }
+        });
+        return mapper;
+    }
+
+    public HttpUrl getBaseUrl() {
+        return baseUrl;
+    }
+
+    public OkHttpClient getHttpClient() {
+        return http;
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public Resource<Service> services() {
+        return services;
+    }
+
+    public Routes routes() {
+        return routes;
+    }
+
+    public Plugins plugins() {
+        return plugins;
+    }
+
+    public Resource<Consumer> consumers() {
+        return consumers;
+    }
+
+    public Resource<Upstream> upstreams() {
+        return upstreams;
+    }
+
+    /**
+     * 上游的目标节点，/upstreams/{upstream}/targets，同一个上游总是返回同一个实例，监听器对后续调用同样有效
+     *
+     * @param upstream 上游ID或名称
+     */
+    public Resource<Target> targets(String upstream) {
+        return targets.computeIfAbsent(upstream, u -> new Resource<>(this, "upstreams/" + u + "/targets", Target.class));
+    }
+
+    public Resource<Certificate> certificates() {
+        return certificates;
+    }
+
+    public Resource<Sni> snis() {
+        return snis;
+    }
+
+    /**
+     * 并发查询服务、服务上的路由和插件，路由返回后再并发查询每个路由上的插件，共两轮往返；服务不存在时返回null
+     *
+     * @param service 服务ID或名称
+     */
+    public CompletableFuture<ServiceView> serviceViewAsync(String service) {
+        CompletableFuture<Service> entity = services.retrieveAsync(service);
+        CompletableFuture<List<Plugin>> servicePlugins = plugins.listAllByServiceAsync(service);
+        CompletableFuture<List<Route>> serviceRoutes = routes.listAllByServiceAsync(service);
+        CompletableFuture<Map<String, List<Plugin>>> routePlugins = serviceRoutes.thenCompose(list -> Futures.traverse(
+                list.stream().map(Route::getId).collect(Collectors.toList()), plugins::listAllByRouteAsync));
+        return Futures.all(Arrays.asList(entity, servicePlugins, serviceRoutes, routePlugins))
+                .thenApply(v -> new ServiceView(entity.join(), serviceRoutes.join(), servicePlugins.join(), routePlugins.join()))
+                .exceptionally(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (cause instanceof KongException && ((KongException) cause).isNotFound()) {
+                        return null;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * 并发查询多个服务的视图，不存在的服务不包含在结果中
+     */
+    public CompletableFuture<Map<String, ServiceView>> serviceViewsAsync(Collection<String> services) {
+        return Futures.traverse(services, this::serviceViewAsync).thenApply(views -> {
+            views.values().removeIf(Objects::isNull);
+            return views;
+        });
+    }
+
+    RequestBody json(Object entity) throws IOException {
+        return RequestBody.create(JSON, mapper.writeValueAsBytes(entity));
+    }
+
+    <R> R execute(Request request, Class<R> type) throws IOException {
+        return execute(request, mapper.constructType(type), false);
+    }
+
+    <R> R execute(Request request, JavaType type) throws IOException {
+        return execute(request, type, false);
+    }
+
+    /**
+     * 404时返回null
+     */
+    <R> R executeOrNull(Request request, Class<R> type) throws IOException {
+        return execute(request, mapper.constructType(type), true);
+    }
+
+    private <R> R execute(Request request, JavaType type, boolean notFoundAsNull) throws IOException {
+        try (Response response = http.newCall(request).execute()) {
+            return read(response, type, notFoundAsNull);
+        }
+    }
+
+    /**
+     * 异步执行，响应在回调线程中解析并关闭，取消返回的Future时同时取消请求
+     */
+    <R> CompletableFuture<R> executeAsync(Request request, JavaType type) {
+        return executeAsync(request, type, false);
+    }
+
+    /**
+     * 异步执行，404时返回null
+     */
+    <R> CompletableFuture<R> executeOrNullAsync(Request request, JavaType type) {
+        return executeAsync(request, type, true);
+    }
+
+    private <R> CompletableFuture<R> executeAsync(Request request, JavaType type, boolean notFoundAsNull) {
+        Call call = http.newCall(request);
+        CompletableFuture<R> future = new CompletableFuture<R>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                call.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response r = response) {
+                    future.complete(read(r, type, notFoundAsNull));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 解析响应，调用方负责关闭响应
+     *
+     * @param type 为null时不解析响应体
+     */
+    <R> R read(Response response, JavaType type, boolean notFoundAsNull) throws IOException {
+        int code = response.code();
+        if (code == 404 && notFoundAsNull) {
+            return null;
+        }
+        if (!response.isSuccessful()) {
+            Request request = response.request();
+            throw new KongException(request.method(), request.url().toString(), code, response.peekBody(4096).string());
+        }
+        if (type == null || code == 204) {
+            return null;
+        }
+        return mapper.readValue(response.body().byteStream(), type);
+    }
+
+}
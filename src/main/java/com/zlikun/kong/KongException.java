@@ -0,0 +1,41 @@
+package com.zlikun.kong;
+
+import java.io.IOException;
+
+/**
+ * Admin API返回非预期的状态码，如：409 Conflict，{"name":"already exists with value 'rate-limiting'"}
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+public class KongException extends IOException {
+
+    private final int status;
+    private final String body;
+
+    public KongException(String method, String url, int status, String body) {
+        super(method + " " + url + " -> " + status + " " + body);
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * 响应体，最多保留前4KB
+     */
+    public String getBody() {
+        return body;
+    }
+
+    public boolean isConflict() {
+        return status == 409;
+    }
+
+    public boolean isNotFound() {
+        return status == 404;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.zlikun.kong;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.List;
+
+/**
+ * 列表查询的一页数据
+ * 服务、路由返回：{"next": "/services?offset=...", "offset": "...", "data": [...]}，
+ * 消费者、插件等返回：{"total": 1, "next": "http://admin.zlikun.com/consumers?offset=...&size=3", "offset": "...", "data": [...]}
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Page<T> {
+
+    private List<T> data;
+
+    /**
+     * 下一页的地址，最后一页为null
+     */
+    private String next;
+
+    /**
+     * 下一页的偏移量，作为下次查询的 offset 参数
+     */
+    private String offset;
+
+    /**
+     * 总数，只有部分接口返回
+     */
+    private Long total;
+
+    /**
+     * 下一页的偏移量，没有下一页时返回null
+     */
+    public String nextOffset() {
+        if (next == null) {
+            return null;
+        }
+        if (offset != null) {
+            return offset;
+        }
+        int start = next.indexOf("offset=");
+        if (start < 0) {
+            return null;
+        }
+        start += "offset=".length();
+        int end = next.indexOf('&', start);
+        try {
+            return URLDecoder.decode(next.substring(start, end < 0 ? next.length() : end), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.zlikun.kong;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * 遍历列表接口的所有数据，按 offset 逐页查询：
+ * 1. 取得一页后立即异步请求下一页，调用方处理当前页的同时下一页已在传输和解析
+ * 2. 每页在OkHttp的回调线程中直接从响应流解析为实体，内存中最多同时保留两页数据，与总数无关
+ * 3. 请求失败时 hasNext / next 抛出 UncheckedIOException，提前结束遍历时应调用 close 取消预取的请求
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 21:30
+ */
+public class PageIterator<T> implements Iterator<T>, Closeable {
+
+    /**
+     * 按 offset 异步查询一页，第一页的 offset 为null
+     */
+    private final Function<String, CompletableFuture<Page<T>>> fetch;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> next;
+    private int pages;
+
+    PageIterator(Function<String, CompletableFuture<Page<T>>> fetch) {
+        this.fetch = fetch;
+        this.next = fetch.apply(null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            Page<T> page = await(next);
+            pages++;
+            String offset = page.nextOffset();
+            // 先发出下一页的请求，再处理当前页
+            next = offset != null ? fetch.apply(offset) : null;
+            current = page.getData() != null ? page.getData().iterator() : Collections.emptyIterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 已取得的页数
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    @Override
+    public void close() {
+        if (next != null) {
+            next.cancel(true);
+            next = null;
+        }
+        current = Collections.emptyIterator();
+    }
+
+    private Page<T> await(CompletableFuture<Page<T>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedIOException(new IOException("interrupted", e));
+        } catch (ExecutionException e) {
+            next = null;
+            Throwable cause = e.getCause();
+            throw new UncheckedIOException(cause instanceof IOException ? (IOException) cause : new IOException(cause));
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.zlikun.kong;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.zlikun.kong.entity.Plugin;
+import lombok.Data;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * 插件，/plugins
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+public class Plugins extends Resource<Plugin> {
+
+    Plugins(KongAdminClient client) {
+        super(client, "plugins", Plugin.class);
+    }
+
+    /**
+     * 查询服务上的插件，/services/{service}/plugins
+     */
+    public Page<Plugin> listByService(String service, int size, String offset) throws IOException {
+        return list(nested("services", service), size, offset);
+    }
+
+    /**
+     * 查询路由上的插件，/routes/{route}/plugins
+     */
+    public Page<Plugin> listByRoute(String route, int size, String offset) throws IOException {
+        return list(nested("routes", route), size, offset);
+    }
+
+    /**
+     * 查询消费者的插件，/plugins?consumer_id={consumerId}
+     */
+    public Page<Plugin> listByConsumer(String consumerId, int size, String offset) throws IOException {
+        return list(byConsumer(consumerId), size, offset);
+    }
+
+    public Stream<Plugin> streamByService(String service) {
+        return stream(iterator(nested("services", service), MAX_PAGE_SIZE));
+    }
+
+    public Stream<Plugin> streamByRoute(String route) {
+        return stream(iterator(nested("routes", route), MAX_PAGE_SIZE));
+    }
+
+    public Stream<Plugin> streamByConsumer(String consumerId) {
+        return stream(iterator(byConsumer(consumerId), MAX_PAGE_SIZE));
+    }
+
+    public CompletableFuture<List<Plugin>> listAllByServiceAsync(String service) {
+        return listAllAsync(nested("services", service));
+    }
+
+    public CompletableFuture<List<Plugin>> listAllByRouteAsync(String route) {
+        return listAllAsync(nested("routes", route));
+    }
+
+    public CompletableFuture<List<Plugin>> listAllByConsumerAsync(String consumerId) {
+        return listAllAsync(byConsumer(consumerId));
+    }
+
+    private HttpUrl nested(String parent, String idOrName) {
+        return client.getBaseUrl().newBuilder().addPathSegment(parent).addPathSegment(idOrName)
+                .addPathSegment("plugins").build();
+    }
+
+    private HttpUrl byConsumer(String consumerId) {
+        return url().newBuilder().addQueryParameter("consumer_id", consumerId).build();
+    }
+
+    /**
+     * 节点上已启用的插件名称，/plugins/enabled
+     */
+    public List<String> enabled() throws IOException {
+        Request request = new Request.Builder().url(url("enabled")).get().build();
+        return client.execute(request, Enabled.class).getEnabledPlugins();
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Enabled {
+
+        private List<String> enabledPlugins;
+
+    }
+
+}
@@ -0,0 +1,274 @@
+package com.zlikun.kong;
+
+import com.fasterxml.jackson.databind.JavaType;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 一类Admin API资源的增删改查，如：/services、/upstreams/{upstream}/targets
+ * 除 xxxAsync 方法外均为阻塞调用，线程安全
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+public class Resource<T> {
+
+    /**
+     * 单页最大数量
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    protected final KongAdminClient client;
+    protected final String path;
+    protected final Class<T> type;
+    protected final JavaType pageType;
+
+    private final List<ResourceListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    Resource(KongAdminClient client, String path, Class<T> type) {
+        this.client = client;
+        this.path = path;
+        this.type = type;
+        this.pageType = client.getMapper().getTypeFactory().constructParametricType(Page.class, type);
+    }
+
+    /**
+     * 资源路径，如：services、upstreams/u1/targets
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 注册写入回调，同一客户端的写入都会通知
+     */
+    public void addListener(ResourceListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 创建，POST，已存在时抛出 KongException（409）
+     */
+    public T create(T entity) throws IOException {
+        Request request = new Request.Builder().url(url()).post(client.json(entity)).build();
+        return written(null, client.execute(request, type));
+    }
+
+    /**
+     * 更新或创建，PUT，实体中包含 id 时为更新（整体替换），否则为创建
+     */
+    public T upsert(T entity) throws IOException {
+        Request request = new Request.Builder().url(url()).put(client.json(entity)).build();
+        return written(null, client.execute(request, type));
+    }
+
+    /**
+     * 按ID或名称查询，不存在时返回null
+     */
+    public T retrieve(String idOrName) throws IOException {
+        Request request = new Request.Builder().url(url(idOrName)).get().build();
+        return client.executeOrNull(request, type);
+    }
+
+    /**
+     * 按ID或名称更新，PATCH，实体中为null的字段不会修改
+     */
+    public T update(String idOrName, T patch) throws IOException {
+        Request request = new Request.Builder().url(url(idOrName)).patch(client.json(patch)).build();
+        return written(idOrName, client.execute(request, type));
+    }
+
+    /**
+     * 按ID或名称删除
+     *
+     * @return 不存在时返回false
+     */
+    public boolean delete(String idOrName) throws IOException {
+        Request request = new Request.Builder().url(url(idOrName)).delete().build();
+        try {
+            client.execute(request, (JavaType) null);
+            written(idOrName, null);
+            return true;
+        } catch (KongException e) {
+            if (e.isNotFound()) {
+                written(idOrName, null);
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步创建，409等非预期的状态码以 KongException 结束返回的Future
+     */
+    public CompletableFuture<T> createAsync(T entity) {
+        return sendAsync(url(), "POST", entity).thenApply(e -> written(null, e));
+    }
+
+    /**
+     * 异步更新或创建，PUT
+     */
+    public CompletableFuture<T> upsertAsync(T entity) {
+        return sendAsync(url(), "PUT", entity).thenApply(e -> written(null, e));
+    }
+
+    /**
+     * 异步按ID或名称查询，不存在时结果为null
+     */
+    public CompletableFuture<T> retrieveAsync(String idOrName) {
+        Request request = new Request.Builder().url(url(idOrName)).get().build();
+        return client.executeOrNullAsync(request, client.getMapper().constructType(type));
+    }
+
+    /**
+     * 异步按ID或名称更新，PATCH
+     */
+    public CompletableFuture<T> updateAsync(String idOrName, T patch) {
+        return sendAsync(url(idOrName), "PATCH", patch).thenApply(e -> written(idOrName, e));
+    }
+
+    /**
+     * 异步按ID或名称删除，不存在时结果为false
+     */
+    public CompletableFuture<Boolean> deleteAsync(String idOrName) {
+        Request request = new Request.Builder().url(url(idOrName)).delete().build();
+        return client.executeAsync(request, null).handle((v, e) -> {
+            Throwable cause = e == null ? null : Futures.unwrap(e);
+            if (cause != null && !(cause instanceof KongException && ((KongException) cause).isNotFound())) {
+                throw new CompletionException(cause);
+            }
+            written(idOrName, null);
+            return cause == null;
+        });
+    }
+
+    /**
+     * 异步查询一页数据
+     */
+    public CompletableFuture<Page<T>> listAsync(int size, String offset) {
+        return listAsync(Collections.emptyMap(), size, offset);
+    }
+
+    /**
+     * 异步查询所有数据，逐页请求（每页1000条）并合并为一个列表，适合数量不大的资源
+     */
+    public CompletableFuture<List<T>> listAllAsync() {
+        return listAllAsync(url());
+    }
+
+    /**
+     * 异步按字段过滤查询一页数据，如：/consumers?custom_id=x、/plugins?consumer_id=x&amp;name=rate-limiting
+     */
+    public CompletableFuture<Page<T>> listAsync(Map<String, String> filters, int size, String offset) {
+        HttpUrl.Builder builder = url().newBuilder();
+        filters.forEach(builder::addQueryParameter);
+        return client.executeAsync(new Request.Builder().url(pageUrl(builder.build(), size, offset)).get().build(), pageType);
+    }
+
+    /**
+     * 查询一页数据
+     *
+     * @param size   单页数量，最大：1000
+     * @param offset 上一页返回的偏移量，第一页为null
+     */
+    public Page<T> list(int size, String offset) throws IOException {
+        return list(url(), size, offset);
+    }
+
+    /**
+     * 遍历所有数据，每页1000条，并预取下一页
+     */
+    public PageIterator<T> iterator() {
+        return iterator(url(), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 遍历所有数据，关闭Stream时取消预取的请求，建议使用 try-with-resources
+     */
+    public Stream<T> stream() {
+        return stream(iterator());
+    }
+
+    protected Page<T> list(HttpUrl url, int size, String offset) throws IOException {
+        return client.execute(new Request.Builder().url(pageUrl(url, size, offset)).get().build(), pageType);
+    }
+
+    protected CompletableFuture<List<T>> listAllAsync(HttpUrl url) {
+        return collect(url, null, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<T>> collect(HttpUrl url, String offset, List<T> into) {
+        Request request = new Request.Builder().url(pageUrl(url, MAX_PAGE_SIZE, offset)).get().build();
+        return client.<Page<T>>executeAsync(request, pageType).thenCompose(page -> {
+            if (page.getData() != null) {
+                into.addAll(page.getData());
+            }
+            String next = page.nextOffset();
+            return next == null ? CompletableFuture.completedFuture(into) : collect(url, next, into);
+        });
+    }
+
+    protected PageIterator<T> iterator(HttpUrl url, int size) {
+        return new PageIterator<>(offset -> client.executeAsync(
+                new Request.Builder().url(pageUrl(url, size, offset)).get().build(), pageType));
+    }
+
+    protected static <E> Stream<E> stream(PageIterator<E> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * 分页参数：size 最大1000；offset 是上一页返回的不透明游标（不是数值偏移量），第一页不传
+     */
+    private static HttpUrl pageUrl(HttpUrl url, int size, String offset) {
+        HttpUrl.Builder builder = url.newBuilder().addQueryParameter("size", Integer.toString(Math.min(size, MAX_PAGE_SIZE)));
+        if (offset != null) {
+            builder.addQueryParameter("offset", offset);
+        }
+        return builder.build();
+    }
+
+    private CompletableFuture<T> sendAsync(HttpUrl url, String method, T entity) {
+        Request request;
+        try {
+            request = new Request.Builder().url(url).method(method, client.json(entity)).build();
+        } catch (IOException e) {
+            return Futures.failed(e);
+        }
+        return client.executeAsync(request, client.getMapper().constructType(type));
+    }
+
+    protected T written(String idOrName, T entity) {
+        for (ResourceListener<T> listener : listeners) {
+            listener.written(idOrName, entity);
+        }
+        return entity;
+    }
+
+    protected HttpUrl url() {
+        return client.getBaseUrl().newBuilder().addPathSegments(path).build();
+    }
+
+    protected HttpUrl url(String idOrName) {
+        return client.getBaseUrl().newBuilder().addPathSegments(path).addPathSegment(idOrName).build();
+    }
+
+}
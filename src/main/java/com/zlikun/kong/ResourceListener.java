@@ -0,0 +1,17 @@
+package com.zlikun.kong;
+
+/**
+ * 通过客户端写入（创建、更新、删除）资源成功后的回调，用于使本地缓存失效
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 22:30
+ */
+public interface ResourceListener<T> {
+
+    /**
+     * @param idOrName 请求中使用的ID或名称，创建时为null
+     * @param entity   Kong返回的最新实体，删除时为null
+     */
+    void written(String idOrName, T entity);
+
+}
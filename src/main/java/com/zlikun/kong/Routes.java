@@ -0,0 +1,52 @@
+package com.zlikun.kong;
+
+import com.zlikun.kong.entity.Route;
+
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * 路由，/routes
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+public class Routes extends Resource<Route> {
+
+    Routes(KongAdminClient client) {
+        super(client, "routes", Route.class);
+    }
+
+    /**
+     * 查询服务关联的路由，/services/{service}/routes
+     *
+     * @param service 服务ID或名称
+     */
+    public Page<Route> listByService(String service, int size, String offset) throws IOException {
+        return list(byService(service), size, offset);
+    }
+
+    /**
+     * 遍历服务关联的所有路由
+     */
+    public Stream<Route> streamByService(String service) {
+        return stream(iterator(byService(service), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 异步查询服务关联的所有路由
+     */
+    public CompletableFuture<List<Route>> listAllByServiceAsync(String service) {
+        return listAllAsync(byService(service));
+    }
+
+    private HttpUrl byService(String service) {
+        return client.getBaseUrl().newBuilder().addPathSegment("services").addPathSegment(service)
+                .addPathSegment("routes").build();
+    }
+
+}
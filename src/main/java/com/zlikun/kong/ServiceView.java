@@ -0,0 +1,34 @@
+package com.zlikun.kong;
+
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务及其路由、插件的聚合视图，由 {@link KongAdminClient#serviceViewAsync(String)} 并发查询
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 09:00
+ */
+@Data
+public class ServiceView {
+
+    private final Service service;
+
+    private final List<Route> routes;
+
+    /**
+     * 服务上的插件，/services/{service}/plugins
+     */
+    private final List<Plugin> plugins;
+
+    /**
+     * 每个路由上的插件，键为路由ID，顺序与 routes 一致
+     */
+    private final Map<String, List<Plugin>> routePlugins;
+
+}
@@ -0,0 +1,301 @@
+package com.zlikun.kong.balancer;
+
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 本地负载均衡，模拟Kong 0.13.x上游（ring-balancer）的目标选择，用于预测流量在目标节点间的分布
+ * 1. 均衡器是一个有 slots 个槽位的轮盘，每个目标按权重比例分配槽位（最大余数法），
+ *    槽位按固定种子打乱后依次分配，同样的上游和目标在每个节点上得到同样的轮盘
+ * 2. hash_on 为 none 时加权轮询：依次遍历轮盘；否则按 consumer、ip 或 header 的值计算CRC32，对槽位数取模，
+ *    哈希值为空时使用 hash_fallback，仍为空时轮询；两种方式都是O(1)
+ * 3. 目标变化时只移动必须移动的槽位：权重减少（或删除）的目标释放多出的槽位，权重增加（或新增）的目标领取空闲槽位，
+ *    其余槽位不变，因此一致性哈希下只有被移动槽位上的请求改变目标
+ * 目标变化时复制轮盘后替换，选择目标不加锁，线程安全
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 16:00
+ */
+@Slf4j
+public class Balancer {
+
+    public static final int DEFAULT_SLOTS = 1000;
+    public static final int DEFAULT_WEIGHT = 100;
+
+    private final int slots;
+    private final String hashOn;
+    private final String hashFallback;
+    private final String hashOnHeader;
+    private final String hashFallbackHeader;
+
+    /**
+     * 槽位的分配顺序（按固定种子打乱）
+     */
+    private final int[] rank;
+
+    /**
+     * 每个槽位对应的目标
+     */
+    private volatile String[] wheel;
+
+    /**
+     * 每个目标的权重和槽位，只在 update 中修改
+     */
+    private final Map<String, Integer> weights = new LinkedHashMap<>();
+    private final Map<String, List<Integer>> assigned = new HashMap<>();
+
+    private final AtomicInteger pointer = new AtomicInteger();
+
+    public Balancer(Upstream upstream, Collection<Target> targets) {
+        this.slots = upstream.getSlots() == null ? DEFAULT_SLOTS : upstream.getSlots();
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots must be greater than 0");
+        }
+        this.hashOn = upstream.getHashOn() == null ? "none" : upstream.getHashOn();
+        this.hashFallback = upstream.getHashFallback() == null ? "none" : upstream.getHashFallback();
+        this.hashOnHeader = upstream.getHashOnHeader();
+        this.hashFallbackHeader = upstream.getHashFallbackHeader();
+
+        List<Integer> order = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(slots));
+        this.rank = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            rank[order.get(i)] = i;
+        }
+        this.wheel = new String[slots];
+        update(targets);
+    }
+
+    public Balancer(int slots, Collection<Target> targets) {
+        this(upstream(slots), targets);
+    }
+
+    private static Upstream upstream(int slots) {
+        Upstream upstream = new Upstream();
+        upstream.setSlots(slots);
+        return upstream;
+    }
+
+    /**
+     * 读取上游及其目标
+     */
+    public static Balancer load(KongAdminClient client, String upstream) throws IOException {
+        Upstream entity = client.upstreams().retrieve(upstream);
+        if (entity == null) {
+            throw new IllegalArgumentException("upstream not found: " + upstream);
+        }
+        try (Stream<Target> stream = client.targets(upstream).stream()) {
+            return new Balancer(entity, stream.collect(Collectors.toList()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 替换目标集合，返回改变了目标的槽位数
+     * 同一个目标有多条记录时（Admin API的目标是追加的），以最后创建的为准，权重为0的目标被禁用
+     */
+    public synchronized int update(Collection<Target> targets) {
+        Map<String, Integer> active = active(targets);
+        Map<String, Integer> quotas = quotas(active);
+        String[] next = wheel.clone();
+
+        // 释放多出的槽位，后分配的先释放
+        List<Integer> free = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            if (next[slot] == null) {
+                free.add(slot);
+            }
+        }
+        for (Map.Entry<String, List<Integer>> entry : assigned.entrySet()) {
+            List<Integer> owned = entry.getValue();
+            int quota = quotas.getOrDefault(entry.getKey(), 0);
+            while (owned.size() > quota) {
+                int slot = owned.remove(owned.size() - 1);
+                next[slot] = null;
+                free.add(slot);
+            }
+        }
+        assigned.values().removeIf(List::isEmpty);
+
+        // 按打乱后的顺序领取空闲槽位
+        free.sort(Comparator.comparingInt(slot -> rank[slot]));
+        int moved = 0;
+        int cursor = 0;
+        for (Map.Entry<String, Integer> entry : quotas.entrySet()) {
+            List<Integer> owned = assigned.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+            while (owned.size() < entry.getValue()) {
+                int slot = free.get(cursor++);
+                next[slot] = entry.getKey();
+                owned.add(slot);
+                if (!entry.getKey().equals(wheel[slot])) {
+                    moved++;
+                }
+            }
+        }
+        for (int i = cursor; i < free.size(); i++) {
+            if (wheel[free.get(i)] != null) {
+                moved++;
+            }
+        }
+        assigned.values().removeIf(List::isEmpty);
+        weights.clear();
+        weights.putAll(active);
+        wheel = next;
+        if (log.isDebugEnabled()) {
+            log.debug("balancer updated with {} targets, {} of {} slots moved", active.size(), moved, slots);
+        }
+        return moved;
+    }
+
+    /**
+     * 有效的目标及其权重，按首次出现的顺序
+     */
+    private static Map<String, Integer> active(Collection<Target> targets) {
+        List<Target> sorted = new ArrayList<>(targets);
+        sorted.sort(Comparator.comparing(t -> t.getCreatedAt() == null ? 0 : t.getCreatedAt()));
+        Map<String, Integer> active = new LinkedHashMap<>();
+        for (Target target : sorted) {
+            int weight = target.getWeight() == null ? DEFAULT_WEIGHT : target.getWeight();
+            if (weight > 0) {
+                active.put(target.getTarget(), weight);
+            } else {
+                active.remove(target.getTarget());
+            }
+        }
+        return active;
+    }
+
+    /**
+     * 按权重分配槽位数：先取整，剩余的槽位分给小数部分最大的目标
+     */
+    private Map<String, Integer> quotas(Map<String, Integer> active) {
+        Map<String, Integer> quotas = new LinkedHashMap<>();
+        long total = active.values().stream().mapToLong(Integer::longValue).sum();
+        if (total == 0) {
+            return quotas;
+        }
+        List<String> names = new ArrayList<>(active.keySet());
+        long[] remainders = new long[names.size()];
+        int left = slots;
+        for (int i = 0; i < names.size(); i++) {
+            long share = (long) slots * active.get(names.get(i));
+            quotas.put(names.get(i), (int) (share / total));
+            remainders[i] = share % total;
+            left -= share / total;
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Long.compare(remainders[b], remainders[a]));
+        for (int i = 0; i < left; i++) {
+            quotas.merge(names.get(order.get(i)), 1, Integer::sum);
+        }
+        return quotas;
+    }
+
+    /**
+     * 加权轮询选择目标，没有可用的目标时返回null（所有槽位都为空）
+     */
+    public String next() {
+        String[] current = wheel;
+        return current[(pointer.getAndIncrement() & Integer.MAX_VALUE) % current.length];
+    }
+
+    /**
+     * 按哈希值选择目标，哈希值为null时轮询
+     */
+    public String select(String hashValue) {
+        if (hashValue == null) {
+            return next();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(hashValue.getBytes(StandardCharsets.UTF_8));
+        String[] current = wheel;
+        return current[(int) (crc.getValue() % current.length)];
+    }
+
+    /**
+     * 按上游的 hash_on / hash_fallback 配置选择目标
+     *
+     * @param consumerId 认证后的消费者，可以为null
+     * @param ip         客户端IP
+     * @param headers    请求头，名称不区分大小写
+     */
+    public String select(String consumerId, String ip, Map<String, String> headers) {
+        String value = hashValue(hashOn, hashOnHeader, consumerId, ip, headers);
+        if (value == null) {
+            value = hashValue(hashFallback, hashFallbackHeader, consumerId, ip, headers);
+        }
+        return select(value);
+    }
+
+    private static String hashValue(String hashOn, String header, String consumerId, String ip, Map<String, String> headers) {
+        switch (hashOn) {
+            case "consumer":
+                return consumerId;
+            case "ip":
+                return ip;
+            case "header":
+                if (headers == null || header == null) {
+                    return null;
+                }
+                for (Map.Entry<String, String> entry : headers.entrySet()) {
+                    if (entry.getKey().equalsIgnoreCase(header)) {
+                        return entry.getValue();
+                    }
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public String getHashOn() {
+        return hashOn;
+    }
+
+    /**
+     * 有效目标的权重
+     */
+    public synchronized Map<String, Integer> weights() {
+        return new LinkedHashMap<>(weights);
+    }
+
+    /**
+     * 每个目标分配的槽位数
+     */
+    public synchronized Map<String, Integer> slotCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        weights.keySet().forEach(target -> counts.put(target, assigned.getOrDefault(target, Collections.emptyList()).size()));
+        return counts;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.zlikun.kong.balancer;
+
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Target;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 目标集合的流量分布报告：按权重的期望比例、分配的槽位、加权轮询和一致性哈希（samples 个不同的哈希值）的实际比例
+ * <pre>
+ * # 离线：目标=权重，逗号分隔
+ * java -cp ... com.zlikun.kong.balancer.DistributionReport --targets=192.168.0.104:8080=100,192.168.0.105:8080=50 --slots=1000
+ * # 读取Admin API中的上游，--add / --remove 模拟目标变化，输出改变目标的比例
+ * java -cp ... com.zlikun.kong.balancer.DistributionReport --admin=http://admin.zlikun.com --upstream=api.zlikun.com --add=192.168.0.106:8080=100
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 16:40
+ */
+@Slf4j
+@Data
+public class DistributionReport {
+
+    private final int slots;
+    private final int samples;
+    private final List<Row> rows = new ArrayList<>();
+
+    /**
+     * 实际比例与期望比例的最大偏差（相对期望比例）
+     */
+    private double maxRoundRobinDeviation;
+    private double maxHashDeviation;
+
+    @Data
+    public static class Row {
+
+        private final String target;
+        private final int weight;
+        private final int slots;
+        private final double expected;
+        private final double roundRobin;
+        private final double hash;
+
+    }
+
+    /**
+     * 轮询和哈希各选择 samples 次，统计每个目标的比例
+     */
+    public static DistributionReport of(Balancer balancer, int samples) {
+        Map<String, Integer> roundRobin = new HashMap<>();
+        Map<String, Integer> hash = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            String target = balancer.next();
+            if (target != null) {
+                roundRobin.merge(target, 1, Integer::sum);
+            }
+            target = balancer.select("sample-" + i);
+            if (target != null) {
+                hash.merge(target, 1, Integer::sum);
+            }
+        }
+
+        DistributionReport report = new DistributionReport(balancer.getSlots(), samples);
+        Map<String, Integer> weights = balancer.weights();
+        Map<String, Integer> slots = balancer.slotCounts();
+        double total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            String target = entry.getKey();
+            Row row = new Row(target, entry.getValue(), slots.get(target), entry.getValue() / total,
+                    roundRobin.getOrDefault(target, 0) / (double) samples, hash.getOrDefault(target, 0) / (double) samples);
+            report.rows.add(row);
+            report.maxRoundRobinDeviation = Math.max(report.maxRoundRobinDeviation, Math.abs(row.roundRobin - row.expected) / row.expected);
+            report.maxHashDeviation = Math.max(report.maxHashDeviation, Math.abs(row.hash - row.expected) / row.expected);
+        }
+        return report;
+    }
+
+    /**
+     * samples 个哈希值中改变目标的比例
+     */
+    public static double remapped(Balancer before, Balancer after, int samples) {
+        int changed = 0;
+        for (int i = 0; i < samples; i++) {
+            String value = "sample-" + i;
+            String target = before.select(value);
+            if (target == null || !target.equals(after.select(value))) {
+                changed++;
+            }
+        }
+        return changed / (double) samples;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-32s %8s %8s %10s %10s %10s%n", "target", "weight", "slots", "expected", "rr", "hash"));
+        for (Row row : rows) {
+            sb.append(String.format("%-32s %8d %8d %9.2f%% %9.2f%% %9.2f%%%n", row.target, row.weight, row.slots,
+                    row.expected * 100, row.roundRobin * 100, row.hash * 100));
+        }
+        sb.append(String.format("slots: %d, samples: %d, max deviation: rr %.2f%%, hash %.2f%%", slots, samples,
+                maxRoundRobinDeviation * 100, maxHashDeviation * 100));
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        int samples = Integer.parseInt(options.getOrDefault("samples", "100000"));
+        List<Target> targets;
+        Balancer balancer;
+        if (options.containsKey("admin") && options.containsKey("upstream")) {
+            KongAdminClient client = new KongAdminClient(options.get("admin"));
+            balancer = Balancer.load(client, options.get("upstream"));
+            targets = new ArrayList<>();
+            balancer.weights().forEach((target, weight) -> targets.add(target(target, weight)));
+        } else if (options.containsKey("targets")) {
+            targets = targets(options.get("targets"));
+            balancer = new Balancer(Integer.parseInt(options.getOrDefault("slots", String.valueOf(Balancer.DEFAULT_SLOTS))), targets);
+        } else {
+            throw new IllegalArgumentException("usage: (--admin=http://admin.zlikun.com --upstream=name | --targets=host:port=weight,...) "
+                    + "[--slots=1000] [--samples=100000] [--add=host:port=weight,...] [--remove=host:port,...]");
+        }
+        log.info("distribution:\n{}", of(balancer, samples).format());
+
+        if (!options.containsKey("add") && !options.containsKey("remove")) {
+            return;
+        }
+        List<Target> changed = new ArrayList<>(targets);
+        if (options.containsKey("add")) {
+            changed.addAll(targets(options.get("add")));
+        }
+        if (options.containsKey("remove")) {
+            for (String target : options.get("remove").split(",")) {
+                changed.add(target(target.trim(), 0));
+            }
+        }
+        Balancer after = new Balancer(balancer.getSlots(), targets);
+        int moved = after.update(changed);
+        log.info("after change:\n{}", of(after, samples).format());
+        log.info("{} of {} slots moved ({}%), {}% of hash values remapped", moved, balancer.getSlots(),
+                String.format("%.2f", moved * 100.0 / balancer.getSlots()),
+                String.format("%.2f", remapped(balancer, after, samples) * 100));
+    }
+
+    /**
+     * 解析 host:port=weight 列表，省略权重时为默认权重
+     */
+    private static List<Target> targets(String value) {
+        List<Target> targets = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String[] pair = item.trim().split("=", 2);
+            targets.add(target(pair[0], pair.length > 1 ? Integer.parseInt(pair[1]) : Balancer.DEFAULT_WEIGHT));
+        }
+        return targets;
+    }
+
+    private static Target target(String address, int weight) {
+        Target target = new Target();
+        target.setTarget(address);
+        target.setWeight(weight);
+        return target;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.zlikun.kong.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 导入断点，线程安全，文件格式：
+ * <pre>
+ * # line 之前（含）的行都已处理完成，failed 中的行导入失败，恢复时重新导入
+ * line=120000
+ * failed=17,230
+ * </pre>
+ * 请求是并发完成的，line 取所有未完成的行中最小的行号之前一行，恢复时可能重复导入少量已完成的行，
+ * 导入本身是幂等的（409按已存在处理）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+public class Checkpoint {
+
+    private final Path file;
+
+    /**
+     * 上次导入完成的行号
+     */
+    private final long resumeLine;
+
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private final TreeSet<Long> failed = new TreeSet<>();
+    private long lastBegun;
+
+    Checkpoint(Path file, long resumeLine, TreeSet<Long> failed) {
+        this.file = file;
+        this.resumeLine = resumeLine;
+        this.lastBegun = resumeLine;
+        this.failed.addAll(failed);
+    }
+
+    /**
+     * 读取断点文件，不存在时从头开始
+     */
+    public static Checkpoint load(Path file) throws IOException {
+        TreeSet<Long> failed = new TreeSet<>();
+        if (!Files.exists(file)) {
+            return new Checkpoint(file, 0, failed);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String line : properties.getProperty("failed", "").split(",")) {
+            if (!line.isEmpty()) {
+                failed.add(Long.valueOf(line));
+            }
+        }
+        return new Checkpoint(file, Long.parseLong(properties.getProperty("line", "0")), failed);
+    }
+
+    /**
+     * 该行在上次导入中已成功，跳过
+     */
+    public synchronized boolean isDone(long line) {
+        return line <= resumeLine && !failed.contains(line);
+    }
+
+    public synchronized void begin(long line) {
+        inFlight.add(line);
+        lastBegun = Math.max(lastBegun, line);
+    }
+
+    public synchronized void finish(long line, boolean success) {
+        inFlight.remove(line);
+        if (success) {
+            failed.remove(line);
+        } else {
+            failed.add(line);
+        }
+    }
+
+    /**
+     * 所有已完成的最大连续行号，不小于 resumeLine
+     * 恢复时重新导入的失败行（不大于 resumeLine）由 failed 记录，不参与计算，否则断点会回退
+     */
+    public synchronized long getLine() {
+        Long first = inFlight.higher(resumeLine);
+        return first == null ? lastBegun : first - 1;
+    }
+
+    public synchronized int getFailed() {
+        return failed.size();
+    }
+
+    /**
+     * 先写入临时文件再原子替换，写入过程中中断不会损坏原断点
+     */
+    public void save() throws IOException {
+        Properties properties = new Properties();
+        synchronized (this) {
+            properties.setProperty("line", Long.toString(getLine()));
+            properties.setProperty("failed", failed.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "kong consumer import");
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.zlikun.kong.bulk;
+
+import com.zlikun.kong.Futures;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.KongException;
+import com.zlikun.kong.Page;
+import com.zlikun.kong.Resource;
+import com.zlikun.kong.entity.Consumer;
+import com.zlikun.kong.entity.Plugin;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消费者批量导入，逐行读取CSV/NDJSON文件，异步提交请求
+ * 1. 最多 window 条记录同时在处理中，达到上限时暂停读取文件（背压），内存占用与文件大小无关
+ * 2. 每条记录：创建消费者，409时查询已存在的消费者；再并发创建其插件，409时查询已存在的插件并更新配置
+ * 3. 定期保存断点（{@link Checkpoint}），中断后使用同一断点文件再次导入时跳过已完成的行，只重试失败的行
+ * <pre>
+ * ImportResult result = new ConsumerImporter(kong, 256).run(Paths.get("consumers.csv"), Paths.get("consumers.csv.checkpoint"));
+ * </pre>
+ * 实际并发请求数还受 OkHttpClient 调度器的 maxRequestsPerHost 限制，window 大于该值时多出的请求在调度器中排队
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+@Slf4j
+public class ConsumerImporter {
+
+    /**
+     * 保存断点的间隔
+     */
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Resource<Consumer> consumers;
+    private final Resource<Plugin> plugins;
+    private final int window;
+
+    /**
+     * @param window 同时处理的最大记录数
+     */
+    public ConsumerImporter(KongAdminClient client, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.consumers = client.consumers();
+        this.plugins = client.plugins();
+        this.window = window;
+    }
+
+    /**
+     * 导入文件，返回前等待所有请求完成并保存断点
+     */
+    public ImportResult run(Path input, Path checkpointFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Checkpoint checkpoint = Checkpoint.load(checkpointFile);
+        ImportResult result = new ImportResult();
+        Semaphore permits = new Semaphore(window);
+        long saved = start;
+        try (ConsumerRecordReader reader = ConsumerRecordReader.open(input)) {
+            ConsumerRecord record;
+            while ((record = reader.next()) != null) {
+                long line = reader.getLine();
+                if (checkpoint.isDone(line)) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    continue;
+                }
+                permits.acquire();
+                checkpoint.begin(line);
+                importRecord(record, result).whenComplete((v, e) -> {
+                    if (e != null) {
+                        log.warn("line {} failed: {}", line, Futures.unwrap(e).getMessage());
+                        result.failed(line, Futures.unwrap(e));
+                    }
+                    checkpoint.finish(line, e == null);
+                    permits.release();
+                });
+                if (System.nanoTime() - saved > CHECKPOINT_INTERVAL_NANOS) {
+                    checkpoint.save();
+                    saved = System.nanoTime();
+                    log.info("imported up to line {}, {} failed", checkpoint.getLine(), checkpoint.getFailed());
+                }
+            }
+            // 等待处理中的记录完成
+            permits.acquire(window);
+            permits.release(window);
+        } finally {
+            checkpoint.save();
+        }
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    CompletableFuture<Void> importRecord(ConsumerRecord record, ImportResult result) {
+        Consumer consumer = new Consumer();
+        consumer.setUsername(record.getUsername());
+        consumer.setCustomId(record.getCustomId());
+        return consumers.createAsync(consumer)
+                .handle((created, e) -> {
+                    if (e == null) {
+                        result.created(false);
+                        return CompletableFuture.completedFuture(created);
+                    }
+                    if (!isConflict(e)) {
+                        throw new CompletionException(Futures.unwrap(e));
+                    }
+                    result.created(true);
+                    return findConsumer(record, e);
+                })
+                .thenCompose(c -> c)
+                .thenCompose(existing -> CompletableFuture.allOf(record.getPlugins().stream()
+                        .map(plugin -> upsertPlugin(existing.getId(), plugin, result))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    private CompletableFuture<Consumer> findConsumer(ConsumerRecord record, Throwable conflict) {
+        Map<String, String> filter = record.getUsername() != null
+                ? Collections.singletonMap("username", record.getUsername())
+                : Collections.singletonMap("custom_id", record.getCustomId());
+        return consumers.listAsync(filter, 1, null).thenApply(page -> first(page, conflict));
+    }
+
+    private CompletableFuture<Plugin> upsertPlugin(String consumerId, Plugin spec, ImportResult result) {
+        Plugin plugin = new Plugin();
+        plugin.setName(spec.getName());
+        plugin.setConfig(spec.getConfig());
+        plugin.setEnabled(spec.getEnabled());
+        plugin.setConsumerId(consumerId);
+        return plugins.createAsync(plugin)
+                .handle((created, e) -> {
+                    if (e == null) {
+                        result.pluginCreated(false);
+                        return CompletableFuture.completedFuture(created);
+                    }
+                    if (!isConflict(e)) {
+                        throw new CompletionException(Futures.unwrap(e));
+                    }
+                    Map<String, String> filter = new LinkedHashMap<>();
+                    filter.put("consumer_id", consumerId);
+                    filter.put("name", spec.getName());
+                    return plugins.listAsync(filter, 1, null)
+                            .thenCompose(page -> {
+                                Plugin patch = new Plugin();
+                                patch.setConfig(spec.getConfig());
+                                patch.setEnabled(spec.getEnabled());
+                                return plugins.updateAsync(first(page, e).getId(), patch);
+                            })
+                            .thenApply(updated -> {
+                                result.pluginCreated(true);
+                                return updated;
+                            });
+                })
+                .thenCompose(p -> p);
+    }
+
+    /**
+     * 409后查询不到已存在的实体（如：username不同但custom_id冲突），以原409结束
+     */
+    private static <T> T first(Page<T> page, Throwable conflict) {
+        if (page.getData() == null || page.getData().isEmpty()) {
+            throw new CompletionException(Futures.unwrap(conflict));
+        }
+        return page.getData().get(0);
+    }
+
+    private static boolean isConflict(Throwable e) {
+        Throwable cause = Futures.unwrap(e);
+        return cause instanceof KongException && ((KongException) cause).isConflict();
+    }
+
+    /**
+     * 命令行导入，断点文件默认为：导入文件名.checkpoint
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (!options.containsKey("admin") || !options.containsKey("file")) {
+            throw new IllegalArgumentException("usage: --admin=http://admin.zlikun.com --file=consumers.csv [--window=256] [--checkpoint=consumers.csv.checkpoint]");
+        }
+        Path file = Paths.get(options.get("file"));
+        Path checkpoint = Paths.get(options.getOrDefault("checkpoint", file + ".checkpoint"));
+        ConsumerImporter importer = new ConsumerImporter(new KongAdminClient(options.get("admin")),
+                Integer.parseInt(options.getOrDefault("window", "256")));
+        ImportResult result = importer.run(file, checkpoint);
+        log.info("imported in {}ms: {} created, {} existing, {} plugins created, {} plugins updated, {} skipped, {} failed",
+                result.getElapsedMillis(), result.getCreated(), result.getExisting(), result.getPluginsCreated(),
+                result.getPluginsUpdated(), result.getSkipped(), result.getFailed());
+        if (!result.isSuccess()) {
+            System.exit(1);
+        }
+    }
+
+}
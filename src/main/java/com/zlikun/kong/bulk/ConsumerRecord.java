@@ -0,0 +1,32 @@
+package com.zlikun.kong.bulk;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.zlikun.kong.entity.Plugin;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入的一个消费者及其插件，NDJSON中的一行：
+ * {"username":"consumer_zlikun","plugins":[{"name":"rate-limiting","config":{"second":2,"minute":5}}]}
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConsumerRecord {
+
+    /**
+     * username 与 custom_id 至少有一个不能为空，409时按 username（为空时按 custom_id）查询已存在的消费者
+     */
+    private String username;
+    private String customId;
+
+    /**
+     * 消费者的插件，只需要 name、config，可选 enabled
+     */
+    private List<Plugin> plugins = new ArrayList<>();
+
+}
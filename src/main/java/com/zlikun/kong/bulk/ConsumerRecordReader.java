@@ -0,0 +1,165 @@
+package com.zlikun.kong.bulk;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Plugin;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 逐行读取导入文件，不会一次读入整个文件，非线程安全
+ * 1. NDJSON：每行一个 ConsumerRecord
+ * 2. CSV（.csv）：第一行为表头，username、custom_id 两列为消费者，其他列为插件配置，格式：插件名称.配置名称，
+ *    如：username,custom_id,rate-limiting.second,rate-limiting.minute，插件配置都为空时不创建该插件
+ * 空行忽略，行号为文件中的物理行号（从1开始，包括表头），用作断点
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+public class ConsumerRecordReader implements Closeable {
+
+    private static final ObjectReader JSON = KongAdminClient.newObjectMapper().readerFor(ConsumerRecord.class);
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private String[] header;
+    private long line;
+
+    public ConsumerRecordReader(BufferedReader reader, boolean csv) {
+        this.reader = reader;
+        this.csv = csv;
+    }
+
+    public static ConsumerRecordReader open(Path file) throws IOException {
+        return new ConsumerRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8),
+                file.getFileName().toString().toLowerCase().endsWith(".csv"));
+    }
+
+    /**
+     * 读取下一条记录，文件结束时返回null，格式错误时抛出异常（包含行号）
+     */
+    public ConsumerRecord next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            if (!csv) {
+                try {
+                    return JSON.readValue(text);
+                } catch (IOException e) {
+                    throw new IOException("line " + line + ": " + e.getMessage(), e);
+                }
+            }
+            List<String> cells = split(text);
+            if (header == null) {
+                header = cells.toArray(new String[0]);
+                continue;
+            }
+            return record(cells);
+        }
+        return null;
+    }
+
+    /**
+     * 最近一次 next 返回的记录所在行号
+     */
+    public long getLine() {
+        return line;
+    }
+
+    private ConsumerRecord record(List<String> cells) throws IOException {
+        if (cells.size() > header.length) {
+            throw new IOException("line " + line + ": expected " + header.length + " columns but was " + cells.size());
+        }
+        ConsumerRecord record = new ConsumerRecord();
+        Map<String, Plugin> plugins = new LinkedHashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            String column = header[i];
+            String value = cells.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if ("username".equals(column)) {
+                record.setUsername(value);
+            } else if ("custom_id".equals(column)) {
+                record.setCustomId(value);
+            } else {
+                int dot = column.indexOf('.');
+                if (dot < 0) {
+                    throw new IOException("line " + line + ": unknown column " + column);
+                }
+                Plugin plugin = plugins.computeIfAbsent(column.substring(0, dot), name -> {
+                    Plugin p = new Plugin();
+                    p.setName(name);
+                    p.setConfig(new LinkedHashMap<>());
+                    return p;
+                });
+                plugin.getConfig().put(column.substring(dot + 1), value(value));
+            }
+        }
+        record.getPlugins().addAll(plugins.values());
+        return record;
+    }
+
+    /**
+     * 数值、布尔值按JSON类型提交，其他为字符串
+     */
+    static Object value(String text) {
+        if ("true".equals(text) || "false".equals(text)) {
+            return Boolean.valueOf(text);
+        }
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            return text;
+        }
+    }
+
+    /**
+     * 按逗号拆分，支持双引号包含的字段（字段内 "" 表示一个双引号），不支持字段内换行
+     */
+    static List<String> split(String text) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
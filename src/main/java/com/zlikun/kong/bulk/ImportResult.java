@@ -0,0 +1,82 @@
+package com.zlikun.kong.bulk;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导入结果，导入过程中由回调线程更新，导入结束后再读取
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+@Data
+public class ImportResult {
+
+    /**
+     * 最多保留的失败明细数
+     */
+    static final int MAX_FAILURES = 100;
+
+    private long created;
+
+    /**
+     * 已存在（409）的消费者数
+     */
+    private long existing;
+
+    private long pluginsCreated;
+
+    /**
+     * 已存在（409）而更新配置的插件数
+     */
+    private long pluginsUpdated;
+
+    /**
+     * 断点之前已完成而跳过的行数
+     */
+    private long skipped;
+
+    private long failed;
+
+    private final List<Failure> failures = new ArrayList<>();
+
+    private long elapsedMillis;
+
+    public boolean isSuccess() {
+        return failed == 0;
+    }
+
+    synchronized void created(boolean conflict) {
+        if (conflict) {
+            existing++;
+        } else {
+            created++;
+        }
+    }
+
+    synchronized void pluginCreated(boolean conflict) {
+        if (conflict) {
+            pluginsUpdated++;
+        } else {
+            pluginsCreated++;
+        }
+    }
+
+    synchronized void failed(long line, Throwable error) {
+        failed++;
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(new Failure(line, error));
+        }
+    }
+
+    @Data
+    public static class Failure {
+
+        private final long line;
+        private final Throwable error;
+
+    }
+
+}
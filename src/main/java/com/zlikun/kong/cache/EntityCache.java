@@ -0,0 +1,306 @@
+package com.zlikun.kong.cache;
+
+import com.zlikun.kong.PageIterator;
+import com.zlikun.kong.Resource;
+import com.zlikun.kong.ResourceListener;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 一类Kong实体的本地读穿透缓存，线程安全
+ * 1. 按ID或名称查询，缓存未命中或已过期时查询Admin API并缓存结果
+ * 2. 按ID存储，名称映射到ID，超过容量时淘汰最久未访问的实体
+ * 3. 通过同一客户端写入时：更新、创建直接缓存Kong返回的最新实体，删除时移除
+ * 4. refresh 遍历一次列表（每页1000条）刷新所有缓存的实体，只替换版本发生变化的实体，
+ *    并移除Kong中已删除的实体，代价是 N/1000 次请求而不是 N 次查询；
+ *    0.13 的列表接口不支持按修改时间过滤，所以代价与集合大小成正比（O(集合大小)），而不是与缓存的实体数成正比
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 22:30
+ */
+public class EntityCache<T> implements ResourceListener<T> {
+
+    private final Resource<T> resource;
+    private final Function<T, String> idOf;
+    private final Function<T, String> nameOf;
+    private final Function<T, Number> versionOf;
+    private final boolean versionTracksUpdates;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    /**
+     * 按访问顺序排列，最久未访问的在前
+     */
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> idsByName = new HashMap<>();
+
+    /**
+     * 每次失效时递增，查询期间发生失效时不缓存查询结果，避免缓存旧数据
+     */
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param resource             Admin API资源
+     * @param idOf                 实体ID
+     * @param nameOf               实体名称，没有名称的实体返回null
+     * @param versionOf            实体版本：updated_at，没有该字段时使用 created_at
+     * @param versionTracksUpdates 版本是否随更新变化（updated_at），为false时版本一致还需比较内容
+     * @param ttlNanos             缓存有效期（纳秒）
+     * @param maxSize              最大缓存数量
+     */
+    public EntityCache(Resource<T> resource, Function<T, String> idOf, Function<T, String> nameOf,
+                       Function<T, Number> versionOf, boolean versionTracksUpdates, long ttlNanos, int maxSize) {
+        this(resource, idOf, nameOf, versionOf, versionTracksUpdates, ttlNanos, maxSize, System::nanoTime);
+    }
+
+    EntityCache(Resource<T> resource, Function<T, String> idOf, Function<T, String> nameOf,
+                Function<T, Number> versionOf, boolean versionTracksUpdates, long ttlNanos, int maxSize, LongSupplier clock) {
+        this.resource = resource;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.versionOf = versionOf;
+        this.versionTracksUpdates = versionTracksUpdates;
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        resource.addListener(this);
+    }
+
+    /**
+     * 按ID或名称查询，不存在时返回null（不缓存）
+     */
+    public T get(String idOrName) throws IOException {
+        long expected;
+        synchronized (this) {
+            Entry<T> entry = lookup(idOrName);
+            if (entry != null && clock.getAsLong() - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.entity;
+            }
+            expected = generation;
+        }
+        misses.increment();
+        T entity = resource.retrieve(idOrName);
+        synchronized (this) {
+            if (generation == expected) {
+                if (entity != null) {
+                    put(entity, clock.getAsLong());
+                } else {
+                    remove(idOrName);
+                }
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 使指定ID或名称的实体失效
+     */
+    public synchronized void invalidate(String idOrName) {
+        generation++;
+        remove(idOrName);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        idsByName.clear();
+    }
+
+    @Override
+    public synchronized void written(String idOrName, T entity) {
+        generation++;
+        if (idOrName != null) {
+            remove(idOrName);
+        }
+        if (entity != null) {
+            put(entity, clock.getAsLong());
+        }
+    }
+
+    /**
+     * 遍历列表预先加载实体，直到达到容量上限
+     *
+     * @return 加载的数量
+     */
+    public int preload() throws IOException {
+        int loaded = 0;
+        try (PageIterator<T> iterator = resource.iterator()) {
+            while (loaded < maxSize && iterator.hasNext()) {
+                T entity = iterator.next();
+                synchronized (this) {
+                    put(entity, clock.getAsLong());
+                }
+                loaded++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return loaded;
+    }
+
+    /**
+     * 增量刷新：遍历一次列表，版本未变化的实体只延长有效期，变化的替换，Kong中已删除的移除；
+     * 遍历期间通过客户端写入的实体以写入结果为准
+     */
+    public RefreshResult refresh() throws IOException {
+        long start = clock.getAsLong();
+        RefreshResult result = new RefreshResult();
+        Set<String> seen = new HashSet<>();
+        try (PageIterator<T> iterator = resource.iterator()) {
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                String id = idOf.apply(entity);
+                result.scanned++;
+                synchronized (this) {
+                    Entry<T> entry = entries.get(id);
+                    if (entry == null) {
+                        continue;
+                    }
+                    // 只记录缓存中的ID，判断删除只需要这些，不必保存整个集合的ID
+                    seen.add(id);
+                    if (entry.loadedAt > start) {
+                        continue;
+                    }
+                    if (changed(entry.entity, entity)) {
+                        put(entity, clock.getAsLong());
+                        result.changed++;
+                    } else {
+                        entry.loadedAt = clock.getAsLong();
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        synchronized (this) {
+            for (Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Entry<T>> entry = it.next();
+                if (!seen.contains(entry.getKey()) && entry.getValue().loadedAt <= start) {
+                    it.remove();
+                    removeName(entry.getValue().entity, entry.getKey());
+                    result.removed++;
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private boolean changed(T cached, T latest) {
+        Number before = versionOf.apply(cached);
+        Number after = versionOf.apply(latest);
+        if (!Objects.equals(before, after)) {
+            return true;
+        }
+        // created_at 不随更新变化（只能说明没有被删除后重建），还需比较内容
+        return !(versionTracksUpdates && before != null) && !cached.equals(latest);
+    }
+
+    private Entry<T> lookup(String idOrName) {
+        Entry<T> entry = entries.get(idOrName);
+        if (entry == null) {
+            String id = idsByName.get(idOrName);
+            if (id != null) {
+                entry = entries.get(id);
+            }
+        }
+        return entry;
+    }
+
+    private void put(T entity, long now) {
+        String id = idOf.apply(entity);
+        Entry<T> previous = entries.put(id, new Entry<>(entity, now));
+        if (previous != null) {
+            removeName(previous.entity, id);
+        }
+        String name = nameOf.apply(entity);
+        if (name != null) {
+            idsByName.put(name, id);
+        }
+        while (entries.size() > maxSize) {
+            Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator();
+            Map.Entry<String, Entry<T>> eldest = it.next();
+            it.remove();
+            removeName(eldest.getValue().entity, eldest.getKey());
+        }
+    }
+
+    private void remove(String idOrName) {
+        String id = entries.containsKey(idOrName) ? idOrName : idsByName.get(idOrName);
+        if (id == null) {
+            return;
+        }
+        Entry<T> entry = entries.remove(id);
+        if (entry != null) {
+            removeName(entry.entity, id);
+        }
+    }
+
+    private void removeName(T entity, String id) {
+        String name = nameOf.apply(entity);
+        if (name != null && id.equals(idsByName.get(name))) {
+            idsByName.remove(name);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final T entity;
+        long loadedAt;
+
+        Entry(T entity, long loadedAt) {
+            this.entity = entity;
+            this.loadedAt = loadedAt;
+        }
+
+    }
+
+    @Data
+    public static class RefreshResult {
+
+        /**
+         * 遍历的实体数
+         */
+        private int scanned;
+
+        /**
+         * 版本变化而替换的缓存数
+         */
+        private int changed;
+
+        /**
+         * Kong中已删除而移除的缓存数
+         */
+        private int removed;
+
+    }
+
+}
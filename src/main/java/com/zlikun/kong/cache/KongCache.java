@@ -0,0 +1,81 @@
+package com.zlikun.kong.cache;
+
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Consumer;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Upstream;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kong实体的本地缓存，服务、路由按 updated_at 判断变化，消费者、插件、上游没有 updated_at，按 created_at 和内容判断
+ * <pre>
+ * KongCache cache = new KongCache(kong, 5, TimeUnit.MINUTES, 10000);
+ * Service service = cache.services().get("service_users");
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 22:30
+ */
+public class KongCache {
+
+    private final EntityCache<Service> services;
+    private final EntityCache<Route> routes;
+    private final EntityCache<Plugin> plugins;
+    private final EntityCache<Consumer> consumers;
+    private final EntityCache<Upstream> upstreams;
+
+    /**
+     * @param client  Admin API客户端，通过该客户端的写入会使缓存失效
+     * @param ttl     缓存有效期
+     * @param maxSize 每类实体的最大缓存数量
+     */
+    public KongCache(KongAdminClient client, long ttl, TimeUnit unit, int maxSize) {
+        long ttlNanos = unit.toNanos(ttl);
+        this.services = new EntityCache<>(client.services(), Service::getId, Service::getName,
+                Service::getUpdatedAt, true, ttlNanos, maxSize);
+        this.routes = new EntityCache<>(client.routes(), Route::getId, route -> null,
+                Route::getUpdatedAt, true, ttlNanos, maxSize);
+        this.plugins = new EntityCache<>(client.plugins(), Plugin::getId, plugin -> null,
+                Plugin::getCreatedAt, false, ttlNanos, maxSize);
+        this.consumers = new EntityCache<>(client.consumers(), Consumer::getId, Consumer::getUsername,
+                Consumer::getCreatedAt, false, ttlNanos, maxSize);
+        this.upstreams = new EntityCache<>(client.upstreams(), Upstream::getId, Upstream::getName,
+                Upstream::getCreatedAt, false, ttlNanos, maxSize);
+    }
+
+    public EntityCache<Service> services() {
+        return services;
+    }
+
+    public EntityCache<Route> routes() {
+        return routes;
+    }
+
+    public EntityCache<Plugin> plugins() {
+        return plugins;
+    }
+
+    public EntityCache<Consumer> consumers() {
+        return consumers;
+    }
+
+    public EntityCache<Upstream> upstreams() {
+        return upstreams;
+    }
+
+    /**
+     * 增量刷新所有缓存，可由定时任务调用
+     */
+    public void refresh() throws IOException {
+        services.refresh();
+        routes.refresh();
+        plugins.refresh();
+        consumers.refresh();
+        upstreams.refresh();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 证书，对应：/certificates
+ * https://getkong.org/docs/0.13.x/admin-api/#certificate-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Certificate {
+
+    private String id;
+
+    /**
+     * PEM格式的证书及私钥
+     */
+    private String cert;
+    private String key;
+
+    /**
+     * 关联的SNI名称
+     */
+    private List<String> snis;
+
+    /**
+     * 创建时间（毫秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+}
@@ -0,0 +1,29 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 消费者，对应：/consumers，username 与 custom_id 至少有一个不能为空
+ * https://getkong.org/docs/0.13.x/admin-api/#consumer-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Consumer {
+
+    private String id;
+
+    private String username;
+    private String customId;
+
+    /**
+     * 创建时间（毫秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+}
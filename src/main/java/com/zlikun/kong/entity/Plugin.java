@@ -0,0 +1,48 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 插件，对应：/plugins
+ * https://getkong.org/docs/0.13.x/admin-api/#plugin-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Plugin {
+
+    private String id;
+
+    /**
+     * 插件名称，如：rate-limiting
+     */
+    private String name;
+
+    /**
+     * 插件配置，对应表单中以 config. 为前缀的参数
+     */
+    private Map<String, Object> config;
+
+    private Boolean enabled;
+
+    /**
+     * 作用范围，都为空时为全局插件
+     */
+    private String serviceId;
+    private String routeId;
+    private String consumerId;
+    private String apiId;
+
+    /**
+     * 创建时间（毫秒，与服务、路由不同）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+}
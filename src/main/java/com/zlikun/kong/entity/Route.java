@@ -0,0 +1,45 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 路由，对应：/routes
+ * https://getkong.org/docs/0.13.x/admin-api/#route-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Route {
+
+    private String id;
+
+    private List<String> protocols;
+    private List<String> methods;
+    private List<String> hosts;
+    private List<String> paths;
+
+    private Integer regexPriority;
+    private Boolean stripPath;
+    private Boolean preserveHost;
+
+    /**
+     * 关联的服务，只有 id 字段
+     */
+    private Reference service;
+
+    /**
+     * 创建、更新时间（秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long updatedAt;
+
+}
@@ -0,0 +1,50 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 服务，对应：/services
+ * https://getkong.org/docs/0.13.x/admin-api/#service-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Service {
+
+    private String id;
+
+    private String name;
+
+    /**
+     * 由 protocol + host + port + path 组成，只在创建或更新时使用，Kong不会返回该字段
+     */
+    private String url;
+
+    private String protocol;
+    private String host;
+    private Integer port;
+    private String path;
+
+    /**
+     * 请求重试次数，默认：5
+     */
+    private Integer retries;
+
+    private Integer connectTimeout;
+    private Integer writeTimeout;
+    private Integer readTimeout;
+
+    /**
+     * 创建、更新时间（秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long updatedAt;
+
+}
@@ -0,0 +1,28 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * SNI，对应：/snis，以 name 作为标识
+ * https://getkong.org/docs/0.13.x/admin-api/#sni-objects
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Sni {
+
+    private String name;
+
+    private String sslCertificateId;
+
+    /**
+     * 创建时间（毫秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+}
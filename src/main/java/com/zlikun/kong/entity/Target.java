@@ -0,0 +1,39 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * 上游的目标节点，对应：/upstreams/{upstream}/targets
+ * https://getkong.org/docs/0.13.x/admin-api/#target-object
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Target {
+
+    private String id;
+
+    /**
+     * 目标地址，如：192.168.0.104:8080
+     */
+    private String target;
+
+    /**
+     * 权重，0-1000，默认：100，为0时表示禁用
+     */
+    private Integer weight;
+
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String upstreamId;
+
+    /**
+     * 创建时间（毫秒，包含小数）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Double createdAt;
+
+}
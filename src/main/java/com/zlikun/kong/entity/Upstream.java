@@ -0,0 +1,45 @@
+package com.zlikun.kong.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 上游（负载均衡），对应：/upstreams
+ * https://getkong.org/docs/0.13.x/admin-api/#upstream-objects
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Upstream {
+
+    private String id;
+
+    private String name;
+
+    /**
+     * 负载均衡器的槽位数，默认：1000
+     */
+    private Integer slots;
+
+    /**
+     * 哈希输入：none / consumer / ip / header，默认：none，即加权轮询
+     */
+    private String hashOn;
+    private String hashFallback;
+    private String hashOnHeader;
+    private String hashFallbackHeader;
+
+    private Map<String, Object> healthchecks;
+
+    /**
+     * 创建时间（毫秒）
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long createdAt;
+
+}
@@ -0,0 +1,33 @@
+package com.zlikun.kong.ratelimit;
+
+/**
+ * rate-limiting 插件的限流周期，名称与插件配置项（config.second 等）一致
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 14:00
+ */
+public enum Period {
+
+    SECOND(1000L),
+    MINUTE(60 * 1000L),
+    HOUR(60 * 60 * 1000L),
+    DAY(24 * 60 * 60 * 1000L);
+
+    private final long millis;
+
+    Period(long millis) {
+        this.millis = millis;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * 插件配置项名称，也用于 X-RateLimit-Limit-{name} 响应头
+     */
+    public String configKey() {
+        return name().toLowerCase();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.zlikun.kong.ratelimit;
+
+import com.zlikun.kong.entity.Plugin;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * rate-limiting 插件配置，对应插件的 config 属性
+ * https://getkong.org/plugins/rate-limiting/
+ * month、year 按自然月、自然年计算，本地限流不支持，读取时忽略
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 14:10
+ */
+@Slf4j
+@Data
+public class RateLimitConfig {
+
+    /**
+     * 每个周期的最大请求数，未配置的周期不限制
+     */
+    private final Map<Period, Long> limits = new EnumMap<>(Period.class);
+
+    /**
+     * 限流对象：consumer、credential 或 ip，无法识别消费者（凭证）时按 ip 限流
+     */
+    private String limitBy = "consumer";
+
+    /**
+     * 计数存储：local、cluster 或 redis，本地限流只影响说明，计数都在进程内
+     */
+    private String policy = "cluster";
+
+    public RateLimitConfig limit(Period period, long limit) {
+        if (limit <= 0 || limit > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(period.configKey() + " must be between 1 and " + Integer.MAX_VALUE);
+        }
+        limits.put(period, limit);
+        return this;
+    }
+
+    /**
+     * 读取插件配置，数值可以是数字（Admin API响应）或字符串（表单参数）
+     */
+    public static RateLimitConfig of(Map<String, Object> config) {
+        RateLimitConfig result = new RateLimitConfig();
+        for (Period period : Period.values()) {
+            Object value = config.get(period.configKey());
+            if (value != null) {
+                long limit = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+                result.limit(period, limit);
+            }
+        }
+        if (config.get("month") != null || config.get("year") != null) {
+            log.warn("month / year limits are not supported locally and will be ignored: {}", config);
+        }
+        if (result.limits.isEmpty()) {
+            throw new IllegalArgumentException("You need to set at least one limit: second, minute, hour, day");
+        }
+        if (config.get("limit_by") != null) {
+            result.setLimitBy(config.get("limit_by").toString());
+        }
+        if (config.get("policy") != null) {
+            result.setPolicy(config.get("policy").toString());
+        }
+        return result;
+    }
+
+    public static RateLimitConfig of(Plugin plugin) {
+        if (!"rate-limiting".equals(plugin.getName())) {
+            throw new IllegalArgumentException("not a rate-limiting plugin: " + plugin.getName());
+        }
+        return of(plugin.getConfig());
+    }
+
+    /**
+     * 按 limit_by 选择限流对象的标识，与插件一致：无法识别时使用客户端IP
+     */
+    public String identifier(String consumerId, String credentialId, String ip) {
+        String identifier = null;
+        if ("consumer".equals(limitBy)) {
+            identifier = consumerId != null ? consumerId : credentialId;
+        } else if ("credential".equals(limitBy)) {
+            identifier = credentialId;
+        }
+        return identifier != null ? identifier : ip;
+    }
+
+}
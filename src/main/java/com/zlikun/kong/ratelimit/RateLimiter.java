@@ -0,0 +1,336 @@
+package com.zlikun.kong.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内限流，配置与 rate-limiting 插件一致，用于在应用内执行或模拟插件的限流规则，避免每个请求访问数据库
+ * 1. 每个限流对象（消费者、凭证或IP）一组计数器：每个周期两个槽位，轮流记录当前窗口和前一个窗口，
+ *    每个槽位是一个 long，高32位为窗口序号、低32位为计数，窗口切换和计数通过一次CAS完成，不加锁
+ * 2. 未超限时才计数（CAS前检查），多个周期依次计数，后面的周期超限时撤销前面已计的数，
+ *    高并发下不会放行超过限制的请求，但撤销前的瞬间其他请求可能被多拒绝
+ * 3. 限流对象按哈希分散到多个分段，每个分段一个 ConcurrentHashMap，
+ *    分段内限流对象数增长到一定数量时清理所有周期都已过期的计数器；计数器先标记为已清理再移除，
+ *    计数后发现已被清理的请求撤销计数并重试，不会丢失计数
+ * 线程安全
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 14:30
+ */
+@Slf4j
+public class RateLimiter {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final RateLimitConfig config;
+    private final WindowMode mode;
+    private final Period[] periods;
+    private final long[] limits;
+    private final LongSupplier clock;
+
+    /**
+     * 计数器的最后一个槽位，不为0时表示已被清理
+     */
+    private final int retiredSlot;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public RateLimiter(RateLimitConfig config, WindowMode mode) {
+        this(config, mode, Runtime.getRuntime().availableProcessors() * 4, System::currentTimeMillis);
+    }
+
+    /**
+     * @param stripes 分段数，会向上取整为2的幂
+     * @param clock   当前时间(ms)
+     */
+    RateLimiter(RateLimitConfig config, WindowMode mode, int stripes, LongSupplier clock) {
+        this.config = config;
+        this.mode = mode;
+        this.periods = config.getLimits().keySet().toArray(new Period[0]);
+        this.limits = new long[periods.length];
+        for (int i = 0; i < periods.length; i++) {
+            limits[i] = config.getLimits().get(periods[i]);
+        }
+        this.retiredSlot = periods.length * 2;
+        this.clock = clock;
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 请求一次，未超过任何周期的限制时计数并返回true
+     *
+     * @param identifier 限流对象，参考：RateLimitConfig#identifier
+     */
+    public boolean tryAcquire(String identifier) {
+        long now = clock.getAsLong();
+        for (; ; ) {
+            AtomicLongArray counters = counters(identifier);
+            int i = 0;
+            while (i < periods.length && increment(counters, i, now)) {
+                i++;
+            }
+            boolean allowed = i == periods.length;
+            if (!allowed || counters.get(retiredSlot) != 0) {
+                // 撤销已计数的周期
+                for (int j = 0; j < i; j++) {
+                    decrement(counters, j, now);
+                }
+            }
+            if (counters.get(retiredSlot) == 0) {
+                return allowed;
+            }
+        }
+    }
+
+    /**
+     * 周期内剩余的请求数，对应插件的 X-RateLimit-Remaining-{period} 响应头，未配置的周期返回-1
+     */
+    public long remaining(String identifier, Period period) {
+        for (int i = 0; i < periods.length; i++) {
+            if (periods[i] == period) {
+                AtomicLongArray counters = stripe(identifier).counters.get(identifier);
+                return counters == null ? limits[i] : Math.max(0, limits[i] - used(counters, i, clock.getAsLong()));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 距离最近一个超限周期恢复的毫秒数（对应 Retry-After），未超限时返回0
+     */
+    public long retryAfter(String identifier) {
+        AtomicLongArray counters = stripe(identifier).counters.get(identifier);
+        if (counters == null) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        long wait = 0;
+        for (int i = 0; i < periods.length; i++) {
+            if (used(counters, i, now) >= limits[i]) {
+                long millis = periods[i].getMillis();
+                wait = Math.max(wait, millis - now % millis);
+            }
+        }
+        return wait;
+    }
+
+    /**
+     * 当前的限流对象数
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.counters.size();
+        }
+        return size;
+    }
+
+    public RateLimitConfig getConfig() {
+        return config;
+    }
+
+    public WindowMode getMode() {
+        return mode;
+    }
+
+    private Stripe stripe(String identifier) {
+        int h = identifier.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private AtomicLongArray counters(String identifier) {
+        Stripe stripe = stripe(identifier);
+        AtomicLongArray counters = stripe.counters.get(identifier);
+        if (counters != null) {
+            return counters;
+        }
+        counters = stripe.counters.computeIfAbsent(identifier, k -> new AtomicLongArray(retiredSlot + 1));
+        if (stripe.counters.size() >= stripe.threshold.get()) {
+            stripe.evict();
+        }
+        return counters;
+    }
+
+    /**
+     * 周期 i 的当前窗口未超限时计数加1
+     */
+    private boolean increment(AtomicLongArray counters, int i, long now) {
+        long millis = periods[i].getMillis();
+        long epoch = now / millis;
+        int slot = i * 2 + (int) (epoch & 1);
+        for (; ; ) {
+            long value = counters.get(slot);
+            long count = epochOf(value) == (int) epoch ? value & COUNT_MASK : 0;
+            long used = count;
+            if (mode == WindowMode.SLIDING) {
+                used += previous(counters, i, epoch) * (millis - now % millis) / millis;
+            }
+            if (used >= limits[i]) {
+                return false;
+            }
+            if (counters.compareAndSet(slot, value, pack(epoch, count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    private void decrement(AtomicLongArray counters, int i, long now) {
+        long epoch = now / periods[i].getMillis();
+        int slot = i * 2 + (int) (epoch & 1);
+        for (; ; ) {
+            long value = counters.get(slot);
+            long count = value & COUNT_MASK;
+            // 窗口已切换，无需撤销
+            if (epochOf(value) != (int) epoch || count == 0) {
+                return;
+            }
+            if (counters.compareAndSet(slot, value, pack(epoch, count - 1))) {
+                return;
+            }
+        }
+    }
+
+    private long used(AtomicLongArray counters, int i, long now) {
+        long millis = periods[i].getMillis();
+        long epoch = now / millis;
+        long value = counters.get(i * 2 + (int) (epoch & 1));
+        long used = epochOf(value) == (int) epoch ? value & COUNT_MASK : 0;
+        if (mode == WindowMode.SLIDING) {
+            used += previous(counters, i, epoch) * (millis - now % millis) / millis;
+        }
+        return used;
+    }
+
+    /**
+     * 前一个窗口的计数
+     */
+    private static long previous(AtomicLongArray counters, int i, long epoch) {
+        long value = counters.get(i * 2 + (int) ((epoch - 1) & 1));
+        return epochOf(value) == (int) (epoch - 1) ? value & COUNT_MASK : 0;
+    }
+
+    private static int epochOf(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static long pack(long epoch, long count) {
+        return (epoch << 32) | count;
+    }
+
+    /**
+     * 模拟插件配置的限流效果（虚拟时钟，不需要Kong），用于评估插件配置：
+     * --config=second=2,minute=5 [--mode=sliding] --rate=10 --consumers=100 --duration=600
+     * 每个消费者以 rate 次/秒 的速率均匀请求 duration 秒，输出放行比例和每个消费者实际的放行速率
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (!options.containsKey("config")) {
+            throw new IllegalArgumentException("usage: --config=second=2,minute=5 [--mode=sliding] [--rate=10] [--consumers=100] [--duration=600]");
+        }
+        Map<String, Object> plugin = new HashMap<>();
+        for (String pair : options.get("config").split(",")) {
+            String[] kv = pair.split("=", 2);
+            plugin.put(kv[0].trim(), kv[1].trim());
+        }
+        RateLimitConfig config = RateLimitConfig.of(plugin);
+        WindowMode mode = WindowMode.valueOf(options.getOrDefault("mode", "fixed").toUpperCase());
+        double rate = Double.parseDouble(options.getOrDefault("rate", "10"));
+        int consumers = Integer.parseInt(options.getOrDefault("consumers", "100"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "600")) * 1000;
+
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(config, mode, 1, now::get);
+        long step = Math.max(1, Math.round(1000 / rate));
+        long allowed = 0;
+        long total = 0;
+        for (long t = 0; t < duration; t += step) {
+            now.set(t);
+            for (int c = 0; c < consumers; c++) {
+                total++;
+                if (limiter.tryAcquire("consumer-" + c)) {
+                    allowed++;
+                }
+            }
+        }
+        log.info("{} {} limits, {} consumers x {}/s for {}s: allowed {} of {} ({}%), {}/s per consumer",
+                mode, config.getLimits(), consumers, rate, duration / 1000, allowed, total,
+                String.format("%.2f", allowed * 100.0 / Math.max(1, total)),
+                String.format("%.3f", allowed * 1000.0 / consumers / duration));
+    }
+
+    private final class Stripe {
+
+        final Map<String, AtomicLongArray> counters = new ConcurrentHashMap<>();
+
+        /**
+         * 计数器数量达到阈值时清理，清理后阈值调整为剩余数量的两倍
+         */
+        final AtomicInteger threshold = new AtomicInteger(1024);
+
+        void evict() {
+            int current = threshold.get();
+            // 只由一个线程清理
+            if (counters.size() < current || !threshold.compareAndSet(current, Integer.MAX_VALUE)) {
+                return;
+            }
+            counters.values().removeIf(this::retire);
+            threshold.set(Math.max(1024, counters.size() * 2));
+            if (log.isDebugEnabled()) {
+                log.debug("evicted idle rate limit counters, {} remaining", counters.size());
+            }
+        }
+
+        /**
+         * 所有周期的计数都已过期时标记为已清理；标记后再检查一次，期间有新的计数则取消标记
+         */
+        private boolean retire(AtomicLongArray array) {
+            if (!idle(array) || !array.compareAndSet(retiredSlot, 0, 1)) {
+                return false;
+            }
+            if (idle(array)) {
+                return true;
+            }
+            array.set(retiredSlot, 0);
+            return false;
+        }
+
+        private boolean idle(AtomicLongArray array) {
+            long now = clock.getAsLong();
+            boolean used = false;
+            for (int i = 0; i < periods.length; i++) {
+                int epoch = (int) (now / periods[i].getMillis());
+                for (int slot = i * 2; slot < i * 2 + 2; slot++) {
+                    long value = array.get(slot);
+                    used |= value != 0;
+                    if (value != 0 && epoch - epochOf(value) <= 1) {
+                        return false;
+                    }
+                }
+            }
+            // 全为0的是刚创建、还未计数的计数器
+            return used;
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.zlikun.kong.ratelimit;
+
+/**
+ * 限流窗口的计数方式
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 14:00
+ */
+public enum WindowMode {
+
+    /**
+     * 固定窗口，与插件的 local / cluster / redis 策略一致：按自然时间对齐（如每分钟的第0秒）清零，
+     * 相邻两个窗口的交界处最多可通过两倍的请求
+     */
+    FIXED,
+
+    /**
+     * 滑动窗口：当前窗口的计数加上前一个窗口按剩余时间比例折算的计数，限制更平滑
+     */
+    SLIDING
+
+}
@@ -0,0 +1,93 @@
+package com.zlikun.kong.router;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按 Host 查找路由：普通域名使用哈希表，通配符域名（*.zlikun.com、api.zlikun.*）使用按域名标签组织的前缀树
+ * 与Kong一致，通配符匹配至少一级标签，可以匹配多级，如：*.zlikun.com 匹配 a.b.zlikun.com，不匹配 zlikun.com
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:00
+ */
+class HostIndex {
+
+    private final Map<String, BitSet> plain = new HashMap<>();
+
+    /**
+     * *.zlikun.com，按倒序标签：com → zlikun
+     */
+    private final Node leading = new Node();
+
+    /**
+     * api.zlikun.*，按正序标签：api → zlikun
+     */
+    private final Node trailing = new Node();
+
+    void add(String host, int route) {
+        host = host.toLowerCase(Locale.ROOT);
+        if (host.startsWith("*.")) {
+            String[] labels = host.substring(2).split("\\.");
+            Node node = leading;
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.child(labels[i]);
+            }
+            node.routes.set(route);
+        } else if (host.endsWith(".*")) {
+            Node node = trailing;
+            for (String label : host.substring(0, host.length() - 2).split("\\.")) {
+                node = node.child(label);
+            }
+            node.routes.set(route);
+        } else {
+            plain.computeIfAbsent(host, h -> new BitSet()).set(route);
+        }
+    }
+
+    /**
+     * 完全匹配的路由，没有时返回null（不可修改）
+     */
+    BitSet plain(String host) {
+        return plain.get(host);
+    }
+
+    /**
+     * 通配符匹配的路由
+     */
+    BitSet wildcard(String host) {
+        BitSet result = new BitSet();
+        String[] labels = host.split("\\.");
+        Node node = leading;
+        for (int i = labels.length - 1; i > 0 && node != null; i--) {
+            node = node.children == null ? null : node.children.get(labels[i]);
+            if (node != null) {
+                result.or(node.routes);
+            }
+        }
+        node = trailing;
+        for (int i = 0; i < labels.length - 1 && node != null; i++) {
+            node = node.children == null ? null : node.children.get(labels[i]);
+            if (node != null) {
+                result.or(node.routes);
+            }
+        }
+        return result;
+    }
+
+    private static final class Node {
+
+        final BitSet routes = new BitSet();
+        Map<String, Node> children;
+
+        Node child(String label) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(label, l -> new Node());
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.zlikun.kong.router;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按路径查找路由：前缀路径使用字符前缀树，正则路径逐个匹配
+ * 与Kong 0.13.x一致，只包含 [a-zA-Z0-9.-_~/%] 的路径为前缀路径（按字符串前缀匹配，/users 也匹配 /users2），
+ * 其他为正则路径，从路径开头匹配
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:00
+ */
+class PathIndex {
+
+    private static final Pattern PLAIN = Pattern.compile("^[a-zA-Z0-9.\\-_~/%]*$");
+
+    private final Node root = new Node();
+    private final List<Regex> regexes = new ArrayList<>();
+
+    static boolean isPlain(String path) {
+        return PLAIN.matcher(path).matches();
+    }
+
+    void add(String path, int route) {
+        if (!isPlain(path)) {
+            regexes.add(new Regex(route, Pattern.compile(path)));
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.child(path.charAt(i));
+        }
+        node.routes.set(route);
+        node.path = path;
+    }
+
+    /**
+     * 沿前缀树查找所有匹配的前缀路径，更长的前缀覆盖较短的前缀
+     *
+     * @param mask  只查找这些路由（已按 Host、方法、协议过滤）
+     * @param found 匹配的路由 → 匹配的前缀
+     */
+    void prefixes(String path, BitSet mask, Map<Integer, String> found) {
+        Node node = root;
+        collect(node, mask, found);
+        for (int i = 0; i < path.length() && node != null; i++) {
+            node = node.children == null ? null : node.children.get(path.charAt(i));
+            if (node != null) {
+                collect(node, mask, found);
+            }
+        }
+    }
+
+    /**
+     * 逐个匹配正则路径
+     *
+     * @param found 匹配的路由 → 匹配的部分
+     */
+    void regexes(String path, BitSet mask, Map<Integer, String> found) {
+        for (Regex regex : regexes) {
+            if (!mask.get(regex.route) || found.containsKey(regex.route)) {
+                continue;
+            }
+            Matcher matcher = regex.pattern.matcher(path);
+            if (matcher.lookingAt()) {
+                found.put(regex.route, matcher.group());
+            }
+        }
+    }
+
+    private static void collect(Node node, BitSet mask, Map<Integer, String> found) {
+        if (node.path == null || !node.routes.intersects(mask)) {
+            return;
+        }
+        for (int route = node.routes.nextSetBit(0); route >= 0; route = node.routes.nextSetBit(route + 1)) {
+            if (mask.get(route)) {
+                found.put(route, node.path);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        final BitSet routes = new BitSet();
+        String path;
+        Map<Character, Node> children;
+
+        Node child(char c) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+    }
+
+    private static final class Regex {
+
+        final int route;
+        final Pattern pattern;
+
+        Regex(int route, Pattern pattern) {
+            this.route = route;
+            this.pattern = pattern;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.zlikun.kong.router;
+
+import com.zlikun.kong.entity.Route;
+import lombok.Data;
+
+/**
+ * 路由匹配结果
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:00
+ */
+@Data
+public class RouteMatch {
+
+    private final Route route;
+
+    /**
+     * 匹配的域名规则，如：api.zlikun.com、*.zlikun.com，路由未限制域名时为null
+     */
+    private final String host;
+
+    /**
+     * 匹配的路径规则（前缀或正则），路由未限制路径时为null
+     */
+    private final String path;
+
+    /**
+     * 转发到上游的路径，strip_path 为true时去掉匹配的部分
+     */
+    private final String upstreamPath;
+
+    public String getServiceId() {
+        return route.getService() == null ? null : route.getService().getId();
+    }
+
+}
@@ -0,0 +1,407 @@
+package com.zlikun.kong.router;
+
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Route;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 本地路由匹配，按Kong 0.13.x路由器的规则计算请求命中的路由，用于离线校验路由表、发现被遮蔽（永远不会命中）的路由
+ * 1. 路由限制的条件（hosts、paths、methods）都满足、且 protocols 包含请求协议时匹配，未限制的条件匹配任意值
+ * 2. 多个路由匹配时的优先级：
+ *    a. 限制的条件越多越优先，条件数相同时：限制 hosts 的优先于不限制的，再比较 paths
+ *    b. 域名完全匹配优先于通配符匹配
+ *    c. 正则路径优先于前缀路径，正则路径之间按 regex_priority 从大到小，前缀路径之间匹配的前缀越长越优先
+ *    d. 最后按创建时间（先创建的优先）
+ * 3. 构建时为 hosts、paths、methods、protocols 分别建立索引（哈希表、通配符域名前缀树、路径前缀树），
+ *    匹配时对各索引的结果（BitSet）求交集，只有正则路径需要逐个匹配，数千个路由时单次匹配为微秒级
+ * 构建后不可修改，线程安全
+ * <pre>
+ * RouteMatcher matcher = RouteMatcher.load(kong);
+ * RouteMatch match = matcher.match("GET", "http", "api.zlikun.com", "/users/1");
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:00
+ */
+@Slf4j
+public class RouteMatcher {
+
+    private static final List<String> DEFAULT_PROTOCOLS = Arrays.asList("http", "https");
+
+    /**
+     * 检测遮蔽时，代表“任意值”的请求参数（不会出现在路由定义中）
+     */
+    private static final String PROBE_HOST = "shadow-probe.invalid";
+    private static final String PROBE_LABEL = "shadow-probe";
+    private static final String PROBE_PATH = "/.shadow-probe";
+    private static final String PROBE_METHOD = "SHADOW-PROBE";
+
+    /**
+     * 每个路由最多生成的探测请求数
+     */
+    private static final int MAX_PROBES = 256;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final HostIndex hosts = new HostIndex();
+    private final BitSet anyHost = new BitSet();
+    private final PathIndex paths = new PathIndex();
+    private final BitSet anyPath = new BitSet();
+    private final Map<String, BitSet> methods = new HashMap<>();
+    private final BitSet anyMethod = new BitSet();
+    private final Map<String, BitSet> protocols = new HashMap<>();
+
+    public RouteMatcher(Collection<Route> routes) {
+        for (Route route : routes) {
+            Entry entry = new Entry(route, entries.size());
+            entries.add(entry);
+            index(entry);
+        }
+    }
+
+    /**
+     * 读取Admin API中的所有路由
+     */
+    public static RouteMatcher load(KongAdminClient client) throws IOException {
+        try (Stream<Route> stream = client.routes().stream()) {
+            return new RouteMatcher(stream.collect(Collectors.toList()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void index(Entry entry) {
+        int i = entry.index;
+        Route route = entry.route;
+        if (entry.hasHosts) {
+            route.getHosts().forEach(host -> hosts.add(host, i));
+        } else {
+            anyHost.set(i);
+        }
+        if (entry.hasPaths) {
+            route.getPaths().forEach(path -> paths.add(path, i));
+        } else {
+            anyPath.set(i);
+        }
+        if (entry.hasMethods) {
+            route.getMethods().forEach(method -> methods.computeIfAbsent(method.toUpperCase(Locale.ROOT), m -> new BitSet()).set(i));
+        } else {
+            anyMethod.set(i);
+        }
+        List<String> schemes = isEmpty(route.getProtocols()) ? DEFAULT_PROTOCOLS : route.getProtocols();
+        schemes.forEach(scheme -> protocols.computeIfAbsent(scheme.toLowerCase(Locale.ROOT), s -> new BitSet()).set(i));
+    }
+
+    /**
+     * 匹配请求，没有匹配的路由时返回null
+     *
+     * @param scheme http 或 https
+     * @param host   Host请求头，可以带端口
+     * @param path   请求路径，不含查询参数
+     */
+    public RouteMatch match(String method, String scheme, String host, String path) {
+        BitSet mask = protocols.get(scheme.toLowerCase(Locale.ROOT));
+        if (mask == null) {
+            return null;
+        }
+        mask = (BitSet) mask.clone();
+
+        host = normalize(host);
+        BitSet plain = hosts.plain(host);
+        BitSet byHost = hosts.wildcard(host);
+        if (plain != null) {
+            byHost.or(plain);
+        }
+        byHost.or(anyHost);
+        mask.and(byHost);
+
+        BitSet byMethod = methods.get(method.toUpperCase(Locale.ROOT));
+        if (byMethod == null) {
+            mask.and(anyMethod);
+        } else {
+            BitSet allowed = (BitSet) anyMethod.clone();
+            allowed.or(byMethod);
+            mask.and(allowed);
+        }
+        if (mask.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, String> regexes = new HashMap<>();
+        Map<Integer, String> prefixes = new HashMap<>();
+        paths.regexes(path, mask, regexes);
+        paths.prefixes(path, mask, prefixes);
+
+        Candidate best = null;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            String regex = regexes.get(i);
+            String prefix = regex == null ? prefixes.get(i) : null;
+            if (regex == null && prefix == null && !anyPath.get(i)) {
+                continue;
+            }
+            Candidate candidate = new Candidate(entries.get(i), plain != null && plain.get(i), regex, prefix);
+            if (best == null || candidate.compareTo(best) < 0) {
+                best = candidate;
+            }
+        }
+        return best == null ? null : best.toMatch(host, path);
+    }
+
+    /**
+     * 匹配请求，如：GET http://api.zlikun.com/users/1
+     */
+    public RouteMatch match(String method, String url) {
+        URI uri = URI.create(url);
+        String host = uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        return match(method, uri.getScheme(), host, uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+    }
+
+    /**
+     * 查找被遮蔽的路由：为每个路由生成代表性的请求（每个域名、前缀路径、方法、协议的组合，未限制的条件使用不会被其他路由限制的值），
+     * 所有请求都命中其他路由时认为该路由被遮蔽；包含正则路径的路由无法生成代表性的请求，不检查
+     */
+    public List<Shadowed> shadowed() {
+        List<Shadowed> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            Route route = entry.route;
+            if (entry.hasPaths && !route.getPaths().stream().allMatch(PathIndex::isPlain)) {
+                continue;
+            }
+            List<String> probeHosts = entry.hasHosts ? route.getHosts().stream().map(RouteMatcher::probeHost)
+                    .collect(Collectors.toList()) : Collections.singletonList(PROBE_HOST);
+            List<String> probePaths = entry.hasPaths ? route.getPaths() : Collections.singletonList(PROBE_PATH);
+            List<String> probeMethods = entry.hasMethods ? route.getMethods() : Collections.singletonList(PROBE_METHOD);
+            List<String> probeSchemes = isEmpty(route.getProtocols()) ? DEFAULT_PROTOCOLS : route.getProtocols();
+
+            Set<Route> winners = new LinkedHashSet<>();
+            boolean hit = false;
+            int probes = 0;
+            search:
+            for (String scheme : probeSchemes) {
+                for (String host : probeHosts) {
+                    for (String path : probePaths) {
+                        for (String method : probeMethods) {
+                            RouteMatch match = match(method, scheme, host, path);
+                            if (match != null && match.getRoute() == route) {
+                                hit = true;
+                                break search;
+                            }
+                            if (match != null) {
+                                winners.add(match.getRoute());
+                            }
+                            if (++probes >= MAX_PROBES) {
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!hit && probes < MAX_PROBES) {
+                result.add(new Shadowed(route, new ArrayList<>(winners)));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 通配符替换为不会出现在路由定义中的标签
+     */
+    private static String probeHost(String host) {
+        if (host.startsWith("*.")) {
+            return PROBE_LABEL + host.substring(1);
+        }
+        if (host.endsWith(".*")) {
+            return host.substring(0, host.length() - 1) + PROBE_LABEL;
+        }
+        return host;
+    }
+
+    /**
+     * 转为小写并去掉端口
+     */
+    private static String normalize(String host) {
+        if (host == null) {
+            return "";
+        }
+        int colon = host.lastIndexOf(':');
+        if (colon > 0 && host.indexOf(']') < colon) {
+            host = host.substring(0, colon);
+        }
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+
+    /**
+     * 被遮蔽的路由及遮蔽它的路由
+     */
+    @Data
+    public static class Shadowed {
+
+        private final Route route;
+        private final List<Route> shadowedBy;
+
+    }
+
+    private static final class Entry {
+
+        final Route route;
+        final int index;
+        final boolean hasHosts;
+        final boolean hasPaths;
+        final boolean hasMethods;
+
+        /**
+         * 限制的条件数
+         */
+        final int weight;
+
+        /**
+         * 条件数相同时的次序：hosts、paths、methods
+         */
+        final int categories;
+
+        final int regexPriority;
+        final long createdAt;
+
+        Entry(Route route, int index) {
+            this.route = route;
+            this.index = index;
+            this.hasHosts = !isEmpty(route.getHosts());
+            this.hasPaths = !isEmpty(route.getPaths());
+            this.hasMethods = !isEmpty(route.getMethods());
+            this.weight = (hasHosts ? 1 : 0) + (hasPaths ? 1 : 0) + (hasMethods ? 1 : 0);
+            this.categories = (hasHosts ? 4 : 0) | (hasPaths ? 2 : 0) | (hasMethods ? 1 : 0);
+            this.regexPriority = route.getRegexPriority() == null ? 0 : route.getRegexPriority();
+            this.createdAt = route.getCreatedAt() == null ? Long.MAX_VALUE : route.getCreatedAt();
+        }
+
+    }
+
+    /**
+     * 匹配请求的路由，compareTo 小于0表示优先级更高
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        final Entry entry;
+        final boolean plainHost;
+        final String regex;
+        final String prefix;
+
+        Candidate(Entry entry, boolean plainHost, String regex, String prefix) {
+            this.entry = entry;
+            this.plainHost = plainHost;
+            this.regex = regex;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (entry.weight != other.entry.weight) {
+                return other.entry.weight - entry.weight;
+            }
+            if (entry.categories != other.entry.categories) {
+                return other.entry.categories - entry.categories;
+            }
+            if (plainHost != other.plainHost) {
+                return plainHost ? -1 : 1;
+            }
+            if ((regex != null) != (other.regex != null)) {
+                return regex != null ? -1 : 1;
+            }
+            if (regex != null && entry.regexPriority != other.entry.regexPriority) {
+                return other.entry.regexPriority - entry.regexPriority;
+            }
+            if (prefix != null && other.prefix != null && prefix.length() != other.prefix.length()) {
+                return other.prefix.length() - prefix.length();
+            }
+            if (entry.createdAt != other.entry.createdAt) {
+                return Long.compare(entry.createdAt, other.entry.createdAt);
+            }
+            return entry.index - other.entry.index;
+        }
+
+        RouteMatch toMatch(String host, String path) {
+            Route route = entry.route;
+            String matchedHost = null;
+            if (entry.hasHosts) {
+                matchedHost = plainHost ? host : route.getHosts().stream()
+                        .filter(h -> h.startsWith("*.") || h.endsWith(".*")).filter(h -> wildcard(h, host))
+                        .findFirst().orElse(null);
+            }
+            String matchedPath = regex != null ? regex : prefix;
+            String upstreamPath = path;
+            if (matchedPath != null && !Boolean.FALSE.equals(route.getStripPath())) {
+                upstreamPath = path.substring(matchedPath.length());
+                if (!upstreamPath.startsWith("/")) {
+                    upstreamPath = "/" + upstreamPath;
+                }
+            }
+            return new RouteMatch(route, matchedHost, matchedPath, upstreamPath);
+        }
+
+        private static boolean wildcard(String pattern, String host) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            if (pattern.startsWith("*.")) {
+                String suffix = pattern.substring(1);
+                return host.endsWith(suffix) && host.length() > suffix.length();
+            }
+            String prefix = pattern.substring(0, pattern.length() - 1);
+            return host.startsWith(prefix) && host.length() > prefix.length();
+        }
+
+    }
+
+    /**
+     * 命令行校验路由表：--admin=http://admin.zlikun.com [--request="GET http://api.zlikun.com/users"]
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (!options.containsKey("admin")) {
+            throw new IllegalArgumentException("usage: --admin=http://admin.zlikun.com [--request=\"GET http://api.zlikun.com/users\"]");
+        }
+        RouteMatcher matcher = load(new KongAdminClient(options.get("admin")));
+        log.info("loaded {} routes", matcher.size());
+        if (options.containsKey("request")) {
+            String[] request = options.get("request").trim().split("\\s+", 2);
+            log.info("{} -> {}", options.get("request"), matcher.match(request[0], request[1]));
+        }
+        List<Shadowed> shadowed = matcher.shadowed();
+        for (Shadowed s : shadowed) {
+            log.warn("route {} {} is shadowed by {}", s.getRoute().getId(), s.getRoute().getPaths(),
+                    s.getShadowedBy().stream().map(Route::getId).collect(Collectors.toList()));
+        }
+        if (!shadowed.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+}
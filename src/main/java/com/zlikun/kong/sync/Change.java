@@ -0,0 +1,86 @@
+package com.zlikun.kong.sync;
+
+import java.io.IOException;
+
+/**
+ * 同步计划中的一个变更
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+public class Change {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * 实体类型，依赖关系：服务 → 路由 → 插件，上游 → 目标节点
+     */
+    public enum Kind {
+        SERVICE, ROUTE, PLUGIN, UPSTREAM, TARGET
+    }
+
+    /**
+     * 执行变更，通过上下文取得前面阶段创建的服务ID
+     */
+    interface Step {
+
+        void apply(SyncContext context) throws IOException;
+
+    }
+
+    private final Action action;
+    private final Kind kind;
+    private final String description;
+    private final Step step;
+
+    Change(Action action, Kind kind, String description, Step step) {
+        this.action = action;
+        this.kind = kind;
+        this.description = description;
+        this.step = step;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 执行阶段，同一阶段内的变更互不依赖，可以并行执行：
+     * 0. 删除插件
+     * 1. 删除路由、目标节点
+     * 2. 删除、创建、更新服务和上游
+     * 3. 创建、更新路由，创建目标节点
+     * 4. 创建、更新插件
+     */
+    public int getPhase() {
+        switch (kind) {
+            case PLUGIN:
+                return action == Action.DELETE ? 0 : 4;
+            case ROUTE:
+            case TARGET:
+                return action == Action.DELETE ? 1 : 3;
+            default:
+                return 2;
+        }
+    }
+
+    void apply(SyncContext context) throws IOException {
+        step.apply(context);
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + kind + " " + description;
+    }
+
+}
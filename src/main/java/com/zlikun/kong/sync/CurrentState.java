@@ -0,0 +1,111 @@
+package com.zlikun.kong.sync;
+
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.PageIterator;
+import com.zlikun.kong.Resource;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Kong的当前状态：服务、路由、插件、上游各自按最大页遍历一次（预取下一页），再并行查询每个上游的目标节点，
+ * 不按服务逐个查询路由和插件，请求数与服务数量无关
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+public class CurrentState {
+
+    /**
+     * 按名称索引的服务，未命名的服务不受同步管理
+     */
+    final Map<String, Service> services = new LinkedHashMap<>();
+
+    /**
+     * 按服务ID分组的路由
+     */
+    final Map<String, List<Route>> routes = new HashMap<>();
+
+    final List<Plugin> plugins = new ArrayList<>();
+
+    final Map<String, Upstream> upstreams = new LinkedHashMap<>();
+
+    /**
+     * 按上游名称分组的有效目标节点
+     */
+    final Map<String, List<Target>> targets = new HashMap<>();
+
+    CurrentState() {
+    }
+
+    /**
+     * 查询当前状态
+     */
+    public static CurrentState load(KongAdminClient client, ExecutorService executor) throws IOException {
+        Future<List<Service>> services = executor.submit(() -> listAll(client.services()));
+        Future<List<Route>> routes = executor.submit(() -> listAll(client.routes()));
+        Future<List<Plugin>> plugins = executor.submit(() -> listAll(client.plugins()));
+        Future<List<Upstream>> upstreams = executor.submit(() -> listAll(client.upstreams()));
+
+        CurrentState state = new CurrentState();
+        for (Service service : get(services)) {
+            if (service.getName() != null) {
+                state.services.put(service.getName(), service);
+            }
+        }
+        for (Route route : get(routes)) {
+            if (route.getService() != null) {
+                state.routes.computeIfAbsent(route.getService().getId(), k -> new ArrayList<>()).add(route);
+            }
+        }
+        state.plugins.addAll(get(plugins));
+
+        Map<String, Future<List<Target>>> targets = new HashMap<>();
+        for (Upstream upstream : get(upstreams)) {
+            state.upstreams.put(upstream.getName(), upstream);
+            targets.put(upstream.getName(), executor.submit(() -> listAll(client.targets(upstream.getName()))));
+        }
+        for (Map.Entry<String, Future<List<Target>>> entry : targets.entrySet()) {
+            state.targets.put(entry.getKey(), get(entry.getValue()));
+        }
+        return state;
+    }
+
+    private static <T> List<T> listAll(Resource<T> resource) throws IOException {
+        List<T> list = new ArrayList<>();
+        try (PageIterator<T> iterator = resource.iterator()) {
+            iterator.forEachRemaining(list::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return list;
+    }
+
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.zlikun.kong.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.zlikun.kong.entity.Plugin;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 期望状态，由JSON文件描述（字段名与Admin API一致），只需列出关心的字段，未列出的字段不参与比较
+ * <pre>
+ * {
+ *   "services": [{
+ *     "name": "service_users", "url": "http://api.zlikun.com/users", "retries": 3,
+ *     "routes": [{"hosts": ["api.zlikun.com"], "paths": ["/users"], "methods": ["GET", "POST"]}],
+ *     "plugins": [{"name": "rate-limiting", "config": {"second": 2, "minute": 5}}]
+ *   }],
+ *   "upstreams": [{"name": "api.zlikun.com", "targets": [{"target": "192.168.0.104:8080", "weight": 100}]}],
+ *   "plugins": [{"name": "correlation-id"}]
+ * }
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DesiredState {
+
+    private List<ServiceSpec> services = new ArrayList<>();
+
+    private List<UpstreamSpec> upstreams = new ArrayList<>();
+
+    /**
+     * 全局插件（不关联服务、路由和消费者）
+     */
+    private List<Plugin> plugins = new ArrayList<>();
+
+}
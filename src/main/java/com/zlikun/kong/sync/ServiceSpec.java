@@ -0,0 +1,28 @@
+package com.zlikun.kong.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 期望状态中的服务，以 name 作为标识，包含其路由和服务级插件
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ServiceSpec extends Service {
+
+    private List<Route> routes = new ArrayList<>();
+
+    private List<Plugin> plugins = new ArrayList<>();
+
+}
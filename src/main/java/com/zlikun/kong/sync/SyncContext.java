@@ -0,0 +1,32 @@
+package com.zlikun.kong.sync;
+
+import com.zlikun.kong.KongAdminClient;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 执行同步计划时的上下文，记录服务名称与ID的对应关系，创建路由和插件时需要服务ID
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+class SyncContext {
+
+    final KongAdminClient client;
+    final Map<String, String> serviceIds = new ConcurrentHashMap<>();
+
+    SyncContext(KongAdminClient client, Map<String, String> serviceIds) {
+        this.client = client;
+        this.serviceIds.putAll(serviceIds);
+    }
+
+    String serviceId(String name) {
+        String id = serviceIds.get(name);
+        if (id == null) {
+            throw new IllegalStateException("service not created: " + name);
+        }
+        return id;
+    }
+
+}
@@ -0,0 +1,420 @@
+package com.zlikun.kong.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Reference;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按期望状态同步Kong配置：
+ * 1. 查询当前状态（按最大页遍历，不按服务逐个查询）
+ * 2. 与期望状态比较，只为不一致的实体生成创建、更新、删除变更，期望状态中未指定的字段不比较
+ * 3. 按依赖关系分阶段执行（服务 → 路由 → 插件，上游 → 目标节点，删除顺序相反），同一阶段内并行执行
+ * 实体标识：服务、上游按名称，路由按 protocols + methods + hosts + paths，插件按名称 + 作用范围，目标节点按地址
+ * <pre>
+ * java -cp ... com.zlikun.kong.sync.SyncEngine --admin=http://admin.zlikun.com --file=kong.json [--prune] [--dry-run] [--parallelism=16]
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Slf4j
+public class SyncEngine {
+
+    /**
+     * 路由默认协议，与Kong一致
+     */
+    private static final List<String> DEFAULT_PROTOCOLS = Arrays.asList("http", "https");
+
+    /**
+     * 目标节点默认权重
+     */
+    private static final int DEFAULT_WEIGHT = 100;
+
+    private final KongAdminClient client;
+    private final int parallelism;
+    private final boolean prune;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param client      Admin API客户端
+     * @param parallelism 并行请求数
+     * @param prune       是否删除期望状态中不存在的服务、路由、插件、上游和目标节点
+     *                    （消费者及路由、消费者级别的插件不受管理，不会删除）
+     */
+    public SyncEngine(KongAdminClient client, int parallelism, boolean prune) {
+        this.client = client;
+        this.parallelism = parallelism;
+        this.prune = prune;
+        this.mapper = client.getMapper();
+    }
+
+    /**
+     * 读取期望状态文件（JSON）
+     */
+    public static DesiredState read(File file) throws IOException {
+        return KongAdminClient.newObjectMapper().readValue(file, DesiredState.class);
+    }
+
+    /**
+     * 同步：生成计划并执行
+     */
+    public SyncResult sync(DesiredState desired) throws IOException {
+        return apply(plan(desired));
+    }
+
+    /**
+     * 查询当前状态并生成同步计划
+     */
+    public SyncPlan plan(DesiredState desired) throws IOException {
+        ExecutorService executor = newExecutor();
+        try {
+            return plan(desired, CurrentState.load(client, executor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    SyncPlan plan(DesiredState desired, CurrentState current) {
+        List<Change> changes = new ArrayList<>();
+        Map<String, String> serviceIds = new HashMap<>();
+        current.services.forEach((name, service) -> serviceIds.put(name, service.getId()));
+
+        Set<String> names = new HashSet<>();
+        for (ServiceSpec spec : desired.getServices()) {
+            String name = spec.getName();
+            if (name == null || !names.add(name)) {
+                throw new IllegalArgumentException("service name missing or duplicated: " + name);
+            }
+            Service body = service(spec);
+            Service existing = current.services.get(name);
+            List<Route> routes = Collections.emptyList();
+            List<Plugin> plugins = Collections.emptyList();
+            if (existing == null) {
+                changes.add(new Change(Change.Action.CREATE, Change.Kind.SERVICE, name,
+                        context -> context.serviceIds.put(name, context.client.services().create(body).getId())));
+            } else {
+                if (!covers(body, existing)) {
+                    changes.add(new Change(Change.Action.UPDATE, Change.Kind.SERVICE, name,
+                            context -> context.client.services().update(existing.getId(), body)));
+                }
+                routes = current.routes.getOrDefault(existing.getId(), Collections.emptyList());
+                plugins = scoped(current.plugins, existing.getId());
+            }
+            diffRoutes(name, spec.getRoutes(), routes, changes);
+            diffPlugins(name, spec.getPlugins(), plugins, changes);
+        }
+        diffPlugins(null, desired.getPlugins(), scoped(current.plugins, null), changes);
+        if (prune) {
+            for (Service service : current.services.values()) {
+                if (!names.contains(service.getName())) {
+                    for (Plugin plugin : scoped(current.plugins, service.getId())) {
+                        changes.add(deletePlugin(service.getName(), plugin));
+                    }
+                    for (Route route : current.routes.getOrDefault(service.getId(), Collections.emptyList())) {
+                        changes.add(deleteRoute(service.getName(), route));
+                    }
+                    changes.add(new Change(Change.Action.DELETE, Change.Kind.SERVICE, service.getName(),
+                            context -> context.client.services().delete(service.getId())));
+                }
+            }
+        }
+
+        Set<String> upstreams = new HashSet<>();
+        for (UpstreamSpec spec : desired.getUpstreams()) {
+            String name = spec.getName();
+            if (name == null || !upstreams.add(name)) {
+                throw new IllegalArgumentException("upstream name missing or duplicated: " + name);
+            }
+            Upstream body = copy(spec, Upstream.class);
+            Upstream existing = current.upstreams.get(name);
+            if (existing == null) {
+                changes.add(new Change(Change.Action.CREATE, Change.Kind.UPSTREAM, name,
+                        context -> context.client.upstreams().create(body)));
+            } else if (!covers(body, existing)) {
+                changes.add(new Change(Change.Action.UPDATE, Change.Kind.UPSTREAM, name,
+                        context -> context.client.upstreams().update(existing.getId(), body)));
+            }
+            diffTargets(name, spec.getTargets(), current.targets.getOrDefault(name, Collections.emptyList()), changes);
+        }
+        if (prune) {
+            for (Upstream upstream : current.upstreams.values()) {
+                if (!upstreams.contains(upstream.getName())) {
+                    // 删除上游时Kong同时删除其目标节点
+                    changes.add(new Change(Change.Action.DELETE, Change.Kind.UPSTREAM, upstream.getName(),
+                            context -> context.client.upstreams().delete(upstream.getId())));
+                }
+            }
+        }
+        return new SyncPlan(changes, serviceIds);
+    }
+
+    /**
+     * 执行同步计划，同一阶段内的变更并行执行，某个阶段有失败时不再执行后续阶段
+     */
+    public SyncResult apply(SyncPlan plan) {
+        long start = System.nanoTime();
+        SyncResult result = new SyncResult();
+        SyncContext context = new SyncContext(client, plan.getServiceIds());
+        ExecutorService executor = newExecutor();
+        try {
+            for (int phase = 0; phase < SyncPlan.PHASES; phase++) {
+                List<Change> changes = plan.phase(phase);
+                if (!result.isSuccess()) {
+                    result.setSkipped(result.getSkipped() + changes.size());
+                    continue;
+                }
+                List<Future<?>> futures = new ArrayList<>(changes.size());
+                for (Change change : changes) {
+                    futures.add(executor.submit(() -> {
+                        change.apply(context);
+                        return null;
+                    }));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                        result.setApplied(result.getApplied() + 1);
+                    } catch (ExecutionException e) {
+                        log.warn("{} failed: {}", changes.get(i), e.getCause().getMessage());
+                        result.getFailures().add(new SyncResult.Failure(changes.get(i), e.getCause()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        result.getFailures().add(new SyncResult.Failure(changes.get(i), e));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private void diffRoutes(String service, List<Route> desired, List<Route> current, List<Change> changes) {
+        Map<String, Route> existing = new LinkedHashMap<>();
+        List<Route> duplicates = new ArrayList<>();
+        for (Route route : current) {
+            if (existing.putIfAbsent(routeKey(route), route) != null) {
+                duplicates.add(route);
+            }
+        }
+        for (Route spec : desired) {
+            Route body = copy(spec, Route.class);
+            body.setService(null);
+            if (body.getProtocols() == null) {
+                body.setProtocols(DEFAULT_PROTOCOLS);
+            }
+            String key = routeKey(body);
+            Route route = existing.remove(key);
+            if (route == null) {
+                changes.add(new Change(Change.Action.CREATE, Change.Kind.ROUTE, service + " " + key, context -> {
+                    body.setService(new Reference(context.serviceId(service)));
+                    context.client.routes().create(body);
+                }));
+            } else if (!covers(body, route)) {
+                changes.add(new Change(Change.Action.UPDATE, Change.Kind.ROUTE, service + " " + key,
+                        context -> context.client.routes().update(route.getId(), body)));
+            }
+        }
+        if (prune) {
+            for (Route route : existing.values()) {
+                changes.add(deleteRoute(service, route));
+            }
+            for (Route route : duplicates) {
+                changes.add(deleteRoute(service, route));
+            }
+        }
+    }
+
+    /**
+     * @param service 服务名称，为null时为全局插件
+     */
+    private void diffPlugins(String service, List<Plugin> desired, List<Plugin> current, List<Change> changes) {
+        Map<String, Plugin> existing = new LinkedHashMap<>();
+        for (Plugin plugin : current) {
+            existing.putIfAbsent(plugin.getName(), plugin);
+        }
+        String scope = service != null ? service : "(global)";
+        for (Plugin spec : desired) {
+            Plugin body = copy(spec, Plugin.class);
+            body.setServiceId(null);
+            body.setRouteId(null);
+            body.setConsumerId(null);
+            Plugin plugin = existing.remove(body.getName());
+            if (plugin == null) {
+                changes.add(new Change(Change.Action.CREATE, Change.Kind.PLUGIN, scope + " " + body.getName(), context -> {
+                    if (service != null) {
+                        body.setServiceId(context.serviceId(service));
+                    }
+                    context.client.plugins().create(body);
+                }));
+            } else if (!covers(body, plugin)) {
+                changes.add(new Change(Change.Action.UPDATE, Change.Kind.PLUGIN, scope + " " + body.getName(),
+                        context -> context.client.plugins().update(plugin.getId(), body)));
+            }
+        }
+        if (prune) {
+            for (Plugin plugin : existing.values()) {
+                changes.add(deletePlugin(scope, plugin));
+            }
+        }
+    }
+
+    /**
+     * Kong 0.13的目标节点只能追加：权重变化时追加一条新记录，删除时将权重置为0
+     */
+    private void diffTargets(String upstream, List<Target> desired, List<Target> current, List<Change> changes) {
+        Map<String, Target> existing = new LinkedHashMap<>();
+        for (Target target : current) {
+            existing.put(target.getTarget(), target);
+        }
+        for (Target spec : desired) {
+            Target body = new Target();
+            body.setTarget(spec.getTarget());
+            body.setWeight(spec.getWeight() != null ? spec.getWeight() : DEFAULT_WEIGHT);
+            Target target = existing.remove(spec.getTarget());
+            if (target == null || !body.getWeight().equals(target.getWeight())) {
+                changes.add(new Change(Change.Action.CREATE, Change.Kind.TARGET,
+                        upstream + " " + body.getTarget() + " weight=" + body.getWeight(),
+                        context -> context.client.targets(upstream).create(body)));
+            }
+        }
+        if (prune) {
+            for (Target target : existing.values()) {
+                changes.add(new Change(Change.Action.DELETE, Change.Kind.TARGET, upstream + " " + target.getTarget(),
+                        context -> context.client.targets(upstream).delete(target.getId())));
+            }
+        }
+    }
+
+    private Change deleteRoute(String service, Route route) {
+        return new Change(Change.Action.DELETE, Change.Kind.ROUTE, service + " " + routeKey(route),
+                context -> context.client.routes().delete(route.getId()));
+    }
+
+    private Change deletePlugin(String scope, Plugin plugin) {
+        return new Change(Change.Action.DELETE, Change.Kind.PLUGIN, scope + " " + plugin.getName(),
+                context -> context.client.plugins().delete(plugin.getId()));
+    }
+
+    /**
+     * 服务级插件（serviceId 为null时为全局插件），不包括路由和消费者级别的插件
+     */
+    private static List<Plugin> scoped(List<Plugin> plugins, String serviceId) {
+        List<Plugin> list = new ArrayList<>();
+        for (Plugin plugin : plugins) {
+            if (plugin.getRouteId() == null && plugin.getConsumerId() == null && plugin.getApiId() == null
+                    && (serviceId == null ? plugin.getServiceId() == null : serviceId.equals(plugin.getServiceId()))) {
+                list.add(plugin);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 去掉路由和插件，并将 url 展开为 protocol、host、port、path（Kong不返回 url 字段）
+     */
+    private Service service(ServiceSpec spec) {
+        Service body = copy(spec, Service.class);
+        if (body.getUrl() != null) {
+            HttpUrl url = HttpUrl.parse(body.getUrl());
+            if (url == null) {
+                throw new IllegalArgumentException("invalid url of service " + spec.getName() + ": " + body.getUrl());
+            }
+            body.setProtocol(url.scheme());
+            body.setHost(url.host());
+            body.setPort(url.port());
+            body.setPath("/".equals(url.encodedPath()) ? null : url.encodedPath());
+            body.setUrl(null);
+        }
+        return body;
+    }
+
+    /**
+     * 按JSON复制为指定类型，去掉子类中的子实体（convertValue 在类型兼容时直接返回原对象，不能用于复制）
+     */
+    private <T> T copy(Object value, Class<T> type) {
+        try {
+            return mapper.treeToValue(mapper.valueToTree(value), type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static String routeKey(Route route) {
+        return join(route.getProtocols()) + " " + join(route.getMethods()) + " " + join(route.getHosts()) + " " + join(route.getPaths());
+    }
+
+    private static String join(List<String> values) {
+        return values == null || values.isEmpty() ? "*" : String.join(",", new TreeSet<>(values));
+    }
+
+    private boolean covers(Object desired, Object current) {
+        JsonNode tree = mapper.valueToTree(desired);
+        if (tree instanceof ObjectNode) {
+            ((ObjectNode) tree).remove("id");
+        }
+        return Trees.covers(tree, mapper.valueToTree(current));
+    }
+
+    private ExecutorService newExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "kong-sync-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (!options.containsKey("admin") || !options.containsKey("file")) {
+            throw new IllegalArgumentException("usage: --admin=http://admin.zlikun.com --file=kong.json [--prune] [--dry-run] [--parallelism=16]");
+        }
+        SyncEngine engine = new SyncEngine(new KongAdminClient(options.get("admin")),
+                Integer.parseInt(options.getOrDefault("parallelism", "16")), Boolean.parseBoolean(options.get("prune")));
+        SyncPlan plan = engine.plan(read(new File(options.get("file"))));
+        log.info("plan: {}", plan);
+        if (Boolean.parseBoolean(options.get("dry-run")) || plan.isEmpty()) {
+            return;
+        }
+        SyncResult result = engine.apply(plan);
+        log.info("applied {} changes in {}ms, {} failed, {} skipped",
+                result.getApplied(), result.getElapsedMillis(), result.getFailures().size(), result.getSkipped());
+        if (!result.isSuccess()) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.zlikun.kong.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 同步计划，变更按执行阶段排序
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+public class SyncPlan {
+
+    static final int PHASES = 5;
+
+    private final List<Change> changes;
+    private final Map<String, String> serviceIds;
+
+    SyncPlan(List<Change> changes, Map<String, String> serviceIds) {
+        List<Change> sorted = new ArrayList<>(changes);
+        sorted.sort(Comparator.comparingInt(Change::getPhase));
+        this.changes = Collections.unmodifiableList(sorted);
+        this.serviceIds = serviceIds;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public long count(Change.Action action) {
+        return changes.stream().filter(c -> c.getAction() == action).count();
+    }
+
+    List<Change> phase(int phase) {
+        List<Change> list = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.getPhase() == phase) {
+                list.add(change);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 当前已存在的服务名称与ID
+     */
+    Map<String, String> getServiceIds() {
+        return serviceIds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(count(Change.Action.CREATE)).append(" to create, ")
+                .append(count(Change.Action.UPDATE)).append(" to update, ")
+                .append(count(Change.Action.DELETE)).append(" to delete");
+        for (Change change : changes) {
+            sb.append('\n').append(change);
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.zlikun.kong.sync;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 同步结果，某个阶段有变更失败时，后续阶段不再执行（可能依赖失败的变更）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Data
+public class SyncResult {
+
+    private int applied;
+
+    /**
+     * 因前面阶段失败而未执行的变更数
+     */
+    private int skipped;
+
+    private final List<Failure> failures = new ArrayList<>();
+
+    private long elapsedMillis;
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Data
+    public static class Failure {
+
+        private final Change change;
+        private final Throwable error;
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.zlikun.kong.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 期望状态与当前状态的比较，期望状态中未指定（null）的字段视为一致，
+ * Kong会为未指定的字段填充默认值，只比较指定的字段才能得到最小变更
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+final class Trees {
+
+    private Trees() {
+    }
+
+    /**
+     * 当前状态是否满足期望状态：对象逐字段比较（递归），数组不区分顺序，数值按大小比较
+     */
+    static boolean covers(JsonNode desired, JsonNode current) {
+        if (desired == null || desired.isNull()) {
+            return true;
+        }
+        if (current == null || current.isNull()) {
+            return desired.isArray() && desired.size() == 0;
+        }
+        if (desired.isObject()) {
+            if (!current.isObject()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = desired.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!covers(field.getValue(), current.get(field.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (desired.isArray()) {
+            // Kong将空数组编码为 {}
+            if (current.isObject() && current.size() == 0) {
+                return desired.size() == 0;
+            }
+            if (!current.isArray() || current.size() != desired.size()) {
+                return false;
+            }
+            List<JsonNode> remaining = new ArrayList<>();
+            current.forEach(remaining::add);
+            for (JsonNode element : desired) {
+                boolean found = false;
+                for (Iterator<JsonNode> it = remaining.iterator(); it.hasNext(); ) {
+                    if (covers(element, it.next())) {
+                        it.remove();
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (desired.isNumber() && current.isNumber()) {
+            return desired.decimalValue().compareTo(current.decimalValue()) == 0;
+        }
+        return desired.equals(current) || (desired.isValueNode() && current.isValueNode() && desired.asText().equals(current.asText()));
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.zlikun.kong.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 期望状态中的上游，以 name 作为标识，包含其目标节点
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpstreamSpec extends Upstream {
+
+    private List<Target> targets = new ArrayList<>();
+
+}
@@ -0,0 +1,66 @@
+package com.zlikun.nginx.access;
+
+import com.zlikun.nginx.header.HeaderSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * 环形缓冲区中的记录槽位，启动时预先分配，发布时只复制引用，不产生新对象
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+class AccessRecord {
+
+    long timestamp;
+    String method;
+    String uri;
+    String[] names = new String[32];
+    String[] values = new String[32];
+    int size;
+
+    /**
+     * 从消息头快照复制数据，由持有该槽位的请求线程调用
+     */
+    void copyFrom(HeaderSnapshot snapshot, long timestamp) {
+        int n = snapshot.size();
+        if (n > names.length) {
+            names = new String[n];
+            values = new String[n];
+        }
+        for (int i = 0; i < n; i++) {
+            names[i] = snapshot.name(i);
+            values[i] = snapshot.value(i);
+        }
+        this.timestamp = timestamp;
+        this.method = snapshot.getMethod();
+        this.uri = snapshot.getUri();
+        this.size = n;
+    }
+
+    /**
+     * 格式化后追加到缓冲中，由后台线程调用
+     */
+    void appendTo(StringBuilder sb) {
+        sb.append(timestamp).append(' ').append(method).append(' ').append(uri).append(" headers={");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(names[i]).append('=').append(values[i]);
+        }
+        sb.append('}').append('\n');
+    }
+
+    /**
+     * 释放引用，避免槽位长期持有请求数据
+     */
+    void clear() {
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        method = null;
+        uri = null;
+        size = 0;
+    }
+
+}
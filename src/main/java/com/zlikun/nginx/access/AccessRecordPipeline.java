@@ -0,0 +1,168 @@
+package com.zlikun.nginx.access;
+
+import com.zlikun.nginx.header.HeaderSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 访问记录异步管道
+ * 请求线程只负责将记录发布到环形缓冲区，由单个后台线程批量写入磁盘，
+ * 磁盘I/O变慢时按 OverflowPolicy 丢弃（并计数）或等待，不会阻塞在日志Appender上
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+@Slf4j
+@Component
+public class AccessRecordPipeline {
+
+    /**
+     * 缓冲区为空时后台线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AccessRecordProperties properties;
+    private final AccessRecordRing ring;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private Thread consumer;
+    private Writer writer;
+
+    public AccessRecordPipeline(AccessRecordProperties properties) {
+        this.properties = properties;
+        this.ring = new AccessRecordRing(properties.getCapacity());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path path = Paths.get(properties.getFile());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        running = true;
+        consumer = new Thread(this::consume, "access-record-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+        log.info("access record pipeline started, file = {}, capacity = {}, policy = {}",
+                path.toAbsolutePath(), ring.capacity(), properties.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 发布一条记录，由请求线程调用
+     *
+     * @param snapshot 消息头快照
+     * @return 记录被丢弃时返回false
+     */
+    public boolean publish(HeaderSnapshot snapshot) {
+        long timestamp = System.currentTimeMillis();
+        if (ring.offer(snapshot, timestamp)) {
+            published.increment();
+            return true;
+        }
+        if (properties.getOverflowPolicy() == OverflowPolicy.BLOCK && running) {
+            blocked.increment();
+            do {
+                LockSupport.parkNanos(1000);
+                if (ring.offer(snapshot, timestamp)) {
+                    published.increment();
+                    return true;
+                }
+            } while (running);
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void consume() {
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (; ; ) {
+            int count = 0;
+            AccessRecord record;
+            while (count < batchSize && (record = ring.peek()) != null) {
+                record.appendTo(sb);
+                ring.release();
+                count++;
+            }
+            if (count > 0) {
+                flush(sb, count);
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("close access record file failed", e);
+        }
+    }
+
+    private void flush(StringBuilder sb, int count) {
+        try {
+            writer.append(sb);
+            writer.flush();
+            written.add(count);
+            batches.increment();
+        } catch (IOException e) {
+            // 写入失败的记录按丢弃处理，后台线程继续工作
+            dropped.add(count);
+            log.error("write access records failed", e);
+        } finally {
+            sb.setLength(0);
+        }
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.zlikun.nginx.access;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 访问记录管道配置，前缀：nginx.access
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.access")
+public class AccessRecordProperties {
+
+    /**
+     * 记录文件路径，默认：logs/access-record.log
+     */
+    private String file = "logs/access-record.log";
+
+    /**
+     * 环形缓冲区容量，会向上取整为2的幂，默认：8192
+     */
+    private int capacity = 8192;
+
+    /**
+     * 后台线程单次批量写入的最大记录数，默认：512
+     */
+    private int batchSize = 512;
+
+    /**
+     * 缓冲区写满时的处理策略，默认：DROP，避免磁盘变慢时拖慢请求
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+}
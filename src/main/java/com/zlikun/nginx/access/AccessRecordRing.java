@@ -0,0 +1,92 @@
+package com.zlikun.nginx.access;
+
+import com.zlikun.nginx.header.HeaderSnapshot;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁环形缓冲区，多生产者（请求线程）单消费者（后台写入线程）
+ * 每个槽位带一个序号：序号等于写入位置时可写，等于写入位置+1时可读，
+ * 生产者通过CAS争抢写入位置，消费者独占读取位置，全程无锁
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+class AccessRecordRing {
+
+    private final AccessRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 读取位置，只由消费者线程访问
+     */
+    private long head;
+
+    AccessRecordRing(int capacity) {
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AccessRecord[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AccessRecord();
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * 尝试发布一条记录
+     *
+     * @return 缓冲区已满时返回false
+     */
+    boolean offer(HeaderSnapshot snapshot, long timestamp) {
+        for (; ; ) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index].copyFrom(snapshot, timestamp);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0 说明其它生产者已抢到该位置，重新读取写入位置
+        }
+    }
+
+    /**
+     * 取出下一条已发布的记录，调用方处理完后必须调用 release()
+     *
+     * @return 没有可读记录时返回null
+     */
+    AccessRecord peek() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        return slots[index];
+    }
+
+    /**
+     * 释放 peek() 返回的槽位，交还给生产者
+     */
+    void release() {
+        int index = (int) head & mask;
+        slots[index].clear();
+        sequences.lazySet(index, head + slots.length);
+        head++;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.zlikun.nginx.access;
+
+/**
+ * 环形缓冲区写满时的处理策略
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 丢弃当前记录并计数，请求线程不等待
+     */
+    DROP,
+
+    /**
+     * 请求线程等待，直到后台线程腾出空间
+     */
+    BLOCK
+
+}
@@ -0,0 +1,37 @@
+package com.zlikun.nginx.controller;
+
+import com.zlikun.nginx.download.FileDownloader;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 文件下载，/download/a/b.zip 对应 ${nginx.download.root}/a/b.zip，GET映射同时处理HEAD请求
+ * 需要防盗链时配置：nginx.secure-link.patterns=/download/*
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 15:30
+ */
+@RestController
+public class DownloadController {
+
+    static final String PREFIX = "/download";
+
+    private final FileDownloader downloader;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public DownloadController(FileDownloader downloader) {
+        this.downloader = downloader;
+    }
+
+    @GetMapping(PREFIX + "/**")
+    public void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = urlPathHelper.getPathWithinApplication(request).substring(PREFIX.length());
+        downloader.serve(path, request, response);
+    }
+
+}
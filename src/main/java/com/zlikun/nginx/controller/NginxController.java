@@ -1,33 +1,38 @@
 package com.zlikun.nginx.controller;
 
-import lombok.extern.slf4j.Slf4j;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.response.HelloResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.Enumeration;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * @author zlikun <zlikun-dev@hotmail.com>
  * @date 2018/4/13 15:24
  */
-@Slf4j
 @RestController
 public class NginxController {
 
+    private final HeaderCapture headerCapture;
+    private final HelloResponse helloResponse;
+
+    public NginxController(HeaderCapture headerCapture, HelloResponse helloResponse) {
+        this.headerCapture = headerCapture;
+        this.helloResponse = helloResponse;
+    }
+
     @GetMapping("/nginx")
-    public ResponseEntity<String> index(HttpServletRequest request) {
-        log.info("Hello, Nginx!");
+    public ResponseEntity<String> index(HttpServletRequest request, HttpServletResponse response) throws IOException {
 
-        // 打印请求消息头
-        Enumeration<String> headers = request.getHeaderNames();
-        while (headers.hasMoreElements()) {
-            String name = headers.nextElement();
-            log.info("header - name = {}, value = {}", name, request.getHeader(name));
-        }
+        // 采集请求消息头，每个请求输出一条记录，采集模式参考：nginx.header.mode
+        headerCapture.capture(request);
 
-        return ResponseEntity.ok("Hello, Nginx !");
+        // 开启 nginx.response.pre-encoded 时直接写出预编码字节，跳过消息转换器
+        return helloResponse.write(request, response);
     }
 
 }
@@ -0,0 +1,71 @@
+package com.zlikun.nginx.controller;
+
+import com.zlikun.nginx.securelink.ExpiryPolicy;
+import com.zlikun.nginx.securelink.SecureLinkBatchSigner;
+import com.zlikun.nginx.securelink.SecureLinkProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 批量生成防盗链，请求体每行一个路径，响应为NDJSON，边读边签边写，不缓存整个批次
+ * 过期策略：expire（绝对时间，秒）优先，其次 ttl（秒），都未指定时使用 nginx.secure-link.ttl 和 nginx.secure-link.bucket，
+ * 参数为负数时返回400
+ * <pre>
+ * curl -X POST --data-binary @paths.txt "http://localhost/secure-link/batch?ttl=3600&base=http://k.zlikun.com"
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 11:50
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "nginx.secure-link", name = "batch-enabled", havingValue = "true")
+public class SecureLinkController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+
+    private final SecureLinkBatchSigner batchSigner;
+    private final SecureLinkProperties properties;
+
+    public SecureLinkController(SecureLinkBatchSigner batchSigner, SecureLinkProperties properties) {
+        this.batchSigner = batchSigner;
+        this.properties = properties;
+    }
+
+    @PostMapping("/secure-link/batch")
+    public ResponseEntity<StreamingResponseBody> batch(@RequestParam(required = false) Long ttl,
+                                                       @RequestParam(required = false) Long expire,
+                                                       @RequestParam(required = false) String base,
+                                                       HttpServletRequest request) throws IOException {
+        if ((ttl != null && ttl < 0) || (expire != null && expire < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExpiryPolicy policy = expire != null ? ExpiryPolicy.at(expire)
+                : ttl != null ? ExpiryPolicy.ttl(ttl) : ExpiryPolicy.bucketed(properties.getTtl(), properties.getBucket());
+        InputStream body = request.getInputStream();
+        StreamingResponseBody stream = output -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            long count = batchSigner.sign(reader, policy, base, writer);
+            log.debug("signed {} links", count);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(stream);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.zlikun.nginx.controller;
+
+import com.zlikun.nginx.synthetic.SyntheticRequest;
+import com.zlikun.nginx.synthetic.SyntheticResponder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 模拟上游，按请求参数控制响应大小、延迟分布、错误率和慢速写出，用于压测Nginx代理配置
+ * 参数说明参考：SyntheticRequest，默认值参考：nginx.synthetic
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+@RestController
+public class SyntheticController {
+
+    private final SyntheticResponder responder;
+
+    public SyntheticController(SyntheticResponder responder) {
+        this.responder = responder;
+    }
+
+    @GetMapping("/synthetic")
+    public void index(SyntheticRequest params, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responder.respond(params, request, response);
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.zlikun.nginx.download;
+
+/**
+ * 单个字节区间，对应请求头：Range: bytes=start-end
+ * 只支持单区间，多区间请求按RFC 7233的规定忽略Range，返回完整内容
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 15:30
+ */
+public final class ByteRange {
+
+    /**
+     * 区间无法满足，对应 416 Range Not Satisfiable
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 起始位置（含）
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * 结束位置（含）
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * Content-Range 响应头，形如：bytes 0-99/1000
+     */
+    public String contentRange(long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    /**
+     * 解析Range请求头
+     *
+     * @param header Range请求头
+     * @param length 文件长度
+     * @return 无Range、格式非法或多区间时返回null（返回完整内容），区间超出文件长度时返回 UNSATISFIABLE
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.regionMatches(true, 0, BYTES, 0, BYTES.length()) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        long first = parseLong(spec, 0, dash);
+        long last = parseLong(spec, dash + 1, spec.length());
+        if (dash == 0) {
+            // bytes=-500，最后500个字节
+            if (last < 0) {
+                return null;
+            }
+            if (last == 0 || length == 0) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(Math.max(0, length - last), length - 1);
+        }
+        if (first < 0 || (dash + 1 < spec.length() && (last < 0 || last < first))) {
+            return null;
+        }
+        if (first >= length) {
+            return UNSATISFIABLE;
+        }
+        // bytes=500- 或结束位置超出文件长度时截断到文件末尾
+        long end = last < 0 || last >= length ? length - 1 : last;
+        return new ByteRange(first, end);
+    }
+
+    /**
+     * 解析十进制非负整数，空或非法时返回-1
+     */
+    private static long parseLong(String s, int from, int to) {
+        if (from >= to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.zlikun.nginx.download;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文件下载配置，前缀：nginx.download
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 15:30
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.download")
+public class DownloadProperties {
+
+    /**
+     * 文件根目录，/download/a/b.zip 对应 ${root}/a/b.zip，默认：files
+     */
+    private String root = "files";
+
+    /**
+     * 容器支持时（Tomcat NIO/APR）是否交给容器以 sendfile 方式输出，默认：true
+     */
+    private boolean sendfile = true;
+
+    /**
+     * Nginx内部location前缀（如：/protected），配置后应用只做授权判断，不输出文件内容，
+     * 返回空响应及 X-Accel-Redirect: ${accelRedirect}/a/b.zip，由Nginx输出文件，默认为空，即不启用
+     */
+    private String accelRedirect;
+
+    /**
+     * X-Accel-Buffering 响应头（yes / no），为空时不输出
+     */
+    private String accelBuffering;
+
+    /**
+     * X-Accel-Limit-Rate 响应头，单个下载的限速(字节/秒)，小于等于0时不输出
+     */
+    private long accelLimitRate;
+
+}
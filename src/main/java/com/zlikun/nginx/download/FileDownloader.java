@@ -0,0 +1,268 @@
+package com.zlikun.nginx.download;
+
+import com.zlikun.nginx.response.PreEncodedResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 从配置的根目录输出文件，支持 Range / If-Range / HEAD 及 If-None-Match / If-Modified-Since 条件请求
+ * 1. ETag 按Nginx的格式由文件修改时间和长度生成（"修改时间秒数的十六进制-长度的十六进制"），
+ *    应用与Nginx输出同一文件时ETag一致，断点续传时 If-Range 可以互相识别
+ * 2. 容器支持时交给Tomcat以 sendfile 方式输出，文件内容不经过堆内存；
+ *    否则退化为 FileChannel.transferTo 写出到响应流，此时仍会经过堆内存复制（见 transfer 方法）
+ * 3. 配置 nginx.download.accel-redirect 后应用只做授权判断（如防盗链校验），返回空响应及 X-Accel-Redirect，
+ *    文件及 Range / 条件请求均由Nginx的内部location处理，应用不需要访问文件
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 15:30
+ */
+@Slf4j
+@Component
+public class FileDownloader {
+
+    /**
+     * Tomcat的sendfile请求属性，参考：org.apache.catalina.Globals
+     */
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final DownloadProperties properties;
+    private final Path root;
+
+    public FileDownloader(DownloadProperties properties) {
+        this.properties = properties;
+        this.root = Paths.get(properties.getRoot()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 解析请求路径对应的文件，路径越出根目录（包括通过符号链接）或不是普通文件时返回null
+     *
+     * @param path 相对根目录的路径（已解码），如：/a/b.zip
+     */
+    public Path resolve(String path) {
+        try {
+            Path file = root.resolve(path.startsWith("/") ? path.substring(1) : path).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                return null;
+            }
+            return file.toRealPath().startsWith(root.toRealPath()) ? file : null;
+        } catch (InvalidPathException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 输出文件，文件不存在时返回404
+     */
+    public void serve(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (StringUtils.hasText(properties.getAccelRedirect())) {
+            accelRedirect(path, response);
+            return;
+        }
+        Path file = resolve(path);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(length, lastModified);
+
+        Decision decision = decide(length, lastModified, etag, request.getHeader("Range"), request.getHeader("If-Range"),
+                request.getHeader("If-None-Match"), request.getHeader("If-Modified-Since"));
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        if (decision.status == HttpServletResponse.SC_NOT_MODIFIED) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        if (decision.status == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        String contentType = request.getServletContext().getMimeType(file.getFileName().toString());
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+        long start = 0, count = length;
+        if (decision.range != null) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", decision.range.contentRange(length));
+            start = decision.range.getStart();
+            count = decision.range.getLength();
+        }
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(file, start, count, request, response);
+    }
+
+    /**
+     * 交给Nginx内部location输出，对应Nginx配置：
+     * <pre>
+     * location /protected/ {
+     *     internal;
+     *     alias /data/files/;
+     * }
+     * </pre>
+     */
+    private void accelRedirect(String path, HttpServletResponse response) throws IOException {
+        String location = accelLocation(properties.getAccelRedirect(), path);
+        if (location == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader("X-Accel-Redirect", location);
+        if (StringUtils.hasText(properties.getAccelBuffering())) {
+            response.setHeader("X-Accel-Buffering", properties.getAccelBuffering());
+        }
+        if (properties.getAccelLimitRate() > 0) {
+            response.setHeader("X-Accel-Limit-Rate", Long.toString(properties.getAccelLimitRate()));
+        }
+    }
+
+    /**
+     * 生成 X-Accel-Redirect 的URI，路径按URI编码（Nginx会解码），包含 .. 或指向目录时返回null
+     *
+     * @param prefix 内部location前缀，如：/protected
+     * @param path   相对根目录的路径（已解码），如：/a/b.zip
+     */
+    static String accelLocation(String prefix, String path) throws UnsupportedEncodingException {
+        String clean = StringUtils.cleanPath(path.startsWith("/") ? path : "/" + path);
+        if (clean.length() <= 1 || clean.endsWith("/") || clean.indexOf('\0') >= 0) {
+            return null;
+        }
+        for (String segment : clean.split("/")) {
+            if ("..".equals(segment)) {
+                return null;
+            }
+        }
+        String base = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        return base + UriUtils.encodePath(clean, "UTF-8");
+    }
+
+    private void transfer(Path file, long start, long count, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (properties.isSendfile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // 由Tomcat在请求处理结束后直接以 sendfile 输出，结束位置不含
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 目标不是 FileChannel / SocketChannel，transferTo 内部按块读入堆缓冲再写出到响应流，
+            // 并非零拷贝，只是避免了应用层的缓冲区管理；需要零拷贝时应开启 sendfile 或使用 X-Accel-Redirect
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start, remaining = count;
+            while (remaining > 0) {
+                long n = channel.transferTo(position, remaining, out);
+                if (n <= 0) {
+                    // 输出过程中文件被截断，已发送的响应头无法撤回，只能中断连接
+                    throw new IOException("file truncated during transfer: " + file);
+                }
+                position += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    /**
+     * 与Nginx一致的ETag格式
+     */
+    static String etag(long length, long lastModified) {
+        return "\"" + Long.toHexString(lastModified / 1000) + "-" + Long.toHexString(length) + "\"";
+    }
+
+    /**
+     * 根据条件请求头决定响应状态和输出区间
+     */
+    static Decision decide(long length, long lastModified, String etag,
+                           String range, String ifRange, String ifNoneMatch, String ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            if (PreEncodedResponse.matches(ifNoneMatch, etag)) {
+                return Decision.NOT_MODIFIED;
+            }
+        } else if (ifModifiedSince != null) {
+            long since = parseDate(ifModifiedSince);
+            if (since >= 0 && lastModified / 1000 <= since / 1000) {
+                return Decision.NOT_MODIFIED;
+            }
+        }
+        if (range == null || (ifRange != null && !ifRangeMatches(ifRange.trim(), etag, lastModified))) {
+            return Decision.FULL;
+        }
+        ByteRange byteRange = ByteRange.parse(range, length);
+        if (byteRange == null) {
+            return Decision.FULL;
+        }
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            return Decision.UNSATISFIABLE;
+        }
+        return new Decision(HttpServletResponse.SC_PARTIAL_CONTENT, byteRange);
+    }
+
+    /**
+     * If-Range 使用强比较：弱ETag永远不匹配，日期需与 Last-Modified 精确一致
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        long date = parseDate(ifRange);
+        return date >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    /**
+     * 解析HTTP日期（RFC 1123），非法时返回-1
+     */
+    private static long parseDate(String value) {
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    static final class Decision {
+
+        static final Decision FULL = new Decision(HttpServletResponse.SC_OK, null);
+        static final Decision NOT_MODIFIED = new Decision(HttpServletResponse.SC_NOT_MODIFIED, null);
+        static final Decision UNSATISFIABLE = new Decision(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, null);
+
+        final int status;
+        final ByteRange range;
+
+        Decision(int status, ByteRange range) {
+            this.status = status;
+            this.range = range;
+        }
+
+    }
+
+}
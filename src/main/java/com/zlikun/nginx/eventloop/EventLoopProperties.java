@@ -0,0 +1,36 @@
+package com.zlikun.nginx.eventloop;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 事件循环服务配置，前缀：nginx.event-loop
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 15:10
+ */
+@Data
+@ConfigurationProperties(prefix = "nginx.event-loop")
+public class EventLoopProperties {
+
+    /**
+     * 监听端口，默认：8081，可与Servlet版(8080)同时启动做对比
+     */
+    private int port = 8081;
+
+    /**
+     * 事件循环线程数，默认：CPU核数
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 连接等待队列长度，默认：4096
+     */
+    private int backlog = 4096;
+
+    /**
+     * 读缓冲大小，由每个事件循环的所有连接共用，请求行+消息头超过该大小时返回431，默认：16KB
+     */
+    private int readBufferSize = 16 * 1024;
+
+}
@@ -0,0 +1,566 @@
+package com.zlikun.nginx.eventloop;
+
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderSnapshot;
+import com.zlikun.nginx.response.PreEncodedResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 基于NIO Selector的非阻塞HTTP/1.1服务，只提供 "/" 和 "/nginx" 两个端点
+ * 一个接收线程 + N个事件循环线程，每个连接固定由一个事件循环处理，支持keep-alive和pipelining，
+ * GET/HEAD请求按 Content-Length 跳过请求体，不支持 Transfer-Encoding（返回400），
+ * 并发连接数不再受Servlet线程池大小限制，用于和Tomcat版本对比Nginx/Kong的长连接和扇入表现
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 15:10
+ */
+@Slf4j
+public class EventLoopServer {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+
+    private final EventLoopProperties properties;
+    private final HeaderCapture headerCapture;
+    private final PreEncodedResponse hello;
+
+    private final byte[] okHead;
+    private final byte[] notModifiedHead;
+    private final byte[] badRequest;
+    private final byte[] notFound;
+    private final byte[] methodNotAllowed;
+    private final byte[] headersTooLarge;
+
+    /**
+     * 单个响应的最大长度，写缓冲剩余空间不足时先写出
+     */
+    private final int maxResponseSize;
+
+    private volatile boolean running;
+    private ServerSocketChannel server;
+    private EventLoop[] loops;
+    private Thread acceptor;
+
+    public EventLoopServer(EventLoopProperties properties, HeaderCapture headerCapture, PreEncodedResponse hello) {
+        this.properties = properties;
+        this.headerCapture = headerCapture;
+        this.hello = hello;
+        // 响应头中除Date外的部分预先编码，Date由各事件循环按秒缓存
+        StringBuilder sb = new StringBuilder("HTTP/1.1 200 \r\n")
+                .append("Content-Type: ").append(hello.getContentType()).append("\r\n")
+                .append("Content-Length: ").append(hello.getContentLength()).append("\r\n");
+        if (hello.getEtag() != null) {
+            sb.append("ETag: ").append(hello.getEtag()).append("\r\n");
+        }
+        this.okHead = ascii(sb.toString());
+        this.notModifiedHead = ascii("HTTP/1.1 304 \r\n" + "ETag: " + hello.getEtag() + "\r\n");
+        this.badRequest = ascii("HTTP/1.1 400 \r\nContent-Length: 0\r\n");
+        this.notFound = ascii("HTTP/1.1 404 \r\nContent-Length: 0\r\n");
+        this.methodNotAllowed = ascii("HTTP/1.1 405 \r\nAllow: GET, HEAD\r\nContent-Length: 0\r\n");
+        this.headersTooLarge = ascii("HTTP/1.1 431 \r\nContent-Length: 0\r\n");
+        // 最长的响应头 + Date + 最长的Connection + 空行 + 响应体
+        this.maxResponseSize = okHead.length + 64 + CONNECTION_KEEP_ALIVE.length + CRLF.length + hello.getBody().length;
+    }
+
+    public void start() throws IOException {
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(new InetSocketAddress(properties.getPort()), properties.getBacklog());
+        running = true;
+
+        loops = new EventLoop[Math.max(1, properties.getWorkers())];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "event-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        acceptor = new Thread(this::accept, "event-loop-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("event loop server started on port {} with {} workers", getPort(), loops.length);
+    }
+
+    public void stop() throws IOException {
+        running = false;
+        if (server != null) {
+            server.close();
+        }
+        if (loops != null) {
+            for (EventLoop loop : loops) {
+                loop.selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * 实际监听的端口，配置为0时由系统分配
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next++ % loops.length].register(channel);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                log.warn("accept failed", e);
+            }
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 事件循环，处理注册到其上的所有连接，连接状态只在本线程内访问
+     * 读写缓冲由本循环的所有连接共用，连接只在有未解析完的请求或未写出的响应时才持有与数据大小相当的缓冲，
+     * 空闲的keep-alive连接不占用缓冲，上万个连接时内存占用与活跃请求数相关，而不是连接数
+     */
+    private class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 共用的读缓冲，大小即单个请求（请求行+消息头）的上限
+         */
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(properties.getReadBufferSize());
+
+        /**
+         * 共用的写缓冲，每次处理完读到的请求后写出，未能写出的部分转存到连接上
+         */
+        private final ByteBuffer writeBuffer = ByteBuffer.allocate(Math.max(64 * 1024, maxResponseSize));
+
+        /**
+         * 按秒缓存的Date消息头
+         */
+        private final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        private long dateSecond;
+        private byte[] date;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+            this.format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        }
+
+        void register(SocketChannel channel) {
+            pending.offer(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = pending.poll()) != null) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isWritable()) {
+                                connection.flush(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read(key);
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            writeBuffer.clear();
+                            connection.close(key);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warn("event loop failed", e);
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((Connection) key.attachment()).close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("close selector failed", e);
+            }
+        }
+
+        byte[] date() {
+            long now = System.currentTimeMillis();
+            if (date == null || now / 1000 != dateSecond) {
+                dateSecond = now / 1000;
+                date = ascii("Date: " + format.format(new Date(now)) + "\r\n");
+            }
+            return date;
+        }
+
+        /**
+         * 单个连接的解析状态，以及未解析完的请求和未写出的响应（没有时为null）
+         */
+        private class Connection {
+
+            private final SocketChannel channel;
+
+            /**
+             * 未解析完的请求数据（写模式），不超过读缓冲大小
+             */
+            private ByteBuffer in;
+
+            /**
+             * 未写出的响应（读模式），有数据时暂停读取和解析，直到写完
+             */
+            private ByteBuffer out;
+
+            /**
+             * 还需跳过的请求体字节数（GET/HEAD带 Content-Length 时）
+             */
+            private long discard;
+
+            private boolean closeAfterFlush;
+
+            Connection(SocketChannel channel) {
+                this.channel = channel;
+            }
+
+            void read(SelectionKey key) throws IOException {
+                ByteBuffer buf = load();
+                if (channel.read(buf) < 0) {
+                    close(key);
+                    return;
+                }
+                buf.flip();
+                handle(key, buf);
+            }
+
+            void flush(SelectionKey key) throws IOException {
+                channel.write(out);
+                if (out.hasRemaining()) {
+                    return;
+                }
+                out = null;
+                if (closeAfterFlush) {
+                    close(key);
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+                // 响应写完后继续处理已缓存的pipelining请求
+                if (in != null) {
+                    ByteBuffer buf = load();
+                    buf.flip();
+                    handle(key, buf);
+                }
+            }
+
+            void close(SelectionKey key) {
+                key.cancel();
+                in = null;
+                out = null;
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+
+            /**
+             * 将未解析完的数据移到共用读缓冲中
+             */
+            private ByteBuffer load() {
+                ByteBuffer buf = readBuffer;
+                buf.clear();
+                if (in != null) {
+                    in.flip();
+                    buf.put(in);
+                    in = null;
+                }
+                return buf;
+            }
+
+            /**
+             * 解析并响应读到的请求，剩余数据转存到连接上，写出响应并按结果调整关注的事件
+             */
+            private void handle(SelectionKey key, ByteBuffer buf) throws IOException {
+                process(buf);
+                if (buf.hasRemaining() && !closeAfterFlush) {
+                    in = ByteBuffer.allocate(buf.remaining());
+                    in.put(buf);
+                }
+                spill();
+                if (out != null) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                } else if (closeAfterFlush) {
+                    close(key);
+                }
+            }
+
+            /**
+             * 将共用写缓冲中的响应写出，未能写出的部分转存到连接上
+             */
+            private void spill() throws IOException {
+                ByteBuffer buf = writeBuffer;
+                if (buf.position() == 0) {
+                    return;
+                }
+                buf.flip();
+                if (out == null) {
+                    channel.write(buf);
+                }
+                if (buf.hasRemaining()) {
+                    ByteBuffer merged = ByteBuffer.allocate((out == null ? 0 : out.remaining()) + buf.remaining());
+                    if (out != null) {
+                        merged.put(out);
+                    }
+                    merged.put(buf).flip();
+                    out = merged;
+                }
+                buf.clear();
+            }
+
+            /**
+             * 解析并响应缓冲中所有完整的请求，有未写出的响应时暂停，等写完后再继续
+             */
+            private void process(ByteBuffer in) throws IOException {
+                byte[] buf = in.array();
+                while (!closeAfterFlush && out == null) {
+                    int start = in.position();
+                    int limit = in.limit();
+                    if (discard > 0) {
+                        int skip = (int) Math.min(discard, limit - start);
+                        in.position(start + skip);
+                        discard -= skip;
+                        if (discard > 0) {
+                            break;
+                        }
+                        continue;
+                    }
+                    // 写缓冲不足以容纳一个完整响应时先写出，写不完则等待可写后再继续
+                    if (writeBuffer.remaining() < maxResponseSize) {
+                        spill();
+                        if (out != null) {
+                            break;
+                        }
+                    }
+                    int end = indexOfHeaderEnd(buf, start, limit);
+                    if (end < 0) {
+                        if (limit - start == in.capacity()) {
+                            // 请求行+消息头已占满读缓冲，无法继续解析
+                            respond(headersTooLarge, null, false, false);
+                            closeAfterFlush = true;
+                        }
+                        break;
+                    }
+                    in.position(end + 4);
+                    handle(buf, start, end);
+                }
+            }
+
+            private void handle(byte[] buf, int start, int end) {
+                int lineEnd = indexOf(buf, start, end, (byte) '\r');
+                if (lineEnd < 0) {
+                    lineEnd = end;
+                }
+                int sp1 = indexOf(buf, start, lineEnd, (byte) ' ');
+                int sp2 = sp1 < 0 ? -1 : indexOf(buf, sp1 + 1, lineEnd, (byte) ' ');
+                if (sp2 < 0) {
+                    respond(badRequest, null, false, false);
+                    closeAfterFlush = true;
+                    return;
+                }
+                boolean get = matches(buf, start, sp1, "GET");
+                boolean head = !get && matches(buf, start, sp1, "HEAD");
+                int pathEnd = indexOf(buf, sp1 + 1, sp2, (byte) '?');
+                if (pathEnd < 0) {
+                    pathEnd = sp2;
+                }
+                boolean http10 = matches(buf, sp2 + 1, lineEnd, "HTTP/1.0");
+                boolean keepAlive = !http10;
+                boolean matched = matches(buf, sp1 + 1, pathEnd, "/") || matches(buf, sp1 + 1, pathEnd, "/nginx");
+
+                HeaderSnapshot snapshot = matched && (get || head)
+                        ? headerCapture.begin(new String(buf, start, sp1 - start, StandardCharsets.ISO_8859_1),
+                        new String(buf, sp1 + 1, pathEnd - sp1 - 1, StandardCharsets.ISO_8859_1))
+                        : null;
+                boolean notModified = false;
+                long contentLength = 0;
+                boolean invalidBody = false;
+
+                // 逐行解析消息头，只有需要采集时才创建字符串
+                int line = lineEnd + 2;
+                while (line < end) {
+                    int eol = indexOf(buf, line, end, (byte) '\r');
+                    if (eol < 0) {
+                        eol = end;
+                    }
+                    int colon = indexOf(buf, line, eol, (byte) ':');
+                    if (colon > 0) {
+                        int value = colon + 1;
+                        while (value < eol && (buf[value] == ' ' || buf[value] == '\t')) {
+                            value++;
+                        }
+                        int valueEnd = eol;
+                        while (valueEnd > value && (buf[valueEnd - 1] == ' ' || buf[valueEnd - 1] == '\t')) {
+                            valueEnd--;
+                        }
+                        if (equalsIgnoreCase(buf, line, colon, "connection")) {
+                            if (equalsIgnoreCase(buf, value, valueEnd, "close")) {
+                                keepAlive = false;
+                            } else if (equalsIgnoreCase(buf, value, valueEnd, "keep-alive")) {
+                                keepAlive = true;
+                            }
+                        } else if (equalsIgnoreCase(buf, line, colon, "content-length")) {
+                            contentLength = parseLength(buf, value, valueEnd);
+                            invalidBody |= contentLength < 0;
+                        } else if (equalsIgnoreCase(buf, line, colon, "transfer-encoding")) {
+                            // 不支持分块的请求体，无法确定请求边界
+                            invalidBody = true;
+                        } else if (hello.getEtag() != null && equalsIgnoreCase(buf, line, colon, "if-none-match")) {
+                            notModified = PreEncodedResponse.matches(
+                                    new String(buf, value, valueEnd - value, StandardCharsets.ISO_8859_1), hello.getEtag());
+                        }
+                        if (snapshot != null) {
+                            snapshot.add(new String(buf, line, colon - line, StandardCharsets.ISO_8859_1),
+                                    new String(buf, value, valueEnd - value, StandardCharsets.ISO_8859_1));
+                        }
+                    }
+                    line = eol + 2;
+                }
+                if (snapshot != null) {
+                    headerCapture.commit(snapshot);
+                }
+
+                if (invalidBody) {
+                    respond(badRequest, null, false, false);
+                    closeAfterFlush = true;
+                } else if (!get && !head) {
+                    // 本服务不读取请求体，其它方法一律返回405并关闭连接
+                    respond(methodNotAllowed, null, false, false);
+                    closeAfterFlush = true;
+                } else if (!matched) {
+                    respond(notFound, null, keepAlive, http10);
+                } else if (notModified) {
+                    respond(notModifiedHead, null, keepAlive, http10);
+                } else {
+                    respond(okHead, head ? null : hello.getBody(), keepAlive, http10);
+                }
+                // GET/HEAD的请求体不使用，跳过后再解析下一个请求
+                discard = contentLength;
+                if (!keepAlive) {
+                    closeAfterFlush = true;
+                }
+            }
+
+            private void respond(byte[] head, byte[] body, boolean keepAlive, boolean http10) {
+                ByteBuffer out = writeBuffer;
+                out.put(head).put(date());
+                if (!keepAlive) {
+                    out.put(CONNECTION_CLOSE);
+                } else if (http10) {
+                    // HTTP/1.0默认短连接，不回显keep-alive时客户端（如ab -k）不会复用连接
+                    out.put(CONNECTION_KEEP_ALIVE);
+                }
+                out.put(CRLF);
+                if (body != null) {
+                    out.put(body);
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * 解析 Content-Length，格式错误时返回-1
+     */
+    private static long parseLength(byte[] buf, int from, int to) {
+        if (from == to || to - from > 18) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = from; i < to; i++) {
+            if (buf[i] < '0' || buf[i] > '9') {
+                return -1;
+            }
+            length = length * 10 + (buf[i] - '0');
+        }
+        return length;
+    }
+
+    private static int indexOfHeaderEnd(byte[] buf, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (buf[i] == '\r' && buf[i + 1] == '\n' && buf[i + 2] == '\r' && buf[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] buf, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] buf, int from, int to, String ascii) {
+        if (to - from != ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buf[from + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] buf, int from, int to, String lowerAscii) {
+        if (to - from != lowerAscii.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerAscii.length(); i++) {
+            int c = buf[from + i];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerAscii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
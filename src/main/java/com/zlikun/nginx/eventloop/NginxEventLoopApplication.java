@@ -0,0 +1,39 @@
+package com.zlikun.nginx.eventloop;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.response.HelloResponse;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 非阻塞事件循环版本的启动入口，与 NginxWebApplication 提供相同的 "/" 和 "/nginx" 端点，
+ * 复用同一套消息头采集和访问记录管道，不启动内嵌Tomcat
+ * 通过 event-loop profile 隔离，避免被 NginxWebApplication 的组件扫描加载
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 15:10
+ */
+@Profile("event-loop")
+@EnableConfigurationProperties(EventLoopProperties.class)
+@SpringBootApplication(scanBasePackageClasses = {HeaderCapture.class, AccessRecordPipeline.class, HelloResponse.class})
+public class NginxEventLoopApplication {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EventLoopServer eventLoopServer(EventLoopProperties properties,
+                                           HeaderCapture headerCapture,
+                                           HelloResponse helloResponse) {
+        return new EventLoopServer(properties, headerCapture, helloResponse.getPreEncoded());
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(NginxEventLoopApplication.class)
+                .web(false)
+                .profiles("event-loop")
+                .run(args);
+    }
+
+}
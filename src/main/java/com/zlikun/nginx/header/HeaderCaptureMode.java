@@ -0,0 +1,26 @@
+package com.zlikun.nginx.header;
+
+/**
+ * 请求消息头采集模式
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 10:05
+ */
+public enum HeaderCaptureMode {
+
+    /**
+     * 关闭，不采集任何消息头
+     */
+    OFF,
+
+    /**
+     * 抽样，按 sample-rate 每N个请求采集一个
+     */
+    SAMPLED,
+
+    /**
+     * 全量，每个请求都采集
+     */
+    FULL
+
+}
@@ -0,0 +1,28 @@
+package com.zlikun.nginx.header;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 请求消息头采集配置，前缀：nginx.header
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 10:05
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.header")
+public class HeaderCaptureProperties {
+
+    /**
+     * 采集模式，默认：FULL，与原来逐个打印消息头的行为保持一致
+     */
+    private HeaderCaptureMode mode = HeaderCaptureMode.FULL;
+
+    /**
+     * 抽样模式下的抽样比例，表示每N个请求采集一个，默认：100
+     */
+    private int sampleRate = 100;
+
+}
@@ -0,0 +1,76 @@
+package com.zlikun.nginx.header;
+
+import java.util.Arrays;
+
+/**
+ * 单个请求的消息头快照，由 HeaderCapture 按线程复用
+ * 内部使用预分配的平行数组保存名称和值，采集时不产生额外的集合对象
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 10:05
+ */
+public class HeaderSnapshot {
+
+    /**
+     * 初始容量，经过Nginx/Kong代理的请求通常在15~25个消息头之间
+     */
+    static final int INITIAL_CAPACITY = 32;
+
+    private String method;
+    private String uri;
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * 重置快照，复用前调用
+     *
+     * @param method 请求方法
+     * @param uri    请求URI
+     */
+    public void reset(String method, String uri) {
+        // 清理上一次请求遗留的引用，避免长期持有
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        this.method = method;
+        this.uri = uri;
+        this.size = 0;
+    }
+
+    /**
+     * 追加一个消息头
+     *
+     * @param name  消息头名称
+     * @param value 消息头值
+     */
+    public void add(String name, String value) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size << 1);
+            values = Arrays.copyOf(values, size << 1);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String value(int index) {
+        return values[index];
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.zlikun.nginx.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zlikun.nginx.NginxWebApplication;
+import com.zlikun.nginx.metrics.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Okio;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环（固定到达速率）压测工具
+ * 请求按计划时刻发出，不等待前一个请求完成；延迟从计划时刻开始计算，
+ * 因此目标变慢时排队时间会如实计入，避免闭环压测中的"协同遗漏"（coordinated omission）
+ * <pre>
+ * java -cp nginx-web.jar -Dloader.main=com.zlikun.nginx.loadgen.LoadGenerator \
+ *      org.springframework.boot.loader.PropertiesLauncher --url=http://192.168.0.9/nginx --rate=2000 --duration=60
+ * </pre>
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+@Slf4j
+public class LoadGenerator {
+
+    /**
+     * 直方图可记录的最大延迟：1小时(ns)
+     */
+    private static final long HIGHEST_TRACKABLE = TimeUnit.HOURS.toNanos(1);
+
+    private final LoadOptions options;
+    private final String target;
+    private final OkHttpClient client;
+
+    private final LatencyHistogram latency = new LatencyHistogram(HIGHEST_TRACKABLE);
+    private final LatencyHistogram serviceTime = new LatencyHistogram(HIGHEST_TRACKABLE);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder httpErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+    private final AtomicLong outstanding = new AtomicLong();
+
+    /**
+     * 统计窗口起点(ns)，计划时刻早于该值的请求属于预热
+     */
+    private volatile long measureStart = Long.MAX_VALUE;
+
+    public LoadGenerator(LoadOptions options, String target) {
+        this.options = options;
+        this.target = target;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(options.getConnections());
+        dispatcher.setMaxRequestsPerHost(options.getConnections());
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(options.getConnections(), 5, TimeUnit.MINUTES))
+                .connectTimeout(options.getTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.getTimeout(), TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(false)
+                // 在开始写出请求头时记录实际发送时刻，Dispatcher排队和等待连接的时间不计入服务时间
+                .eventListener(new EventListener() {
+                    @Override
+                    public void requestHeadersStart(Call call) {
+                        ((Timed) call.request().tag()).sent();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 按固定速率发出请求，结束后等待所有在途请求完成并生成报告
+     */
+    public LoadReport run() throws InterruptedException {
+        Request request = new Request.Builder().url(target).get().build();
+        long period = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(options.getWarmup());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.getDuration());
+        measureStart = warmupEnd;
+        long scheduled = 0;
+        long maxBacklog = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * period;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (intended >= warmupEnd) {
+                scheduled++;
+            }
+            maxBacklog = Math.max(maxBacklog, outstanding.incrementAndGet());
+            Timed timed = new Timed(intended);
+            client.newCall(request.newBuilder().tag(timed).build()).enqueue(timed);
+        }
+
+        // 等待在途请求完成，最多等待一个超时周期
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getTimeout()) * 2;
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long elapsed = Math.min(System.nanoTime(), end) - warmupEnd;
+
+        LoadReport report = new LoadReport();
+        report.setTarget(target);
+        report.setRate(options.getRate());
+        report.setDuration(options.getDuration());
+        report.setConnections(options.getConnections());
+        report.setScheduled(scheduled);
+        report.setCompleted(completed.sum());
+        report.setHttpErrors(httpErrors.sum());
+        report.setIoErrors(ioErrors.sum());
+        report.setThroughput(Math.round(completed.sum() * 1e11 / elapsed) / 100.0);
+        report.setMaxBacklog(Math.max(0, maxBacklog - options.getConnections()));
+        statusCodes.forEach((code, count) -> report.getStatusCodes().put(code, count.sum()));
+        report.setLatency(LoadReport.Latency.of(latency.snapshot()));
+        report.setServiceTime(LoadReport.Latency.of(serviceTime.snapshot()));
+        return report;
+    }
+
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * 记录单个请求的计划时刻和实际发送时刻
+     */
+    private class Timed implements Callback {
+
+        private final long intended;
+
+        /**
+         * 开始写出请求头的时刻，请求未发出（如连接失败）时为0
+         */
+        private volatile long sent;
+
+        Timed(long intended) {
+            this.intended = intended;
+        }
+
+        void sent() {
+            // 重定向等会再次写出请求头，只记录第一次
+            if (sent == 0) {
+                sent = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            outstanding.decrementAndGet();
+            if (intended >= measureStart) {
+                ioErrors.increment();
+                completed.increment();
+                record();
+            }
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            try {
+                // 读完响应体，保证连接可以被复用
+                response.body().source().readAll(Okio.blackhole());
+            } catch (IOException e) {
+                // 响应体读取失败时按I/O错误统计
+                response.close();
+                onFailure(call, e);
+                return;
+            }
+            response.close();
+            outstanding.decrementAndGet();
+            if (intended >= measureStart) {
+                completed.increment();
+                statusCodes.computeIfAbsent(response.code(), k -> new LongAdder()).increment();
+                if (!response.isSuccessful()) {
+                    httpErrors.increment();
+                }
+                record();
+            }
+        }
+
+        private void record() {
+            long now = System.nanoTime();
+            latency.record(now - intended);
+            if (sent != 0) {
+                serviceTime.record(now - sent);
+            }
+        }
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String target = options.getUrl();
+        if (options.isLocal()) {
+            // 本地启动压测目标，使用随机端口，访问记录写入临时文件
+            context = SpringApplication.run(NginxWebApplication.class, "--server.port=0",
+                    "--nginx.access.file=" + File.createTempFile("access-record", ".log").getAbsolutePath());
+            String port = context.getEnvironment().getProperty("local.server.port");
+            if (target == null) {
+                target = "http://127.0.0.1:" + port + options.getPath();
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(options, target);
+        log.info("load {} at {} req/s for {}s (+{}s warmup)", target, options.getRate(), options.getDuration(), options.getWarmup());
+        try {
+            LoadReport report = generator.run();
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            if (options.getOutput() != null) {
+                mapper.writeValue(new File(options.getOutput()), report);
+                log.info("report written to {}", options.getOutput());
+            } else {
+                System.out.println(mapper.writeValueAsString(report));
+            }
+        } finally {
+            generator.shutdown();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+}
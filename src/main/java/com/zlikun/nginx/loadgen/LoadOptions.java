@@ -0,0 +1,110 @@
+package com.zlikun.nginx.loadgen;
+
+import lombok.Data;
+
+/**
+ * 压测参数，命令行格式：--key=value
+ * 示例：--url=http://192.168.0.9/nginx --rate=2000 --duration=60 --warmup=10 --connections=200
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+@Data
+public class LoadOptions {
+
+    /**
+     * 目标地址，指定 --local 时可省略，默认指向本地启动的 /nginx
+     */
+    private String url;
+
+    /**
+     * 在本进程内启动 NginxWebApplication（随机端口）作为压测目标，不依赖外部网络
+     */
+    private boolean local;
+
+    /**
+     * local 模式下请求的路径，默认：/nginx
+     */
+    private String path = "/nginx";
+
+    /**
+     * 固定到达速率(请求/秒)
+     */
+    private int rate = 1000;
+
+    /**
+     * 统计时长(秒)
+     */
+    private int duration = 30;
+
+    /**
+     * 预热时长(秒)，预热期间的请求不计入报告
+     */
+    private int warmup = 5;
+
+    /**
+     * 最大并发请求数（连接数），超出部分在客户端排队，排队时间计入延迟
+     */
+    private int connections = 100;
+
+    /**
+     * 单个请求超时(ms)
+     */
+    private int timeout = 10_000;
+
+    /**
+     * 报告输出文件，未指定时输出到标准输出
+     */
+    private String output;
+
+    public static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            String value = eq < 0 ? "true" : arg.substring(eq + 1);
+            switch (key) {
+                case "url":
+                    options.setUrl(value);
+                    break;
+                case "local":
+                    options.setLocal(Boolean.parseBoolean(value));
+                    break;
+                case "path":
+                    options.setPath(value);
+                    break;
+                case "rate":
+                    options.setRate(Integer.parseInt(value));
+                    break;
+                case "duration":
+                    options.setDuration(Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    options.setWarmup(Integer.parseInt(value));
+                    break;
+                case "connections":
+                    options.setConnections(Integer.parseInt(value));
+                    break;
+                case "timeout":
+                    options.setTimeout(Integer.parseInt(value));
+                    break;
+                case "output":
+                    options.setOutput(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: --" + key);
+            }
+        }
+        if (options.getUrl() == null && !options.isLocal()) {
+            throw new IllegalArgumentException("either --url or --local is required");
+        }
+        if (options.getRate() <= 0 || options.getDuration() <= 0) {
+            throw new IllegalArgumentException("--rate and --duration must be positive");
+        }
+        return options;
+    }
+
+}
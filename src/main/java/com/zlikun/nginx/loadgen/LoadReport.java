@@ -0,0 +1,105 @@
+package com.zlikun.nginx.loadgen;
+
+import com.zlikun.nginx.metrics.LatencyHistogram;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 压测报告，序列化为JSON输出
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+@Data
+public class LoadReport {
+
+    private String target;
+    private int rate;
+    private int duration;
+    private int connections;
+
+    /**
+     * 统计期间按计划应发出的请求数
+     */
+    private long scheduled;
+
+    /**
+     * 统计期间完成的请求数（含错误）
+     */
+    private long completed;
+
+    /**
+     * 非2xx响应数
+     */
+    private long httpErrors;
+
+    /**
+     * 连接失败、超时等I/O错误数
+     */
+    private long ioErrors;
+
+    /**
+     * 实际吞吐量(请求/秒)
+     */
+    private double throughput;
+
+    /**
+     * 客户端排队的最大请求数，持续增长说明目标已跟不上到达速率
+     */
+    private long maxBacklog;
+
+    /**
+     * 按状态码统计的响应数
+     */
+    private Map<Integer, Long> statusCodes = new TreeMap<>();
+
+    /**
+     * 从计划发送时刻算起的响应时间(ms)，已校正协同遗漏
+     */
+    private Latency latency;
+
+    /**
+     * 从实际发送时刻（开始写出请求头）算起的服务时间(ms)，不含客户端排队，未校正，仅供对比
+     */
+    private Latency serviceTime;
+
+    /**
+     * 延迟分布(ms)
+     */
+    @Data
+    public static class Latency {
+
+        private double min;
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double p999;
+        private double p9999;
+        private double max;
+
+        /**
+         * @param snapshot 以纳秒为单位的直方图快照
+         */
+        static Latency of(LatencyHistogram.Snapshot snapshot) {
+            Latency latency = new Latency();
+            latency.setMin(millis(snapshot.getMin()));
+            latency.setMean(millis(snapshot.getMean()));
+            latency.setP50(millis(snapshot.getValueAtPercentile(50)));
+            latency.setP90(millis(snapshot.getValueAtPercentile(90)));
+            latency.setP99(millis(snapshot.getValueAtPercentile(99)));
+            latency.setP999(millis(snapshot.getValueAtPercentile(99.9)));
+            latency.setP9999(millis(snapshot.getValueAtPercentile(99.99)));
+            latency.setMax(millis(snapshot.getMax()));
+            return latency;
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1000.0) / 1000.0;
+        }
+
+    }
+
+}
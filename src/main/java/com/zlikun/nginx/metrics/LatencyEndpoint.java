@@ -0,0 +1,83 @@
+package com.zlikun.nginx.metrics;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.math.BigDecimal;
+
+/**
+ * 接口延迟百分位端点：/latency，输出Prometheus文本格式，可直接被抓取
+ * 每个处理器映射+状态码类别输出两组数据：window="60s"为滑动窗口，window="all"为启动以来累计，
+ * 单位为秒，便于与Nginx日志中的 $upstream_response_time 对比
+ * <pre>
+ * http_server_latency_seconds{handler="/nginx",status="2xx",window="60s",quantile="0.99"} 0.000412
+ * http_server_latency_seconds_count{handler="/nginx",status="2xx",window="60s"} 120384
+ * </pre>
+ * Spring Boot 1.5 在未引入Spring Security时会拒绝访问敏感端点，这里默认不敏感，可通过 endpoints.latency.sensitive 调整
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+@Component
+@ConfigurationProperties(prefix = "endpoints.latency")
+public class LatencyEndpoint extends AbstractMvcEndpoint {
+
+    private static final String NAME = "http_server_latency_seconds";
+
+    private final LatencyMetrics metrics;
+
+    public LatencyEndpoint(LatencyMetrics metrics) {
+        super("/latency", false);
+        this.metrics = metrics;
+    }
+
+    @ResponseBody
+    @GetMapping(produces = "text/plain;version=0.0.4;charset=UTF-8")
+    public String invoke() {
+        double[] percentiles = metrics.getProperties().getPercentiles();
+        String[] quantiles = new String[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            quantiles[i] = quantile(percentiles[i]);
+        }
+        String window = metrics.getProperties().getWindowSeconds() + "s";
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("# HELP ").append(NAME).append(" Request latency by handler mapping and status class.\n");
+        sb.append("# TYPE ").append(NAME).append(" summary\n");
+        metrics.forEach((handler, status, histogram) -> {
+            append(sb, handler, status, window, histogram.window(), percentiles, quantiles);
+            append(sb, handler, status, "all", histogram.total(), percentiles, quantiles);
+        });
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, String handler, String status, String window,
+                               LatencyHistogram.Snapshot snapshot, double[] percentiles, String[] quantiles) {
+        String labels = "handler=\"" + escape(handler) + "\",status=\"" + status + "\",window=\"" + window + "\"";
+        for (int i = 0; i < percentiles.length; i++) {
+            sb.append(NAME).append('{').append(labels).append(",quantile=\"").append(quantiles[i]).append("\"} ")
+                    .append(seconds(snapshot.getValueAtPercentile(percentiles[i]))).append('\n');
+        }
+        sb.append(NAME).append("_max{").append(labels).append("} ").append(seconds(snapshot.getMax())).append('\n');
+        sb.append(NAME).append("_sum{").append(labels).append("} ").append(seconds(snapshot.getSum())).append('\n');
+        sb.append(NAME).append("_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+    }
+
+    /**
+     * 百分位转为quantile标签，按十进制移位，避免浮点除法产生 0.9990000000000001 这样的标签
+     */
+    static String quantile(double percentile) {
+        return BigDecimal.valueOf(percentile).movePointLeft(2).stripTrailingZeros().toPlainString();
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
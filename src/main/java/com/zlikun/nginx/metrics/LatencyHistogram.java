@@ -0,0 +1,190 @@
+package com.zlikun.nginx.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁延迟直方图，分桶方式与HdrHistogram相同（对数-线性分桶）：
+ * 每个2的幂区间再线性划分为 2^precisionBits 个子桶，相对误差不超过 1/2^precisionBits，
+ * 记录时只有一次数组下标计算和一次原子自增，多线程并发记录无需加锁
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+public class LatencyHistogram {
+
+    private final int precisionBits;
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * 默认精度：8位，相对误差约0.4%
+     *
+     * @param highestTrackableValue 可记录的最大值，超出部分按最大值记录
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        this(highestTrackableValue, 8);
+    }
+
+    public LatencyHistogram(long highestTrackableValue, int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("precisionBits must be in [1, 16]");
+        }
+        this.precisionBits = precisionBits;
+        this.highestTrackableValue = Math.max(1, highestTrackableValue);
+        this.counts = new AtomicLongArray(indexOf(this.highestTrackableValue) + 1);
+    }
+
+    /**
+     * 记录一个值，负数按0记录
+     */
+    public void record(long value) {
+        value = Math.max(0, Math.min(value, highestTrackableValue));
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        long current;
+        while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+            // retry
+        }
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * 清空所有计数，与并发记录同时进行时，少量样本可能落入清空前或清空后的任意一侧
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    /**
+     * 生成当前数据的只读快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), total == 0 ? 0 : min.get(), max.get());
+    }
+
+    /**
+     * 与本直方图参数相同的空快照
+     */
+    public Snapshot emptySnapshot() {
+        return new Snapshot(new long[counts.length()], 0, 0, 0, 0);
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    int indexOf(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, msb - precisionBits);
+        return (shift << precisionBits) + (int) (value >>> shift);
+    }
+
+    /**
+     * 分桶的上界（包含）
+     */
+    long highestEquivalentValue(int index) {
+        if (index < (2 << precisionBits)) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        long mantissa = index - ((long) shift << precisionBits);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * 取百分位值
+         *
+         * @param percentile 百分位，范围：[0, 100]
+         * @return 该百分位所在分桶的上界，不超过实际最大值
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(max, highestEquivalentValue(i));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * 合并另一个快照，两者必须来自相同参数的直方图
+         */
+        public Snapshot merge(Snapshot other) {
+            if (other.counts.length != counts.length) {
+                throw new IllegalArgumentException("incompatible histogram snapshot");
+            }
+            long[] merged = new long[counts.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            long mergedMin = count == 0 ? other.min : other.count == 0 ? min : Math.min(min, other.min);
+            return new Snapshot(merged, count + other.count, sum + other.sum, mergedMin, Math.max(max, other.max));
+        }
+
+    }
+
+}
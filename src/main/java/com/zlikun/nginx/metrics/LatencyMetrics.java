@@ -0,0 +1,84 @@
+package com.zlikun.nginx.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按处理器映射和状态码类别(1xx~5xx)统计的接口延迟，单位：微秒
+ * 处理器映射取自 HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE，如 "/nginx"，基数固定，
+ * 记录时只有一次Map查找和一次数组下标访问，不产生新的key对象
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+@Component
+public class LatencyMetrics {
+
+    private final LatencyMetricsProperties properties;
+    private final ConcurrentMap<String, WindowedHistogram[]> handlers = new ConcurrentHashMap<>();
+
+    public LatencyMetrics(LatencyMetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 记录一次请求
+     *
+     * @param handler 处理器映射
+     * @param status  响应状态码
+     * @param nanos   耗时(ns)
+     */
+    public void record(String handler, int status, long nanos) {
+        WindowedHistogram[] histograms = handlers.get(handler);
+        if (histograms == null) {
+            histograms = handlers.computeIfAbsent(handler, k -> new WindowedHistogram[6]);
+        }
+        int statusClass = Math.max(0, Math.min(5, status / 100));
+        WindowedHistogram histogram = histograms[statusClass];
+        if (histogram == null) {
+            histogram = create(histograms, statusClass);
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    private synchronized WindowedHistogram create(WindowedHistogram[] histograms, int statusClass) {
+        // 每个处理器+状态码类别只会创建一次，这里加锁不影响记录路径
+        if (histograms[statusClass] == null) {
+            histograms[statusClass] = new WindowedHistogram(
+                    TimeUnit.SECONDS.toMicros(properties.getHighestTrackableSeconds()),
+                    TimeUnit.SECONDS.toMillis(properties.getWindowSeconds()),
+                    properties.getSlices());
+        }
+        return histograms[statusClass];
+    }
+
+    /**
+     * 遍历所有统计项
+     */
+    public void forEach(Visitor visitor) {
+        for (Map.Entry<String, WindowedHistogram[]> entry : handlers.entrySet()) {
+            WindowedHistogram[] histograms = entry.getValue();
+            for (int i = 0; i < histograms.length; i++) {
+                WindowedHistogram histogram = histograms[i];
+                if (histogram != null) {
+                    visitor.visit(entry.getKey(), i + "xx", histogram);
+                }
+            }
+        }
+    }
+
+    public LatencyMetricsProperties getProperties() {
+        return properties;
+    }
+
+    public interface Visitor {
+
+        void visit(String handler, String status, WindowedHistogram histogram);
+
+    }
+
+}
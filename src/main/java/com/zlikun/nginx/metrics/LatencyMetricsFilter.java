@@ -0,0 +1,86 @@
+package com.zlikun.nginx.metrics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 记录每个请求的处理耗时，异步请求在异步处理完成时记录
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LatencyMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * 未匹配到处理器映射的请求（如404）统一归入该项，避免统计项无限增长
+     */
+    static final String UNMAPPED = "UNMAPPED";
+
+    private final LatencyMetrics metrics;
+
+    public LatencyMetricsFilter(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !metrics.getProperties().isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, start, false);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, start, failed);
+            }
+        }
+    }
+
+    /**
+     * @param failed 处理过程中是否抛出异常，此时响应状态通常还是默认的200，未提交时按容器的处理记为500
+     */
+    private void record(HttpServletRequest request, HttpServletResponse response, long start, boolean failed) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        int status = failed && !response.isCommitted() ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        metrics.record(pattern != null ? pattern.toString() : UNMAPPED, status, System.nanoTime() - start);
+    }
+
+}
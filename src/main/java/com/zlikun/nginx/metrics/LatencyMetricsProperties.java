@@ -0,0 +1,43 @@
+package com.zlikun.nginx.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 接口延迟统计配置，前缀：nginx.metrics
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.metrics")
+public class LatencyMetricsProperties {
+
+    /**
+     * 是否开启，默认：true
+     */
+    private boolean enabled = true;
+
+    /**
+     * 滑动窗口长度(秒)，默认：60
+     */
+    private int windowSeconds = 60;
+
+    /**
+     * 滑动窗口的时间片数量，越多窗口边界越平滑，默认：6
+     */
+    private int slices = 6;
+
+    /**
+     * 输出的百分位
+     */
+    private double[] percentiles = {50, 90, 99, 99.9};
+
+    /**
+     * 可记录的最大延迟(秒)，默认：3600
+     */
+    private int highestTrackableSeconds = 3600;
+
+}
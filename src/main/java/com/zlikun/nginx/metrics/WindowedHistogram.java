@@ -0,0 +1,81 @@
+package com.zlikun.nginx.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 滑动窗口直方图：将窗口等分为若干个时间片，每个时间片一个 LatencyHistogram，
+ * 记录时按当前时间落入对应时间片，过期的时间片在下一次写入时清空复用；
+ * 另维护一个自启动以来的累计直方图
+ * 时间片切换时并发写入的少量样本可能被清空，对百分位统计的影响可以忽略
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+public class WindowedHistogram {
+
+    private final long sliceMillis;
+    private final LatencyHistogram[] slices;
+    /**
+     * 每个时间片当前所属的时间片序号
+     */
+    private final AtomicLongArray epochs;
+    private final LatencyHistogram total;
+
+    /**
+     * @param highestTrackableValue 可记录的最大值
+     * @param windowMillis          窗口长度(ms)
+     * @param sliceCount            时间片数量
+     */
+    public WindowedHistogram(long highestTrackableValue, long windowMillis, int sliceCount) {
+        this.sliceMillis = Math.max(1, windowMillis / Math.max(1, sliceCount));
+        this.slices = new LatencyHistogram[Math.max(1, sliceCount)];
+        this.epochs = new AtomicLongArray(slices.length);
+        for (int i = 0; i < slices.length; i++) {
+            slices[i] = new LatencyHistogram(highestTrackableValue);
+        }
+        this.total = new LatencyHistogram(highestTrackableValue);
+    }
+
+    public void record(long value) {
+        record(value, System.currentTimeMillis());
+    }
+
+    void record(long value, long now) {
+        long epoch = now / sliceMillis;
+        int index = (int) (epoch % slices.length);
+        long current = epochs.get(index);
+        if (current != epoch && epochs.compareAndSet(index, current, epoch)) {
+            slices[index].reset();
+        }
+        slices[index].record(value);
+        total.record(value);
+    }
+
+    /**
+     * 窗口内数据的快照
+     */
+    public LatencyHistogram.Snapshot window() {
+        return window(System.currentTimeMillis());
+    }
+
+    LatencyHistogram.Snapshot window(long now) {
+        long epoch = now / sliceMillis;
+        LatencyHistogram.Snapshot snapshot = null;
+        for (int i = 0; i < slices.length; i++) {
+            // 只合并仍在窗口内的时间片
+            if (epoch - epochs.get(i) < slices.length) {
+                LatencyHistogram.Snapshot slice = slices[i].snapshot();
+                snapshot = snapshot == null ? slice : snapshot.merge(slice);
+            }
+        }
+        return snapshot != null ? snapshot : slices[0].emptySnapshot();
+    }
+
+    /**
+     * 自启动以来的累计快照
+     */
+    public LatencyHistogram.Snapshot total() {
+        return total.snapshot();
+    }
+
+}
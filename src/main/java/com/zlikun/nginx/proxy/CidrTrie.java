@@ -0,0 +1,121 @@
+package com.zlikun.nginx.proxy;
+
+import java.util.Arrays;
+
+/**
+ * 存放CIDR网段的二进制前缀树，IPv4与IPv6分别一棵树
+ * 节点以平行int数组保存，查找时按地址的每一位向下走，最多32/128步，不产生任何对象
+ * 构建完成后只读，可在多线程间共享
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+public class CidrTrie {
+
+    private final Tree v4 = new Tree();
+    private final Tree v6 = new Tree();
+
+    /**
+     * 添加网段，如：192.168.0.0/16、10.0.0.1、fd00::/8
+     *
+     * @throws IllegalArgumentException 格式非法时
+     */
+    public CidrTrie add(String cidr) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr.trim() : cidr.substring(0, slash).trim();
+        byte[] bytes = new byte[16];
+        int length = IpAddresses.parse(address, 0, address.length(), bytes);
+        if (length < 0) {
+            throw new IllegalArgumentException("invalid cidr: " + cidr);
+        }
+        int bits = length * 8;
+        int prefix = slash < 0 ? bits : Integer.parseInt(cidr.substring(slash + 1).trim());
+        if (prefix < 0 || prefix > bits) {
+            throw new IllegalArgumentException("invalid cidr prefix: " + cidr);
+        }
+        (length == 4 ? v4 : v6).insert(bytes, prefix);
+        return this;
+    }
+
+    /**
+     * 判断地址是否落在任一网段内
+     *
+     * @param address 已解析的地址
+     * @param length  地址长度：4或16
+     */
+    public boolean contains(byte[] address, int length) {
+        return (length == 4 ? v4 : v6).matches(address, length * 8);
+    }
+
+    /**
+     * 判断字符串形式的地址是否落在任一网段内，地址非法时返回false
+     */
+    public boolean contains(String address) {
+        byte[] bytes = new byte[16];
+        int length = IpAddresses.parse(address, 0, address.length(), bytes);
+        return length > 0 && contains(bytes, length);
+    }
+
+    public boolean isEmpty() {
+        return v4.size == 1 && !v4.terminal[0] && v6.size == 1 && !v6.terminal[0];
+    }
+
+    private static final class Tree {
+
+        private int[] zero = new int[64];
+        private int[] one = new int[64];
+        private boolean[] terminal = new boolean[64];
+        private int size = 1;
+
+        void insert(byte[] address, int prefix) {
+            int node = 0;
+            for (int i = 0; i < prefix; i++) {
+                if (terminal[node]) {
+                    // 已被更短的前缀覆盖
+                    return;
+                }
+                boolean bit = bit(address, i);
+                int child = (bit ? one : zero)[node];
+                if (child == 0) {
+                    // allocate() 可能扩容，先分配再写入新数组
+                    child = allocate();
+                    (bit ? one : zero)[node] = child;
+                }
+                node = child;
+            }
+            terminal[node] = true;
+        }
+
+        boolean matches(byte[] address, int bits) {
+            int node = 0;
+            for (int i = 0; ; i++) {
+                if (terminal[node]) {
+                    return true;
+                }
+                if (i == bits) {
+                    return false;
+                }
+                node = bit(address, i) ? one[node] : zero[node];
+                if (node == 0) {
+                    return false;
+                }
+            }
+        }
+
+        private int allocate() {
+            if (size == terminal.length) {
+                int capacity = size << 1;
+                zero = Arrays.copyOf(zero, capacity);
+                one = Arrays.copyOf(one, capacity);
+                terminal = Arrays.copyOf(terminal, capacity);
+            }
+            return size++;
+        }
+
+        private static boolean bit(byte[] address, int index) {
+            return (address[index >>> 3] & (0x80 >>> (index & 7))) != 0;
+        }
+
+    }
+
+}
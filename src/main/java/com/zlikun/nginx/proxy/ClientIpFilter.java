@@ -0,0 +1,80 @@
+package com.zlikun.nginx.proxy;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Enumeration;
+
+/**
+ * 解析经Nginx/Kong代理的请求的真实客户端IP，结果保存在请求属性 CLIENT_IP_ATTRIBUTE 中，
+ * 后续处理方法直接读取属性即可，不必各自解析消息头
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ClientIpFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_IP_ATTRIBUTE = ClientIpFilter.class.getName() + ".CLIENT_IP";
+
+    private final ClientIpProperties properties;
+    private final ClientIpResolver resolver;
+
+    public ClientIpFilter(ClientIpProperties properties) {
+        this.properties = properties;
+        CidrTrie trusted = new CidrTrie();
+        for (String cidr : properties.getTrusted()) {
+            trusted.add(cidr);
+        }
+        this.resolver = new ClientIpResolver(trusted);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(CLIENT_IP_ATTRIBUTE,
+                resolver.resolve(request.getRemoteAddr(), forwardedFor(request), request.getHeader("X-Real-IP")));
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * 多个 X-Forwarded-For 消息头按出现顺序合并
+     */
+    private static String forwardedFor(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders("X-Forwarded-For");
+        if (values == null || !values.hasMoreElements()) {
+            return null;
+        }
+        String first = values.nextElement();
+        if (!values.hasMoreElements()) {
+            return first;
+        }
+        StringBuilder sb = new StringBuilder(first);
+        while (values.hasMoreElements()) {
+            sb.append(',').append(values.nextElement());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 读取解析结果
+     */
+    public static String clientIp(HttpServletRequest request) {
+        Object value = request.getAttribute(CLIENT_IP_ATTRIBUTE);
+        return value != null ? value.toString() : request.getRemoteAddr();
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.zlikun.nginx.proxy;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 客户端IP解析配置，前缀：nginx.proxy
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.proxy")
+public class ClientIpProperties {
+
+    /**
+     * 是否开启，默认：true
+     */
+    private boolean enabled = true;
+
+    /**
+     * 受信任的代理网段（Nginx、Kong所在网段），只有来自这些地址的 X-Forwarded-For / X-Real-IP 才会被采信
+     * 默认：回环地址和私有网段
+     */
+    private List<String> trusted = new ArrayList<>(Arrays.asList(
+            "127.0.0.0/8", "::1/128", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "fc00::/7"));
+
+}
@@ -0,0 +1,71 @@
+package com.zlikun.nginx.proxy;
+
+/**
+ * 根据受信任代理网段解析真实客户端IP，规则与Nginx的 real_ip_recursive on 一致：
+ * 1. 直连地址不受信任时，直连地址即客户端地址
+ * 2. 否则从右向左遍历 X-Forwarded-For，第一个不受信任的地址即客户端地址，全部受信任时取最左侧的地址
+ * 3. 没有 X-Forwarded-For 时采用 X-Real-IP
+ * 遇到非法地址时停止遍历，采用上一个合法地址
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+public class ClientIpResolver {
+
+    private final CidrTrie trusted;
+
+    public ClientIpResolver(CidrTrie trusted) {
+        this.trusted = trusted;
+    }
+
+    /**
+     * @param remoteAddr    直连地址
+     * @param forwardedFor  X-Forwarded-For，可为null
+     * @param realIp        X-Real-IP，可为null
+     * @return 客户端IP
+     */
+    public String resolve(String remoteAddr, String forwardedFor, String realIp) {
+        byte[] buffer = new byte[16];
+        if (!isTrusted(remoteAddr, 0, remoteAddr.length(), buffer)) {
+            return remoteAddr;
+        }
+        if (forwardedFor != null && !forwardedFor.isEmpty()) {
+            String client = remoteAddr;
+            int end = forwardedFor.length();
+            while (end > 0) {
+                int comma = forwardedFor.lastIndexOf(',', end - 1);
+                int start = comma + 1;
+                int length = IpAddresses.parse(forwardedFor, start, end, buffer);
+                if (length < 0) {
+                    return client;
+                }
+                client = trim(forwardedFor, start, end);
+                if (!trusted.contains(buffer, length)) {
+                    return client;
+                }
+                end = comma < 0 ? 0 : comma;
+            }
+            return client;
+        }
+        if (realIp != null && IpAddresses.parse(realIp, 0, realIp.length(), buffer) > 0) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrusted(String address, int from, int to, byte[] buffer) {
+        int length = IpAddresses.parse(address, from, to, buffer);
+        return length > 0 && trusted.contains(buffer, length);
+    }
+
+    private static String trim(String s, int from, int to) {
+        while (from < to && s.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && s.charAt(to - 1) == ' ') {
+            to--;
+        }
+        return s.substring(from, to);
+    }
+
+}
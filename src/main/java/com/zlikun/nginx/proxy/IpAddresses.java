@@ -0,0 +1,175 @@
+package com.zlikun.nginx.proxy;
+
+import java.util.Arrays;
+
+/**
+ * IP地址解析工具，直接在字符串的指定区间上解析，不做split或正则匹配
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    /**
+     * 解析IPv4或IPv6地址，支持 [::1]、fe80::1%eth0 形式，IPv4映射的IPv6地址(::ffff:a.b.c.d)按IPv4返回
+     *
+     * @param s    字符串
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     * @param out  输出，长度至少16
+     * @return 地址字节数：4或16，非法时返回-1
+     */
+    static int parse(String s, int from, int to, byte[] out) {
+        // 去掉首尾空白
+        while (from < to && s.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && s.charAt(to - 1) == ' ') {
+            to--;
+        }
+        if (from < to && s.charAt(from) == '[') {
+            int close = indexOf(s, ']', from, to);
+            if (close < 0) {
+                return -1;
+            }
+            from++;
+            to = close;
+        }
+        if (from >= to) {
+            return -1;
+        }
+        if (indexOf(s, ':', from, to) < 0) {
+            return parseV4(s, from, to, out, 0) ? 4 : -1;
+        }
+        int zone = indexOf(s, '%', from, to);
+        if (zone >= 0) {
+            to = zone;
+        }
+        if (!parseV6(s, from, to, out)) {
+            return -1;
+        }
+        if (isV4Mapped(out)) {
+            System.arraycopy(out, 12, out, 0, 4);
+            return 4;
+        }
+        return 16;
+    }
+
+    /**
+     * 只在 [from, to) 内查找，X-Forwarded-For 逐跳解析时不会扫描到后面的地址，整体保持线性
+     */
+    private static int indexOf(String s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean parseV4(String s, int from, int to, byte[] out, int offset) {
+        int octets = 0;
+        int value = -1;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? s.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                if (value > 255) {
+                    return false;
+                }
+            } else if (c == '.') {
+                if (value < 0 || octets == 4) {
+                    return false;
+                }
+                out[offset + octets++] = (byte) value;
+                value = -1;
+            } else {
+                return false;
+            }
+        }
+        return octets == 4;
+    }
+
+    private static boolean parseV6(String s, int from, int to, byte[] out) {
+        int groups = 0;
+        int compress = -1;
+        int i = from;
+        if (s.startsWith("::", i)) {
+            compress = 0;
+            i += 2;
+            if (i == to) {
+                Arrays.fill(out, 0, 16, (byte) 0);
+                return true;
+            }
+        }
+        while (i < to) {
+            if (groups == 8) {
+                return false;
+            }
+            int start = i;
+            int value = 0;
+            while (i < to && Character.digit(s.charAt(i), 16) >= 0 && i - start < 4) {
+                value = (value << 4) | Character.digit(s.charAt(i), 16);
+                i++;
+            }
+            if (i < to && s.charAt(i) == '.') {
+                // 结尾内嵌的IPv4地址，占两个分组
+                if (groups > 6 || !parseV4(s, start, to, out, groups * 2)) {
+                    return false;
+                }
+                groups += 2;
+                i = to;
+                break;
+            }
+            if (i == start) {
+                return false;
+            }
+            out[groups * 2] = (byte) (value >>> 8);
+            out[groups * 2 + 1] = (byte) value;
+            groups++;
+            if (i == to) {
+                break;
+            }
+            if (s.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < to && s.charAt(i) == ':') {
+                if (compress >= 0) {
+                    return false;
+                }
+                compress = groups;
+                i++;
+                if (i == to) {
+                    break;
+                }
+            } else if (i == to) {
+                return false;
+            }
+        }
+        if (compress < 0) {
+            return groups == 8;
+        }
+        if (groups == 8) {
+            return false;
+        }
+        // 将 :: 之后的分组移到末尾，中间补0
+        int tail = (groups - compress) * 2;
+        System.arraycopy(out, compress * 2, out, 16 - tail, tail);
+        Arrays.fill(out, compress * 2, 16 - tail, (byte) 0);
+        return true;
+    }
+
+    private static boolean isV4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+
+}
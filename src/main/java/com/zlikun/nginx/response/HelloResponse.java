@@ -0,0 +1,74 @@
+package com.zlikun.nginx.response;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * "/" 和 "/nginx" 共用的 "Hello, Nginx !" 响应
+ * 未开启预编码时返回 ResponseEntity，开启后直接写出预编码字节并返回null，
+ * 返回null的 ResponseEntity 会被Spring MVC视为已处理，不再经过消息转换器
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 13:40
+ */
+@Component
+public class HelloResponse {
+
+    public static final String BODY = "Hello, Nginx !";
+
+    private final ResponseProperties properties;
+    private final PreEncodedResponse preEncoded;
+
+    /**
+     * @param converters 应用的消息转换器，预编码响应按能输出 String 的转换器支持的类型协商 Content-Type，
+     *                   与 ResponseEntity 的输出一致（如浏览器请求时为 text/html;charset=UTF-8）
+     */
+    @Autowired
+    public HelloResponse(ResponseProperties properties, HttpMessageConverters converters) {
+        this.properties = properties;
+        this.preEncoded = new PreEncodedResponse(BODY, producibleTypes(converters.getConverters()), properties.isEtag());
+    }
+
+    /**
+     * 只使用 StringHttpMessageConverter，可输出类型为：text/plain 及任意类型
+     */
+    public HelloResponse(ResponseProperties properties) {
+        this(properties, new HttpMessageConverters(false, Collections.<HttpMessageConverter<?>>singletonList(new StringHttpMessageConverter(StandardCharsets.UTF_8))));
+    }
+
+    private static List<MediaType> producibleTypes(List<HttpMessageConverter<?>> converters) {
+        List<MediaType> types = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter.canWrite(String.class, null)) {
+                types.addAll(converter.getSupportedMediaTypes());
+            }
+        }
+        return types;
+    }
+
+    public ResponseEntity<String> write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!properties.isPreEncoded()) {
+            return ResponseEntity.ok(BODY);
+        }
+        preEncoded.write(request, response);
+        return null;
+    }
+
+    public PreEncodedResponse getPreEncoded() {
+        return preEncoded;
+    }
+
+}
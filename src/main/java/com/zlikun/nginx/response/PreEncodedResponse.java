@@ -0,0 +1,244 @@
+package com.zlikun.nginx.response;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 预编码的固定响应
+ * 响应体、Content-Type、Content-Length以及可选的ETag在首次遇到某个 Accept 时计算好并缓存，
+ * 写出时直接操作 HttpServletResponse，跳过消息转换器和字符集编码
+ * Content-Type 按与 Spring MVC 相同的规则协商（Accept 与可输出类型取最具体的兼容类型，按精确度和q值排序，
+ * 未指定字符集时使用UTF-8），因此与通过 ResponseEntity 输出的结果一致；没有兼容的类型时返回406
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 13:40
+ */
+public class PreEncodedResponse {
+
+    /**
+     * 缓存的 Accept 数量上限，超过后不再缓存，每次重新协商
+     */
+    private static final int MAX_VARIANTS = 64;
+
+    private static final MediaType MEDIA_TYPE_APPLICATION = new MediaType("application");
+
+    private static final Variant NOT_ACCEPTABLE = new Variant(null, null, null);
+
+    private final String text;
+    private final List<MediaType> producibleTypes;
+    private final boolean etag;
+
+    /**
+     * 未指定 Accept 时的响应
+     */
+    private final Variant defaultVariant;
+    private final ConcurrentMap<String, Variant> variants = new ConcurrentHashMap<>();
+
+    /**
+     * @param body      响应文本
+     * @param mediaType 响应类型，未指定字符集时使用UTF-8
+     * @param etag      是否计算ETag
+     */
+    public PreEncodedResponse(String body, MediaType mediaType, boolean etag) {
+        this(body, Collections.singletonList(mediaType), etag);
+    }
+
+    /**
+     * @param body            响应文本
+     * @param producibleTypes 可输出的类型，与消息转换器的 getSupportedMediaTypes 一致，第一个为默认类型
+     * @param etag            是否计算ETag
+     */
+    public PreEncodedResponse(String body, List<MediaType> producibleTypes, boolean etag) {
+        this.text = body;
+        this.producibleTypes = new ArrayList<>(producibleTypes);
+        this.etag = etag;
+        this.defaultVariant = negotiate(null);
+    }
+
+    /**
+     * 写出响应，HEAD请求只写消息头，If-None-Match命中时返回304
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Variant variant = variant(accept(request));
+        if (variant == NOT_ACCEPTABLE) {
+            response.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE);
+            return;
+        }
+        if (variant.etag != null) {
+            response.setHeader(HttpHeaders.ETAG, variant.etag);
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && matches(ifNoneMatch, variant.etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setHeader(HttpHeaders.CONTENT_TYPE, variant.contentType);
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, variant.contentLength);
+        if (!"HEAD".equals(request.getMethod())) {
+            response.getOutputStream().write(variant.body);
+        }
+    }
+
+    /**
+     * If-None-Match 是否包含指定的ETag：逐个解析列表中的（弱）ETag并按弱比较匹配，* 匹配任意ETag
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        int i = 0;
+        int n = ifNoneMatch.length();
+        while (i < n) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", i)) {
+                i += 2;
+            }
+            int end = i < n && ifNoneMatch.charAt(i) == '"' ? ifNoneMatch.indexOf('"', i + 1) : -1;
+            if (end < 0) {
+                // 格式错误，忽略剩余部分
+                return false;
+            }
+            if (end + 1 - i == opaque.length() && ifNoneMatch.regionMatches(i, opaque, 0, opaque.length())) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static String accept(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT);
+        if (values == null || !values.hasMoreElements()) {
+            return null;
+        }
+        String accept = values.nextElement();
+        while (values.hasMoreElements()) {
+            accept = accept + "," + values.nextElement();
+        }
+        return accept;
+    }
+
+    private Variant variant(String accept) {
+        if (accept == null) {
+            return defaultVariant;
+        }
+        Variant variant = variants.get(accept);
+        if (variant == null) {
+            variant = negotiate(accept);
+            if (variants.size() < MAX_VARIANTS) {
+                variants.putIfAbsent(accept, variant);
+            }
+        }
+        return variant;
+    }
+
+    /**
+     * 与 AbstractMessageConverterMethodProcessor#writeWithMessageConverters 的协商规则一致
+     */
+    private Variant negotiate(String accept) {
+        List<MediaType> requestedTypes;
+        try {
+            requestedTypes = accept == null || accept.trim().isEmpty()
+                    ? Collections.singletonList(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return NOT_ACCEPTABLE;
+        }
+        Set<MediaType> compatibleTypes = new LinkedHashSet<>();
+        for (MediaType requestedType : requestedTypes) {
+            for (MediaType producibleType : producibleTypes) {
+                if (requestedType.isCompatibleWith(producibleType)) {
+                    compatibleTypes.add(mostSpecific(requestedType, producibleType));
+                }
+            }
+        }
+        List<MediaType> mediaTypes = new ArrayList<>(compatibleTypes);
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        MediaType selected = null;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isConcrete()) {
+                selected = mediaType;
+                break;
+            }
+            if (mediaType.equals(MediaType.ALL) || mediaType.equals(MEDIA_TYPE_APPLICATION)) {
+                // 消息转换器将 application/octet-stream 替换为默认类型
+                selected = producibleTypes.get(0);
+                break;
+            }
+        }
+        if (selected == null) {
+            return NOT_ACCEPTABLE;
+        }
+        selected = selected.removeQualityValue();
+        Charset charset = selected.getCharset();
+        if (charset == null) {
+            charset = StandardCharsets.UTF_8;
+            selected = new MediaType(selected, charset);
+        }
+        byte[] body = text.getBytes(charset);
+        // 与 ShallowEtagHeaderFilter 的格式保持一致
+        return new Variant(body, selected.toString(), etag ? "\"0" + DigestUtils.md5Hex(body) + "\"" : null);
+    }
+
+    private static MediaType mostSpecific(MediaType acceptType, MediaType produceType) {
+        MediaType produceTypeToUse = produceType.copyQualityValue(acceptType);
+        return MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceTypeToUse) <= 0 ? acceptType : produceTypeToUse;
+    }
+
+    /**
+     * 以下为未指定 Accept 时的响应，供不做内容协商的场景（如事件循环服务）使用
+     */
+    public byte[] getBody() {
+        return defaultVariant.body;
+    }
+
+    public String getContentType() {
+        return defaultVariant.contentType;
+    }
+
+    public String getContentLength() {
+        return defaultVariant.contentLength;
+    }
+
+    public String getEtag() {
+        return defaultVariant.etag;
+    }
+
+    private static final class Variant {
+
+        final byte[] body;
+        final String contentType;
+        final String contentLength;
+        final String etag;
+
+        Variant(byte[] body, String contentType, String etag) {
+            this.body = body;
+            this.contentType = contentType;
+            this.contentLength = body == null ? null : String.valueOf(body.length);
+            this.etag = etag;
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.zlikun.nginx.response;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 响应输出配置，前缀：nginx.response
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 13:40
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.response")
+public class ResponseProperties {
+
+    /**
+     * 是否使用预编码响应，默认：false，即仍通过 ResponseEntity 和消息转换器输出
+     */
+    private boolean preEncoded = false;
+
+    /**
+     * 预编码响应是否附带ETag，默认：false
+     */
+    private boolean etag = false;
+
+}
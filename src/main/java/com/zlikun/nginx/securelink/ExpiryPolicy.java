@@ -0,0 +1,71 @@
+package com.zlikun.nginx.securelink;
+
+/**
+ * 链接过期策略
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 11:50
+ */
+public abstract class ExpiryPolicy {
+
+    /**
+     * 计算过期时间
+     *
+     * @param now 当前时间（秒）
+     * @return 过期时间（秒）
+     */
+    public abstract long expire(long now);
+
+    /**
+     * 相对过期：当前时间 + ttl，与 SecureLinkTest 中的 now / 1000 + 60 一致
+     */
+    public static ExpiryPolicy ttl(long seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        return new ExpiryPolicy() {
+            @Override
+            public long expire(long now) {
+                return now + seconds;
+            }
+        };
+    }
+
+    /**
+     * 绝对过期：所有链接在同一时刻过期
+     */
+    public static ExpiryPolicy at(long epochSeconds) {
+        return new ExpiryPolicy() {
+            @Override
+            public long expire(long now) {
+                return epochSeconds;
+            }
+        };
+    }
+
+    /**
+     * 分桶过期：now + ttl 向上取整到 bucket 的整数倍，
+     * 同一时间桶内同一资源的链接保持不变，可被浏览器或 proxy_cache 缓存，
+     * 链接的实际有效期在 [ttl, ttl + bucket) 之间
+     *
+     * @param seconds ttl（秒）
+     * @param bucket  时间桶大小（秒），小于等于1时等同于 ttl(seconds)
+     */
+    public static ExpiryPolicy bucketed(long seconds, long bucket) {
+        if (bucket <= 1) {
+            return ttl(seconds);
+        }
+        if (seconds < 0) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        return new ExpiryPolicy() {
+            @Override
+            public long expire(long now) {
+                long expire = now + seconds;
+                long remainder = Math.floorMod(expire, bucket);
+                return remainder == 0 ? expire : expire - remainder + bucket;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.zlikun.nginx.securelink;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 批量签名：逐行读取路径，按块提交到 ForkJoinPool 并行签名，按输入顺序以NDJSON格式流式写出
+ * 同时在途的块数有上限，内存占用与批量大小无关；
+ * 过期时间在开始时按策略计算一次，同一批次的链接过期时间一致
+ * 每行输出：{"path":"/nginx.tar.gz","st":"fRKSuqWCR0lJQwFwlK2Yow","e":1523686533,"url":"http://k.zlikun.com/nginx.tar.gz?st=...&e=..."}
+ * 签名只覆盖 '?' 之前的路径（对应Nginx的 $uri），url 中的路径按UTF-8百分号编码，可以直接访问；
+ * 签名经由 SecureLinkCache，使用默认过期策略时与单个链接共享缓存，同一时间桶内重复的路径只计算一次摘要
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 11:50
+ */
+public class SecureLinkBatchSigner {
+
+    /**
+     * 每块的路径数
+     */
+    static final int CHUNK_SIZE = 512;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final SecureLinkCache cache;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public SecureLinkBatchSigner(SecureLinkCache cache, ForkJoinPool pool) {
+        this.cache = cache;
+        this.pool = pool;
+        // 在途块数为并行度的2倍，保证写出当前块时其它线程仍有任务可做
+        this.maxInFlight = pool.getParallelism() * 2;
+    }
+
+    /**
+     * 批量签名，空行忽略
+     *
+     * @param paths  每行一个路径
+     * @param policy 过期策略
+     * @param base   链接前缀，如：http://k.zlikun.com，可为空
+     * @param out    NDJSON输出
+     * @return 签名的路径数
+     */
+    public long sign(BufferedReader paths, ExpiryPolicy policy, String base, Writer out) throws IOException {
+        long now = System.currentTimeMillis() / 1000;
+        long expire = policy.expire(now);
+        String prefix = base != null ? base : "";
+        ArrayDeque<Future<CharSequence>> inFlight = new ArrayDeque<>(maxInFlight);
+        String[] chunk = new String[CHUNK_SIZE];
+        int size = 0;
+        long total = 0;
+        String line;
+        while ((line = paths.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            chunk[size++] = line;
+            total++;
+            if (size == CHUNK_SIZE) {
+                if (inFlight.size() == maxInFlight) {
+                    write(inFlight.poll(), out);
+                }
+                String[] paths0 = chunk;
+                inFlight.add(pool.submit(() -> render(paths0, CHUNK_SIZE, expire, now, prefix)));
+                chunk = new String[CHUNK_SIZE];
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            String[] rest = Arrays.copyOf(chunk, size);
+            inFlight.add(pool.submit(() -> render(rest, rest.length, expire, now, prefix)));
+        }
+        while (!inFlight.isEmpty()) {
+            write(inFlight.poll(), out);
+        }
+        out.flush();
+        return total;
+    }
+
+    /**
+     * 关闭签名线程池，由Spring在容器关闭时调用
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private CharSequence render(String[] paths, int size, long expire, long now, String prefix) {
+        StringBuilder sb = new StringBuilder(size * (prefix.length() + 128));
+        int start;
+        for (int i = 0; i < size; i++) {
+            String path = paths[i];
+            int query = path.indexOf('?');
+            sb.append("{\"path\":\"");
+            escape(path, sb);
+            sb.append("\",\"st\":\"");
+            start = sb.length();
+            cache.sign(query < 0 ? path : path.substring(0, query), expire, now, sb);
+            String token = sb.substring(start);
+            sb.append("\",\"e\":").append(expire).append(",\"url\":\"");
+            escape(prefix, sb);
+            // 编码后只含ASCII且不含引号和反斜杠，无需再做JSON转义
+            encode(path, sb);
+            sb.append(query < 0 ? "?st=" : "&st=").append(token).append("&e=").append(expire).append("\"}\n");
+        }
+        return sb;
+    }
+
+    /**
+     * 按UTF-8百分号编码：路径部分除 unreserved、sub-delims、':'、'@'、'/' 外都编码（包括'%'，路径与 $uri 一样是解码后的形式），
+     * 查询串原样保留已编码的'%'、'&'、'='等，只编码空白、控制字符、非ASCII字符及URL中不允许出现的字符
+     */
+    static void encode(String uri, StringBuilder sb) {
+        boolean query = false;
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '?' && !query) {
+                query = true;
+                sb.append(c);
+            } else if (c < 0x80 && (allowed(c) || (query && (c == '%' || c == '?')))) {
+                sb.append(c);
+            } else {
+                int cp = Character.codePointAt(uri, i);
+                if (Character.isSurrogate(c) && Character.charCount(cp) == 1) {
+                    // 非法的代理项与签名时一致，按 '?' 处理
+                    cp = '?';
+                }
+                i += Character.charCount(cp) - 1;
+                if (cp < 0x80) {
+                    percent(cp, sb);
+                } else if (cp < 0x800) {
+                    percent(0xc0 | (cp >> 6), sb);
+                    percent(0x80 | (cp & 0x3f), sb);
+                } else if (cp < 0x10000) {
+                    percent(0xe0 | (cp >> 12), sb);
+                    percent(0x80 | ((cp >> 6) & 0x3f), sb);
+                    percent(0x80 | (cp & 0x3f), sb);
+                } else {
+                    percent(0xf0 | (cp >> 18), sb);
+                    percent(0x80 | ((cp >> 12) & 0x3f), sb);
+                    percent(0x80 | ((cp >> 6) & 0x3f), sb);
+                    percent(0x80 | (cp & 0x3f), sb);
+                }
+            }
+        }
+    }
+
+    private static void percent(int b, StringBuilder sb) {
+        sb.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+    }
+
+    /**
+     * RFC 3986 中 pchar 除百分号编码外的字符，以及路径分隔符 '/'
+     */
+    private static boolean allowed(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "-._~!$&'()*+,;=:@/".indexOf(c) >= 0;
+    }
+
+    private static void write(Future<CharSequence> future, Writer out) throws IOException {
+        try {
+            CharSequence block = future.get();
+            out.append(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("batch signing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("batch signing failed", e.getCause());
+        }
+    }
+
+    /**
+     * JSON字符串转义
+     */
+    static void escape(String s, StringBuilder sb) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.zlikun.nginx.securelink;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 (URI, 过期时间) 缓存生成的防盗链，线程安全
+ * 配合 ExpiryPolicy.bucketed 使用时，同一时间桶内热点资源的链接只需计算一次摘要，
+ * 且链接保持不变，可以被浏览器或Nginx的 proxy_cache 缓存；
+ * 缓存为固定大小的直接映射表，按槽位覆盖淘汰，过期时间变化后旧条目自然失效
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 14:20
+ */
+public class SecureLinkCache {
+
+    private final SecureLinkSigner signer;
+    private final ExpiryPolicy policy;
+    private final AtomicReferenceArray<Entry> cache;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param signer    签名器
+     * @param policy    过期策略
+     * @param cacheSize 缓存槽位数，会向上取整为2的幂，小于等于0时不缓存
+     */
+    public SecureLinkCache(SecureLinkSigner signer, ExpiryPolicy policy, int cacheSize) {
+        this.signer = signer;
+        this.policy = policy;
+        int size = 1;
+        while (size < cacheSize) {
+            size <<= 1;
+        }
+        this.cache = cacheSize > 0 ? new AtomicReferenceArray<>(size) : null;
+        this.mask = size - 1;
+    }
+
+    /**
+     * 按过期策略生成完整链接，形如：/nginx.tar.gz?st=fRKSuqWCR0lJQwFwlK2Yow&e=1523686533
+     *
+     * @param uri 资源URI
+     * @param now 当前时间（秒）
+     */
+    public String link(String uri, long now) {
+        return entry(uri, policy.expire(now)).link;
+    }
+
+    /**
+     * 按过期策略生成签名
+     */
+    public String sign(String uri, long now) {
+        return entry(uri, policy.expire(now)).token;
+    }
+
+    /**
+     * 将签名追加到 sb 中，供批量签名使用：过期时间与当前时间桶一致时走缓存，
+     * 否则（如批量请求指定了 ttl 或 expire）直接签名，不占用缓存槽位
+     *
+     * @param uri    资源URI，不含查询串
+     * @param expire 过期时间（秒）
+     * @param now    当前时间（秒）
+     */
+    public void sign(String uri, long expire, long now, StringBuilder sb) {
+        if (cache == null || expire != policy.expire(now)) {
+            signer.sign(uri, expire, sb);
+            return;
+        }
+        sb.append(entry(uri, expire).token);
+    }
+
+    /**
+     * 当前时间对应的过期时间
+     */
+    public long expire(long now) {
+        return policy.expire(now);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Entry entry(String uri, long expire) {
+        if (cache == null) {
+            return create(uri, expire);
+        }
+        int slot = spread(uri.hashCode() * 31 + Long.hashCode(expire)) & mask;
+        Entry entry = cache.get(slot);
+        if (entry != null && entry.expire == expire && entry.uri.equals(uri)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        entry = create(uri, expire);
+        cache.set(slot, entry);
+        return entry;
+    }
+
+    private Entry create(String uri, long expire) {
+        String link = signer.link(uri, expire);
+        // 签名位于 "&e=" 之前的22个字符
+        int end = link.length() - 3 - Long.toString(expire).length();
+        return new Entry(uri, expire, link.substring(end - SecureLinkSigner.TOKEN_LENGTH, end), link);
+    }
+
+    /**
+     * 与 HashMap 相同的高位扰动，避免相似URI集中在少数槽位
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Entry {
+
+        final String uri;
+        final long expire;
+        final String token;
+        final String link;
+
+        Entry(String uri, long expire, String token, String link) {
+            this.uri = uri;
+            this.expire = expire;
+            this.token = token;
+            this.link = link;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.zlikun.nginx.securelink;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 防盗链相关组件配置
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 9:30
+ */
+@Configuration
+public class SecureLinkConfiguration {
+
+    @Bean
+    public SecureLinkSigner secureLinkSigner(SecureLinkProperties properties) {
+        return new SecureLinkSigner(properties.getSalt());
+    }
+
+    @Bean
+    public SecureLinkCache secureLinkCache(SecureLinkSigner signer, SecureLinkProperties properties) {
+        return new SecureLinkCache(signer, ExpiryPolicy.bucketed(properties.getTtl(), properties.getBucket()),
+                properties.getBucket() > 1 ? properties.getLinkCacheSize() : 0);
+    }
+
+    @Bean
+    public SecureLinkVerifier secureLinkVerifier(SecureLinkSigner signer, SecureLinkProperties properties) {
+        return new SecureLinkVerifier(signer, properties.getCacheSize());
+    }
+
+    /**
+     * 只对 nginx.secure-link.patterns 中配置的路径生效，未配置时不注册
+     */
+    @Bean
+    public FilterRegistrationBean secureLinkFilter(SecureLinkVerifier verifier, SecureLinkProperties properties) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new SecureLinkFilter(verifier));
+        registration.setName("secureLinkFilter");
+        registration.setUrlPatterns(properties.getPatterns());
+        registration.setEnabled(!properties.getPatterns().isEmpty());
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "nginx.secure-link", name = "batch-enabled", havingValue = "true")
+    public SecureLinkBatchSigner secureLinkBatchSigner(SecureLinkCache cache, SecureLinkProperties properties) {
+        int parallelism = properties.getBatchParallelism() > 0
+                ? properties.getBatchParallelism() : Runtime.getRuntime().availableProcessors();
+        return new SecureLinkBatchSigner(cache, new ForkJoinPool(parallelism));
+    }
+
+}
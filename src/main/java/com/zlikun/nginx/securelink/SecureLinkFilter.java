@@ -0,0 +1,51 @@
+package com.zlikun.nginx.securelink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 应用内的防盗链校验，用于前面没有Nginx或直连应用的场景，
+ * 校验 st、e 参数，规则与Nginx的 secure_link_md5 一致：
+ * 参数缺失或签名错误返回403，已过期返回410（与Nginx文档中的示例配置一致）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 10:40
+ */
+@Slf4j
+public class SecureLinkFilter extends OncePerRequestFilter {
+
+    private final SecureLinkVerifier verifier;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public SecureLinkFilter(SecureLinkVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Nginx的 $uri 是解码后的URI，这里同样使用解码后的URI参与签名
+        String uri = urlPathHelper.getRequestUri(request);
+        SecureLinkVerifier.Result result = verifier.verify(uri,
+                request.getParameter("st"), request.getParameter("e"), System.currentTimeMillis() / 1000);
+        switch (result) {
+            case VALID:
+                chain.doFilter(request, response);
+                break;
+            case EXPIRED:
+                response.sendError(HttpServletResponse.SC_GONE);
+                break;
+            default:
+                log.debug("secure link rejected: {} {}", result, uri);
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+        }
+    }
+
+}
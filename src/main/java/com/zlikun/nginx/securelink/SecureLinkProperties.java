@@ -0,0 +1,63 @@
+package com.zlikun.nginx.securelink;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 防盗链配置，前缀：nginx.secure-link，需与Nginx中 secure_link_md5 的配置保持一致
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 9:30
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.secure-link")
+public class SecureLinkProperties {
+
+    /**
+     * 签名用的盐
+     */
+    private String salt = "salt";
+
+    /**
+     * 链接有效期(秒)，默认：60
+     */
+    private long ttl = 60;
+
+    /**
+     * 过期时间桶大小(秒)，过期时间向上取整到桶的整数倍，同一桶内同一资源的链接不变，默认：0，即不分桶
+     */
+    private long bucket = 0;
+
+    /**
+     * 分桶链接的缓存槽位数，默认：4096，设为0时不缓存
+     */
+    private int linkCacheSize = 4096;
+
+    /**
+     * 需要校验防盗链的路径（Servlet URL映射格式），默认：/download/*，文件下载默认受保护；
+     * 只有在Nginx已经校验 secure_link 时才应显式配置为空，关闭应用内校验
+     */
+    private List<String> patterns = new ArrayList<>(Collections.singletonList("/download/*"));
+
+    /**
+     * 已校验签名的缓存槽位数，默认：4096，设为0时不缓存
+     */
+    private int cacheSize = 4096;
+
+    /**
+     * 是否开放批量签名接口（POST /secure-link/batch），该接口可为任意路径生成有效链接，只应在内网开放，默认：false
+     */
+    private boolean batchEnabled = false;
+
+    /**
+     * 批量签名的并行度，默认：0，即CPU核数
+     */
+    private int batchParallelism = 0;
+
+}
@@ -0,0 +1,218 @@
+package com.zlikun.nginx.securelink;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Nginx防盗链（secure_link模块）签名器，线程安全
+ * 签名规则与 SecureLinkTest 一致：Base64.encodeBase64URLSafeString(DigestUtils.md5(salt + uri + expire))，
+ * 对应Nginx配置：secure_link_md5 "salt$uri$arg_e"; 其中 $uri 不含查询串，生成链接时只对 '?' 之前的路径签名
+ * 每个线程复用自己的 MessageDigest 和字节缓冲，URI直接按UTF-8编码写入缓冲，
+ * 签名结果直接编码为URL安全的Base64字符，除最终返回的字符串外不产生中间对象
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 9:30
+ */
+public class SecureLinkSigner {
+
+    /**
+     * MD5摘要长度
+     */
+    static final int DIGEST_LENGTH = 16;
+
+    /**
+     * 16字节摘要按无填充Base64编码后的长度
+     */
+    public static final int TOKEN_LENGTH = 22;
+
+    private static final char[] URL_SAFE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private final byte[] salt;
+
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    public SecureLinkSigner(String salt) {
+        this.salt = salt.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 生成签名
+     *
+     * @param uri    资源URI，如：/nginx.tar.gz
+     * @param expire 过期时间（秒）
+     * @return 签名，即链接中的 st 参数
+     */
+    public String sign(CharSequence uri, long expire) {
+        State state = states.get();
+        state.digest(salt, uri, uri.length(), expire);
+        encode(state.digest, state.token, 0);
+        return new String(state.token, 0, TOKEN_LENGTH);
+    }
+
+    /**
+     * 生成签名并追加到 sb 中，不产生新的字符串
+     */
+    public void sign(CharSequence uri, long expire, StringBuilder sb) {
+        sign(uri, uri.length(), expire, sb);
+    }
+
+    /**
+     * 只对 uri 的前 end 个字符签名
+     */
+    private void sign(CharSequence uri, int end, long expire, StringBuilder sb) {
+        State state = states.get();
+        state.digest(salt, uri, end, expire);
+        encode(state.digest, state.token, 0);
+        sb.append(state.token, 0, TOKEN_LENGTH);
+    }
+
+    /**
+     * 计算签名对应的原始MD5摘要，写入 out 的前16个字节，供校验时使用
+     */
+    public void digest(CharSequence uri, long expire, byte[] out) {
+        State state = states.get();
+        state.digest(salt, uri, uri.length(), expire);
+        System.arraycopy(state.digest, 0, out, 0, DIGEST_LENGTH);
+    }
+
+    /**
+     * 生成完整链接，形如：/nginx.tar.gz?st=fRKSuqWCR0lJQwFwlK2Yow&e=1523686533
+     * uri 带查询串时保留查询串并追加参数，签名只覆盖路径部分，与Nginx的 $uri 一致
+     */
+    public String link(String uri, long expire) {
+        StringBuilder sb = new StringBuilder(uri.length() + TOKEN_LENGTH + 20);
+        appendLink(uri, expire, sb);
+        return sb.toString();
+    }
+
+    /**
+     * 将完整链接追加到 sb 中
+     */
+    public void appendLink(CharSequence uri, long expire, StringBuilder sb) {
+        int query = indexOf(uri, '?');
+        sb.append(uri).append(query < 0 ? "?st=" : "&st=");
+        sign(uri, query < 0 ? uri.length() : query, expire, sb);
+        sb.append("&e=").append(expire);
+    }
+
+    /**
+     * 将16字节摘要编码为22个URL安全的Base64字符（无填充）
+     */
+    static void encode(byte[] digest, char[] out, int offset) {
+        int i = 0, j = offset;
+        for (; i < 15; i += 3) {
+            int v = (digest[i] & 0xff) << 16 | (digest[i + 1] & 0xff) << 8 | (digest[i + 2] & 0xff);
+            out[j++] = URL_SAFE[v >>> 18];
+            out[j++] = URL_SAFE[(v >>> 12) & 0x3f];
+            out[j++] = URL_SAFE[(v >>> 6) & 0x3f];
+            out[j++] = URL_SAFE[v & 0x3f];
+        }
+        int v = digest[15] & 0xff;
+        out[j++] = URL_SAFE[v >>> 2];
+        out[j] = URL_SAFE[(v << 4) & 0x3f];
+    }
+
+    private static int indexOf(CharSequence s, char c) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 线程私有的摘要器和缓冲
+     */
+    private static final class State {
+
+        private final MessageDigest md5;
+        private byte[] input = new byte[256];
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final char[] token = new char[TOKEN_LENGTH];
+
+        State() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void digest(byte[] salt, CharSequence uri, int end, long expire) {
+            // 最坏情况下每个字符编码为3个字节，再加上long的最大长度
+            int capacity = salt.length + end * 3 + 20;
+            if (input.length < capacity) {
+                input = new byte[Math.max(capacity, input.length << 1)];
+            }
+            byte[] buf = input;
+            System.arraycopy(salt, 0, buf, 0, salt.length);
+            int n = encodeUtf8(uri, end, buf, salt.length);
+            n = encodeLong(expire, buf, n);
+            md5.update(buf, 0, n);
+            try {
+                md5.digest(digest, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 按UTF-8编码写入缓冲，非法的代理项按 String.getBytes(UTF_8) 的行为替换为 '?'
+         */
+        private static int encodeUtf8(CharSequence s, int len, byte[] buf, int pos) {
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[pos++] = (byte) (0xc0 | (c >> 6));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(c, s.charAt(++i));
+                        buf[pos++] = (byte) (0xf0 | (cp >> 18));
+                        buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                        buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                        buf[pos++] = (byte) (0x80 | (cp & 0x3f));
+                    } else {
+                        buf[pos++] = '?';
+                    }
+                } else {
+                    buf[pos++] = (byte) (0xe0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            return pos;
+        }
+
+        /**
+         * 按十进制ASCII写入缓冲，与字符串拼接 long 的结果一致
+         */
+        private static int encodeLong(long value, byte[] buf, int pos) {
+            if (value == Long.MIN_VALUE) {
+                byte[] min = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(min, 0, buf, pos, min.length);
+                return pos + min.length;
+            }
+            if (value < 0) {
+                buf[pos++] = '-';
+                value = -value;
+            }
+            int digits = 1;
+            for (long v = value; v >= 10; v /= 10) {
+                digits++;
+            }
+            for (int i = pos + digits - 1; i >= pos; i--) {
+                buf[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return pos + digits;
+        }
+
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.zlikun.nginx.securelink;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 防盗链校验器，规则与Nginx的secure_link模块一致，线程安全
+ * 1. 先校验过期时间，已过期的链接直接拒绝，不计算摘要
+ * 2. 签名按Base64解码后与重新计算的摘要做恒定时间比较，避免通过响应时间逐字节猜测签名
+ * 3. 校验通过的签名放入一个固定大小的直接映射缓存，热点下载重复访问时不必重新计算摘要，
+ *    缓存按槽位覆盖淘汰，命中时同样需要URI和过期时间一致
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 10:40
+ */
+public class SecureLinkVerifier {
+
+    public enum Result {
+
+        /**
+         * 校验通过
+         */
+        VALID,
+
+        /**
+         * 缺少 st 或 e 参数，或格式非法
+         */
+        MISSING,
+
+        /**
+         * 已过期
+         */
+        EXPIRED,
+
+        /**
+         * 签名不匹配
+         */
+        INVALID
+
+    }
+
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecureLinkSigner signer;
+    private final AtomicReferenceArray<Entry> cache;
+    private final int mask;
+
+    private final ThreadLocal<byte[][]> buffers = ThreadLocal.withInitial(() -> new byte[2][SecureLinkSigner.DIGEST_LENGTH]);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param signer    签名器
+     * @param cacheSize 缓存槽位数，会向上取整为2的幂，小于等于0时不缓存
+     */
+    public SecureLinkVerifier(SecureLinkSigner signer, int cacheSize) {
+        this.signer = signer;
+        int size = 1;
+        while (size < cacheSize) {
+            size <<= 1;
+        }
+        this.cache = cacheSize > 0 ? new AtomicReferenceArray<>(size) : null;
+        this.mask = size - 1;
+    }
+
+    /**
+     * 校验链接
+     *
+     * @param uri        资源URI（已解码，对应Nginx的 $uri）
+     * @param token      st 参数
+     * @param expireText e 参数
+     * @param now        当前时间（秒）
+     */
+    public Result verify(String uri, String token, String expireText, long now) {
+        long expire = parseExpire(expireText);
+        if (expire < 0 || token == null || token.length() != SecureLinkSigner.TOKEN_LENGTH) {
+            return Result.MISSING;
+        }
+        if (expire < now) {
+            return Result.EXPIRED;
+        }
+
+        int slot = cache != null ? token.hashCode() & mask : -1;
+        if (slot >= 0) {
+            Entry entry = cache.get(slot);
+            if (entry != null && entry.expire == expire && entry.uri.equals(uri) && constantTimeEquals(entry.token, token)) {
+                hits.increment();
+                return Result.VALID;
+            }
+            misses.increment();
+        }
+
+        byte[][] buffer = buffers.get();
+        byte[] actual = buffer[0];
+        byte[] expected = buffer[1];
+        if (!decode(token, actual)) {
+            return Result.MISSING;
+        }
+        signer.digest(uri, expire, expected);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return Result.INVALID;
+        }
+        if (slot >= 0) {
+            cache.set(slot, new Entry(token, uri, expire));
+        }
+        return Result.VALID;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 解析过期时间，只接受十进制非负整数
+     *
+     * @return 非法时返回-1
+     */
+    static long parseExpire(String text) {
+        if (text == null || text.isEmpty() || text.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 将22个URL安全的Base64字符解码为16字节
+     */
+    static boolean decode(String token, byte[] out) {
+        int bits = 0, buffer = 0, j = 0;
+        for (int i = 0; i < SecureLinkSigner.TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            int v = c < 128 ? DECODE[c] : -1;
+            if (v < 0) {
+                return false;
+            }
+            buffer = (buffer << 6) | v;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                out[j++] = (byte) (buffer >>> bits);
+            }
+        }
+        // 最后一个字符的低4位必须为0，否则不是规范编码
+        return (buffer & ((1 << bits) - 1)) == 0;
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < a.length(); i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
+    }
+
+    private static final class Entry {
+
+        final String token;
+        final String uri;
+        final long expire;
+
+        Entry(String token, String uri, long expire) {
+            this.token = token;
+            this.uri = uri;
+            this.expire = expire;
+        }
+
+    }
+
+}
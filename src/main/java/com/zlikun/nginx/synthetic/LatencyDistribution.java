@@ -0,0 +1,71 @@
+package com.zlikun.nginx.synthetic;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 延迟分布
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+public enum LatencyDistribution {
+
+    /**
+     * 固定延迟，忽略jitter
+     */
+    FIXED {
+        @Override
+        double sample(double latency, double jitter, ThreadLocalRandom random) {
+            return latency;
+        }
+    },
+
+    /**
+     * 均匀分布：[latency - jitter, latency + jitter]
+     */
+    UNIFORM {
+        @Override
+        double sample(double latency, double jitter, ThreadLocalRandom random) {
+            return latency - jitter + random.nextDouble() * 2 * jitter;
+        }
+    },
+
+    /**
+     * 指数分布，均值为latency，忽略jitter，长尾明显
+     */
+    EXPONENTIAL {
+        @Override
+        double sample(double latency, double jitter, ThreadLocalRandom random) {
+            return -latency * Math.log(1 - random.nextDouble());
+        }
+    },
+
+    /**
+     * 正态分布，均值为latency，标准差为jitter
+     */
+    NORMAL {
+        @Override
+        double sample(double latency, double jitter, ThreadLocalRandom random) {
+            return latency + random.nextGaussian() * jitter;
+        }
+    };
+
+    abstract double sample(double latency, double jitter, ThreadLocalRandom random);
+
+    /**
+     * 按分布取一个延迟值
+     *
+     * @param latency 平均延迟(ms)
+     * @param jitter  抖动(ms)
+     * @param max     上限(ms)
+     * @return 延迟(ms)，范围：[0, max]
+     */
+    public long next(long latency, long jitter, long max) {
+        if (latency <= 0 && jitter <= 0) {
+            return 0;
+        }
+        double value = sample(latency, jitter, ThreadLocalRandom.current());
+        return Math.max(0, Math.min(max, Math.round(value)));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.zlikun.nginx.synthetic;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 模拟上游配置，前缀：nginx.synthetic，作为请求参数未指定时的默认值
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "nginx.synthetic")
+public class SyntheticProperties {
+
+    /**
+     * 默认响应体大小(字节)
+     */
+    private long size = 1024;
+
+    /**
+     * 默认平均延迟(ms)
+     */
+    private long latency = 0;
+
+    /**
+     * 默认延迟抖动(ms)
+     */
+    private long jitter = 0;
+
+    /**
+     * 默认延迟分布
+     */
+    private LatencyDistribution distribution = LatencyDistribution.FIXED;
+
+    /**
+     * 默认错误率，范围：[0, 1]
+     */
+    private double errorRate = 0;
+
+    /**
+     * 默认错误状态码
+     */
+    private int errorStatus = 502;
+
+    /**
+     * 响应体大小上限(字节)，默认：1GB
+     */
+    private long maxSize = 1L << 30;
+
+    /**
+     * 单次延迟上限(ms)，默认：5分钟
+     */
+    private long maxLatency = 300_000;
+
+    /**
+     * 调度线程数，只负责延迟调度和慢速分块写出，默认：2
+     */
+    private int schedulerThreads = 2;
+
+}
@@ -0,0 +1,55 @@
+package com.zlikun.nginx.synthetic;
+
+import lombok.Data;
+
+/**
+ * 模拟上游请求参数，均为可选，未指定时使用 SyntheticProperties 中的默认值
+ * 示例：/synthetic?size=65536&latency=50&jitter=20&distribution=NORMAL&errorRate=0.01&dripBytes=1024&dripInterval=100
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+@Data
+public class SyntheticRequest {
+
+    /**
+     * 响应体大小(字节)
+     */
+    private Long size;
+
+    /**
+     * 平均延迟(ms)，在写出响应头之前等待
+     */
+    private Long latency;
+
+    /**
+     * 延迟抖动(ms)，UNIFORM下为半宽，NORMAL下为标准差
+     */
+    private Long jitter;
+
+    /**
+     * 延迟分布
+     */
+    private LatencyDistribution distribution;
+
+    /**
+     * 错误率，范围：[0, 1]
+     */
+    private Double errorRate;
+
+    /**
+     * 错误状态码
+     */
+    private Integer errorStatus;
+
+    /**
+     * 慢速写出时每块的字节数，大于0时开启慢速写出
+     */
+    private Integer dripBytes;
+
+    /**
+     * 慢速写出时两块之间的间隔(ms)
+     */
+    private Long dripInterval;
+
+}
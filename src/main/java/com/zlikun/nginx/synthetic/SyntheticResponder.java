@@ -0,0 +1,220 @@
+package com.zlikun.nginx.synthetic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模拟上游响应生成器，用于压测Nginx的 proxy_next_upstream、缓冲以及各类超时配置
+ * 响应体统一从共享的只读缓冲中写出，不按请求分配；
+ * 延迟和慢速写出通过Servlet异步+调度线程实现，等待期间不占用Tomcat工作线程，写出时再交回容器线程
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+@Slf4j
+@Component
+public class SyntheticResponder {
+
+    /**
+     * 共享响应体缓冲，内容为可打印字符，便于抓包时辨认
+     */
+    static final byte[] PAYLOAD = new byte[64 * 1024];
+
+    static {
+        byte[] pattern = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ\n".getBytes();
+        for (int i = 0; i < PAYLOAD.length; i++) {
+            PAYLOAD[i] = pattern[i % pattern.length];
+        }
+    }
+
+    private final SyntheticProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    public SyntheticResponder(SyntheticProperties properties) {
+        this.properties = properties;
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, properties.getSchedulerThreads()), r -> {
+            Thread thread = new Thread(r, "synthetic-scheduler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void respond(SyntheticRequest params, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Math.min(properties.getMaxSize(), Math.max(0, or(params.getSize(), properties.getSize())));
+        LatencyDistribution distribution = or(params.getDistribution(), properties.getDistribution());
+        long delay = distribution.next(or(params.getLatency(), properties.getLatency()),
+                or(params.getJitter(), properties.getJitter()), properties.getMaxLatency());
+        double errorRate = or(params.getErrorRate(), properties.getErrorRate());
+        int status = errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate
+                ? or(params.getErrorStatus(), properties.getErrorStatus()) : HttpServletResponse.SC_OK;
+        int dripBytes = or(params.getDripBytes(), 0);
+        long dripInterval = Math.min(properties.getMaxLatency(), Math.max(0, or(params.getDripInterval(), 0L)));
+
+        // 错误响应不带响应体
+        if (status != HttpServletResponse.SC_OK) {
+            size = 0;
+        }
+        boolean head = "HEAD".equals(request.getMethod());
+
+        if (delay == 0 && (dripBytes <= 0 || size == 0 || head)) {
+            writeHead(response, status, size);
+            if (!head) {
+                write(response.getOutputStream(), size);
+            }
+            return;
+        }
+
+        AsyncContext context = request.startAsync();
+        long chunks = dripBytes > 0 ? (size + dripBytes - 1) / dripBytes : 1;
+        // 异步超时覆盖整个延迟和慢速写出过程，另加30秒余量
+        context.setTimeout(delay + chunks * dripInterval + TimeUnit.SECONDS.toMillis(30));
+        Exchange exchange = new Exchange(context);
+        context.addListener(exchange);
+        final long total = size;
+        // 调度线程只负责计时，写出都交回容器线程，慢速读取的客户端不会阻塞其它请求的调度
+        scheduler.schedule(() -> exchange.start(() -> {
+            writeHead((HttpServletResponse) context.getResponse(), status, total);
+            if (head || total == 0) {
+                exchange.complete();
+            } else if (dripBytes > 0) {
+                drip(exchange, total, dripBytes, dripInterval);
+            } else {
+                write(context.getResponse().getOutputStream(), total);
+                exchange.complete();
+            }
+        }), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 慢速写出：每隔 interval 毫秒写出 bytes 字节并flush，直到写完 remaining 字节
+     */
+    private void drip(Exchange exchange, long remaining, int bytes, long interval) throws IOException {
+        int n = (int) Math.min(remaining, bytes);
+        ServletOutputStream out = exchange.context.getResponse().getOutputStream();
+        write(out, n);
+        out.flush();
+        if (remaining - n > 0) {
+            scheduler.schedule(() -> exchange.start(() -> drip(exchange, remaining - n, bytes, interval)),
+                    interval, TimeUnit.MILLISECONDS);
+        } else {
+            exchange.complete();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws IOException;
+    }
+
+    /**
+     * 单个异步请求的写出过程，超时或出错后不再写出，保证 complete() 只调用一次
+     */
+    private static class Exchange implements AsyncListener {
+
+        private final AsyncContext context;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Exchange(AsyncContext context) {
+            this.context = context;
+        }
+
+        /**
+         * 在容器线程中执行一步写出，失败时结束请求
+         */
+        void start(Step step) {
+            if (done.get()) {
+                return;
+            }
+            try {
+                context.start(() -> {
+                    if (done.get()) {
+                        return;
+                    }
+                    try {
+                        step.run();
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("write synthetic response failed: {}", e.getMessage());
+                        complete();
+                    }
+                });
+            } catch (IllegalStateException e) {
+                // 请求已超时或已结束
+                log.debug("synthetic response already completed: {}", e.getMessage());
+            }
+        }
+
+        void complete() {
+            if (done.compareAndSet(false, true)) {
+                try {
+                    context.complete();
+                } catch (IllegalStateException e) {
+                    log.debug("complete synthetic response failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.debug("synthetic response timed out");
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            done.set(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+    }
+
+    private static void writeHead(HttpServletResponse response, int status, long size) {
+        response.setStatus(status);
+        response.setContentType("application/octet-stream");
+        response.setContentLengthLong(size);
+    }
+
+    /**
+     * 从共享缓冲中循环写出指定字节数
+     */
+    static void write(ServletOutputStream out, long size) throws IOException {
+        while (size > 0) {
+            int n = (int) Math.min(size, PAYLOAD.length);
+            out.write(PAYLOAD, 0, n);
+            size -= n;
+        }
+    }
+
+    private static <T> T or(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+}
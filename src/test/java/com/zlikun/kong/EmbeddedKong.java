@@ -0,0 +1,918 @@
+package com.zlikun.kong;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内的Kong Admin API（0.13.x）替身，用于离线测试和基准测试，数据保存在内存中
+ * 1. 支持 services、routes、plugins、consumers、upstreams、targets、certificates、snis、apis 的增删改查，
+ *    及 /services/{service}/routes、/services/{service}/plugins、/routes/{route}/plugins、/consumers/{consumer}/plugins 等嵌套路径
+ * 2. 请求体支持JSON和表单（protocols[]=http、config.second=2、service.id=xxx），按0.13.x填充默认值
+ * 3. 与Kong一致的状态码：创建201、删除204、唯一键冲突409、外键不存在400、不存在404；
+ *    目标节点与0.13.x一样只能追加，再次提交同一地址时新记录覆盖旧记录
+ * 4. 分页：size 默认100、最大1000，offset 为不透明游标，返回 next、offset、total
+ * 5. 空数组按 lua-cjson 的方式输出为 {}
+ * 6. 可注入固定延迟和随机抖动，模拟网络往返，测试客户端的吞吐量和并发行为
+ * <pre>
+ * try (EmbeddedKong kong = new EmbeddedKong().start()) {
+ *     kong.setLatency(5, 2, TimeUnit.MILLISECONDS);
+ *     KongAdminClient client = new KongAdminClient(kong.getUrl());
+ * }
+ * </pre>
+ * 不校验插件配置和大部分字段格式，所有写操作串行执行
+ * JDK HttpServer 默认未开启 TCP_NODELAY，响应头和响应体分开写出时每个请求会多出约40ms（Nagle与延迟确认），
+ * 需要以 -Dsun.net.httpserver.nodelay=true 运行（Surefire、KongBase 及基准测试已配置），该参数对进程内所有 HttpServer 生效
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 10:00
+ */
+@Slf4j
+public class EmbeddedKong implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    /**
+     * 表单中总是作为字符串的字段，其他字段中的整数、布尔值按JSON类型保存
+     */
+    private static final Set<String> STRING_FIELDS = new HashSet<>(Arrays.asList(
+            "id", "name", "username", "custom_id", "host", "path", "target", "cert", "key", "upstream_url"));
+
+    private static final List<String> ENABLED_PLUGINS = Arrays.asList(
+            "response-transformer", "correlation-id", "statsd", "jwt", "cors", "basic-auth", "key-auth", "ldap-auth",
+            "http-log", "oauth2", "hmac-auth", "acl", "datadog", "tcp-log", "ip-restriction", "request-transformer",
+            "file-log", "bot-detection", "loggly", "request-size-limiting", "syslog", "udp-log", "response-ratelimiting",
+            "aws-lambda", "runscope", "rate-limiting", "request-termination");
+
+    private static final Map<String, Schema> SCHEMAS = new LinkedHashMap<>();
+
+    static {
+        schema("services", "name", true)
+                .required("host")
+                .unique("name")
+                .defaults("{\"protocol\":\"http\",\"port\":80,\"retries\":5,\"connect_timeout\":60000," +
+                        "\"write_timeout\":60000,\"read_timeout\":60000}");
+        schema("routes", null, true)
+                .requireAny("methods", "hosts", "paths")
+                .arrays("protocols", "methods", "hosts", "paths")
+                .reference("service.id", "services")
+                .defaults("{\"protocols\":[\"http\",\"https\"],\"strip_path\":true,\"preserve_host\":false,\"regex_priority\":0}");
+        schema("consumers", "username", false)
+                .requireAny("username", "custom_id")
+                .unique("username")
+                .unique("custom_id");
+        schema("plugins", null, false)
+                .required("name")
+                .unique("name", "api_id", "service_id", "route_id", "consumer_id")
+                .reference("service_id", "services")
+                .reference("route_id", "routes")
+                .reference("consumer_id", "consumers")
+                .reference("api_id", "apis")
+                .defaults("{\"enabled\":true,\"config\":{}}");
+        schema("upstreams", "name", false)
+                .required("name")
+                .unique("name")
+                .defaults("{\"slots\":1000,\"hash_on\":\"none\",\"hash_fallback\":\"none\"}");
+        schema("targets", "target", false)
+                .required("target", "upstream_id")
+                .reference("upstream_id", "upstreams")
+                .defaults("{\"weight\":100}");
+        schema("certificates", null, false)
+                .required("cert", "key")
+                .arrays("snis");
+        schema("snis", "name", false)
+                .required("name", "ssl_certificate_id")
+                .unique("name")
+                .reference("ssl_certificate_id", "certificates");
+        schema("apis", "name", false)
+                .required("name", "upstream_url")
+                .requireAny("hosts", "uris", "methods")
+                .arrays("hosts", "uris", "methods")
+                .unique("name")
+                .defaults("{\"retries\":5,\"strip_uri\":true,\"preserve_host\":false,\"https_only\":false," +
+                        "\"http_if_terminated\":false,\"upstream_connect_timeout\":60000," +
+                        "\"upstream_send_timeout\":60000,\"upstream_read_timeout\":60000}");
+    }
+
+    /**
+     * 嵌套路径：父资源/子资源 → 子资源中引用父资源的字段
+     */
+    private static final Map<String, String> NESTED = new HashMap<>();
+
+    static {
+        NESTED.put("services/routes", "service.id");
+        NESTED.put("services/plugins", "service_id");
+        NESTED.put("routes/plugins", "route_id");
+        NESTED.put("consumers/plugins", "consumer_id");
+        NESTED.put("apis/plugins", "api_id");
+        NESTED.put("upstreams/targets", "upstream_id");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, TreeMap<String, ObjectNode>> tables = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder requests = new LongAdder();
+
+    private volatile long latencyNanos;
+    private volatile long jitterNanos;
+
+    /**
+     * 监听127.0.0.1的随机端口，16个处理线程
+     */
+    public EmbeddedKong() throws IOException {
+        this(0, 16);
+    }
+
+    /**
+     * @param port    监听端口，0为随机端口
+     * @param threads 处理线程数，注入延迟时决定了替身的最大并发数
+     */
+    public EmbeddedKong(int port, int threads) throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "embedded-kong-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        for (String table : SCHEMAS.keySet()) {
+            tables.put(table, new TreeMap<>());
+        }
+    }
+
+    public EmbeddedKong start() {
+        server.start();
+        log.info("embedded kong admin listening on {}", getUrl());
+        return this;
+    }
+
+    /**
+     * Admin API地址，如：http://127.0.0.1:51234
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 每个请求在处理前等待 latency + [0, jitter) 的时间
+     */
+    public void setLatency(long latency, long jitter, TimeUnit unit) {
+        this.latencyNanos = unit.toNanos(latency);
+        this.jitterNanos = unit.toNanos(jitter);
+    }
+
+    /**
+     * 已处理的请求数
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * 某类资源的数量，如：services、targets
+     */
+    public int count(String table) {
+        lock.readLock().lock();
+        try {
+            return tables.get(table).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 清空所有数据
+     */
+    public void reset() {
+        lock.writeLock().lock();
+        try {
+            tables.values().forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        Response response;
+        try {
+            delay();
+            response = dispatch(exchange.getRequestMethod(), exchange.getRequestURI(),
+                    exchange.getRequestHeaders().getFirst("Content-Type"), exchange.getRequestBody());
+        } catch (ApiError e) {
+            response = new Response(e.status, e.body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(500, message("An unexpected error occurred"));
+        } catch (RuntimeException e) {
+            log.error("{} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = new Response(500, message("An unexpected error occurred"));
+        }
+        exchange.getResponseHeaders().set("Server", "kong/0.13.1");
+        try {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+                return;
+            }
+            byte[] bytes = MAPPER.writeValueAsBytes(cjson(response.body));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long nanos = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private Response dispatch(String method, URI uri, String contentType, InputStream in) throws IOException {
+        List<String> segments = new ArrayList<>();
+        for (String segment : uri.getRawPath().split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, "UTF-8"));
+            }
+        }
+        Map<String, String> query = query(uri.getRawQuery());
+        if (segments.isEmpty() && "GET".equals(method)) {
+            ObjectNode node = NODES.objectNode().put("version", "0.13.1").put("tagline", "Welcome to kong");
+            node.putArray("plugins").addAll(Collections.emptyList());
+            return new Response(200, node);
+        }
+        if (segments.size() >= 2 && "plugins".equals(segments.get(0)) && "GET".equals(method)) {
+            if (segments.size() == 2 && "enabled".equals(segments.get(1))) {
+                ObjectNode node = NODES.objectNode();
+                ENABLED_PLUGINS.forEach(node.putArray("enabled_plugins")::add);
+                return new Response(200, node);
+            }
+            if (segments.size() == 3 && "schema".equals(segments.get(1))) {
+                if (!ENABLED_PLUGINS.contains(segments.get(2))) {
+                    throw new ApiError(404, message("No plugin named '" + segments.get(2) + "'"));
+                }
+                ObjectNode node = NODES.objectNode();
+                node.putObject("fields");
+                return new Response(200, node);
+            }
+        }
+        if (segments.isEmpty() || !SCHEMAS.containsKey(segments.get(0)) || "targets".equals(segments.get(0))) {
+            throw notFound();
+        }
+        String table = segments.get(0);
+        String parentField = null;
+        String parentId = null;
+        if (segments.size() > 4) {
+            throw notFound();
+        }
+        if (segments.size() >= 3) {
+            // 嵌套路径，如：/services/{service}/routes[/{route}]
+            parentField = NESTED.get(table + "/" + segments.get(2));
+            if (parentField == null) {
+                throw notFound();
+            }
+            parentId = read(() -> id(find(table, segments.get(1), null, null)));
+            if (parentId == null) {
+                throw notFound();
+            }
+            String child = segments.get(2);
+            segments.subList(0, 3).clear();
+            segments.add(0, child);
+            return collection(method, child, segments.size() > 1 ? segments.get(1) : null, parentField, parentId,
+                    query, uri, () -> body(contentType, in));
+        }
+        return collection(method, table, segments.size() > 1 ? segments.get(1) : null, null, null,
+                query, uri, () -> body(contentType, in));
+    }
+
+    private Response collection(String method, String table, String idOrName, String parentField, String parentId,
+                                Map<String, String> query, URI uri, Body body) throws IOException {
+        if (idOrName == null) {
+            switch (method) {
+                case "GET":
+                    Map<String, String> filters = new HashMap<>(query);
+                    if (parentField != null) {
+                        filters.put(parentField, parentId);
+                    }
+                    return read(() -> list(table, filters, uri));
+                case "POST":
+                    ObjectNode entity = scoped(body.read(), parentField, parentId);
+                    return write(() -> create(table, entity, false));
+                case "PUT":
+                    ObjectNode upsert = scoped(body.read(), parentField, parentId);
+                    return write(() -> create(table, upsert, true));
+                default:
+                    throw new ApiError(405, message("Method not allowed"));
+            }
+        }
+        switch (method) {
+            case "GET":
+                return read(() -> new Response(200, owned(find(table, idOrName, parentField, parentId), parentField, parentId)));
+            case "PATCH":
+                ObjectNode patch = body.read();
+                return write(() -> new Response(200, update(table, owned(find(table, idOrName, parentField, parentId), parentField, parentId), patch)));
+            case "DELETE":
+                return write(() -> {
+                    delete(table, owned(find(table, idOrName, parentField, parentId), parentField, parentId));
+                    return new Response(204, null);
+                });
+            default:
+                throw new ApiError(405, message("Method not allowed"));
+        }
+    }
+
+    private Response list(String table, Map<String, String> query, URI uri) {
+        int size = 100;
+        if (query.containsKey("size")) {
+            try {
+                size = Integer.parseInt(query.get("size"));
+            } catch (NumberFormatException e) {
+                size = -1;
+            }
+            if (size < 1 || size > 1000) {
+                throw new ApiError(400, NODES.objectNode().put("size", "must be a number between 1 and 1000"));
+            }
+        }
+        String from = null;
+        if (query.containsKey("offset")) {
+            try {
+                from = new String(Base64.getUrlDecoder().decode(query.get("offset")), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new ApiError(400, message("offset is not a valid cursor"));
+            }
+        }
+        Map<String, String> filters = new HashMap<>(query);
+        filters.remove("size");
+        filters.remove("offset");
+        TreeMap<String, ObjectNode> rows = tables.get(table);
+        List<ObjectNode> matched = new ArrayList<>();
+        for (ObjectNode row : rows.values()) {
+            if (matches(row, filters)) {
+                matched.add(row);
+            }
+        }
+        ObjectNode page = NODES.objectNode();
+        ArrayNode data = page.putArray("data");
+        String next = null;
+        for (ObjectNode row : matched) {
+            if (from != null && id(row).compareTo(from) < 0) {
+                continue;
+            }
+            if (data.size() == size) {
+                next = id(row);
+                break;
+            }
+            data.add(row.deepCopy());
+        }
+        page.put("total", matched.size());
+        if (next == null) {
+            page.putNull("next");
+        } else {
+            String offset = Base64.getUrlEncoder().withoutPadding().encodeToString(next.getBytes(StandardCharsets.UTF_8));
+            page.put("next", getUrl() + uri.getRawPath() + "?offset=" + offset + "&size=" + size);
+            page.put("offset", offset);
+        }
+        return new Response(200, page);
+    }
+
+    private Response create(String table, ObjectNode entity, boolean upsert) {
+        Schema schema = SCHEMAS.get(table);
+        String id = entity.path("id").asText(null);
+        ObjectNode existing = id == null ? null : tables.get(table).get(id);
+        if (id != null && !upsert) {
+            throw new ApiError(400, NODES.objectNode().put("id", "cannot be set on creation"));
+        }
+        ObjectNode row = schema.defaults.deepCopy();
+        row.setAll(entity);
+        normalize(table, row);
+        validate(table, row, existing);
+        if ("targets".equals(table)) {
+            // 目标节点只能追加，同一地址的新记录覆盖旧记录（如：修改权重）
+            tables.get(table).values().removeIf(t -> Objects.equals(text(t, "upstream_id"), text(row, "upstream_id"))
+                    && Objects.equals(text(t, "target"), text(row, "target")));
+        }
+        long now = System.currentTimeMillis();
+        row.put("id", id != null ? id : UUID.randomUUID().toString());
+        row.put("created_at", existing != null ? existing.get("created_at").asLong() : schema.time(now));
+        if (schema.seconds) {
+            row.put("updated_at", schema.time(now));
+        }
+        tables.get(table).put(id(row), row);
+        return new Response(existing != null ? 200 : 201, row.deepCopy());
+    }
+
+    private ObjectNode update(String table, ObjectNode existing, ObjectNode patch) {
+        Schema schema = SCHEMAS.get(table);
+        ObjectNode row = existing.deepCopy();
+        patch.remove("id");
+        patch.remove("created_at");
+        patch.fields().forEachRemaining(field -> {
+            JsonNode current = row.get(field.getKey());
+            if ("config".equals(field.getKey()) && current != null && current.isObject() && field.getValue().isObject()) {
+                ((ObjectNode) current).setAll((ObjectNode) field.getValue());
+            } else {
+                row.set(field.getKey(), field.getValue());
+            }
+        });
+        normalize(table, row);
+        validate(table, row, existing);
+        if (schema.seconds) {
+            row.put("updated_at", schema.time(System.currentTimeMillis()));
+        }
+        tables.get(table).put(id(row), row);
+        return row.deepCopy();
+    }
+
+    private void delete(String table, ObjectNode row) {
+        String id = id(row);
+        for (Map.Entry<String, Schema> entry : SCHEMAS.entrySet()) {
+            for (Map.Entry<String, String> reference : entry.getValue().references.entrySet()) {
+                if (!reference.getValue().equals(table)) {
+                    continue;
+                }
+                Collection<ObjectNode> rows = tables.get(entry.getKey()).values();
+                if ("routes".equals(entry.getKey())) {
+                    // 路由引用的服务不能删除，与0.13.x的外键约束一致
+                    if (rows.stream().anyMatch(r -> id.equals(text(r, reference.getKey())))) {
+                        throw new ApiError(400, message("an existing 'routes' entity references this 'services' entity"));
+                    }
+                } else {
+                    rows.removeIf(r -> id.equals(text(r, reference.getKey())));
+                }
+            }
+        }
+        tables.get(table).remove(id);
+    }
+
+    /**
+     * 整理字段：逗号分隔的字符串转为数组，service的url拆分为protocol、host、port、path，target补全默认端口8000
+     */
+    private void normalize(String table, ObjectNode row) {
+        for (String field : SCHEMAS.get(table).arrays) {
+            JsonNode value = row.get(field);
+            if (value != null && value.isTextual()) {
+                ArrayNode array = row.putArray(field);
+                for (String item : value.asText().split(",")) {
+                    array.add(item.trim());
+                }
+            }
+        }
+        if ("services".equals(table) && row.hasNonNull("url")) {
+            URI url = URI.create(row.remove("url").asText());
+            row.put("protocol", url.getScheme());
+            row.put("host", url.getHost());
+            row.put("port", url.getPort() > 0 ? url.getPort() : "https".equals(url.getScheme()) ? 443 : 80);
+            if (url.getRawPath() != null && !url.getRawPath().isEmpty()) {
+                row.put("path", url.getRawPath());
+            }
+        }
+        if ("targets".equals(table) && row.hasNonNull("target") && row.get("target").asText().indexOf(':') < 0) {
+            row.put("target", row.get("target").asText() + ":8000");
+        }
+    }
+
+    private void validate(String table, ObjectNode row, ObjectNode existing) {
+        Schema schema = SCHEMAS.get(table);
+        ObjectNode errors = NODES.objectNode();
+        for (String field : schema.required) {
+            if (text(row, field) == null) {
+                errors.put(field, field + " is required");
+            }
+        }
+        if (!schema.requireAny.isEmpty() && schema.requireAny.stream().allMatch(f -> empty(row.get(f)))) {
+            errors.put("@entity", "at least one of these fields must be non-empty: '" + String.join("', '", schema.requireAny) + "'");
+        }
+        if (errors.size() > 0) {
+            throw new ApiError(400, errors);
+        }
+        for (Map.Entry<String, String> reference : schema.references.entrySet()) {
+            String value = text(row, reference.getKey());
+            if (value != null && !tables.get(reference.getValue()).containsKey(value)) {
+                String field = reference.getKey().split("\\.")[0];
+                throw new ApiError(400, NODES.objectNode().put(field,
+                        "the foreign key '{id=\"" + value + "\"}' does not reference an existing '" + reference.getValue() + "' entity."));
+            }
+        }
+        String self = existing == null ? null : id(existing);
+        for (List<String> unique : schema.unique) {
+            if (unique.size() == 1 && text(row, unique.get(0)) == null) {
+                continue;
+            }
+            for (ObjectNode other : tables.get(table).values()) {
+                if (id(other).equals(self)) {
+                    continue;
+                }
+                if (unique.stream().allMatch(f -> Objects.equals(text(row, f), text(other, f)))) {
+                    throw new ApiError(409, NODES.objectNode().put(unique.get(0),
+                            "already exists with value '" + text(row, unique.get(0)) + "'"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按ID或名称查询，嵌套路径下只在父资源范围内按名称查询（如：不同上游中的同名目标节点）
+     */
+    private ObjectNode find(String table, String idOrName, String parentField, String parentId) {
+        TreeMap<String, ObjectNode> rows = tables.get(table);
+        ObjectNode row = rows.get(idOrName);
+        String nameField = SCHEMAS.get(table).nameField;
+        if (row == null && nameField != null) {
+            for (ObjectNode candidate : rows.values()) {
+                if (idOrName.equals(text(candidate, nameField))
+                        && (parentField == null || parentId.equals(text(candidate, parentField)))) {
+                    return candidate;
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 嵌套路径下只能访问属于父资源的实体
+     */
+    private static ObjectNode owned(ObjectNode row, String parentField, String parentId) {
+        if (row == null || (parentField != null && !parentId.equals(text(row, parentField)))) {
+            throw notFound();
+        }
+        return row;
+    }
+
+    private static ObjectNode scoped(ObjectNode entity, String parentField, String parentId) {
+        if (parentField != null) {
+            set(entity, parentField, parentId);
+        }
+        return entity;
+    }
+
+    private static boolean matches(ObjectNode row, Map<String, String> filters) {
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            if (!filter.getValue().equals(text(row, filter.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按点号分隔的路径取字段的文本值，如：service.id
+     */
+    private static String text(JsonNode node, String path) {
+        for (String name : path.split("\\.")) {
+            node = node == null ? null : node.get(name);
+        }
+        return node == null || node.isNull() || node.isContainerNode() || node.asText().isEmpty() ? null : node.asText();
+    }
+
+    private static void set(ObjectNode node, String path, String value) {
+        String[] names = path.split("\\.");
+        for (int i = 0; i < names.length - 1; i++) {
+            JsonNode child = node.get(names[i]);
+            node = child instanceof ObjectNode ? (ObjectNode) child : node.putObject(names[i]);
+        }
+        node.put(names[names.length - 1], value);
+    }
+
+    private static String id(ObjectNode row) {
+        return row == null ? null : row.get("id").asText();
+    }
+
+    private static boolean empty(JsonNode node) {
+        return node == null || node.isNull() || (node.isContainerNode() && node.size() == 0)
+                || (node.isTextual() && node.asText().isEmpty());
+    }
+
+    private <R> R read(Action<R> action) throws IOException {
+        lock.readLock().lock();
+        try {
+            return action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <R> R write(Action<R> action) throws IOException {
+        lock.writeLock().lock();
+        try {
+            return action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 解析请求体：JSON或表单，表单中 xxx[] 为数组、a.b 为嵌套对象、空值忽略
+     */
+    private static ObjectNode body(String contentType, InputStream in) throws IOException {
+        byte[] bytes = readAll(in);
+        if (bytes.length == 0) {
+            return NODES.objectNode();
+        }
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            return form(new String(bytes, StandardCharsets.UTF_8));
+        }
+        try {
+            JsonNode node = MAPPER.readTree(bytes);
+            if (!(node instanceof ObjectNode)) {
+                throw new ApiError(400, message("Cannot parse JSON body"));
+            }
+            return (ObjectNode) node;
+        } catch (JsonProcessingException e) {
+            throw new ApiError(400, message("Cannot parse JSON body"));
+        }
+    }
+
+    static ObjectNode form(String text) throws IOException {
+        ObjectNode node = NODES.objectNode();
+        for (String pair : text.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = URLDecoder.decode(pair.substring(0, eq), "UTF-8");
+            String value = URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            if (value.isEmpty()) {
+                continue;
+            }
+            boolean array = key.endsWith("[]");
+            if (array) {
+                key = key.substring(0, key.length() - 2);
+            }
+            String[] names = key.split("\\.");
+            ObjectNode parent = node;
+            for (int i = 0; i < names.length - 1; i++) {
+                JsonNode child = parent.get(names[i]);
+                parent = child instanceof ObjectNode ? (ObjectNode) child : parent.putObject(names[i]);
+            }
+            String name = names[names.length - 1];
+            JsonNode scalar = STRING_FIELDS.contains(name) ? NODES.textNode(value) : scalar(value);
+            if (array) {
+                JsonNode current = parent.get(name);
+                (current instanceof ArrayNode ? (ArrayNode) current : parent.putArray(name)).add(scalar);
+            } else {
+                parent.set(name, scalar);
+            }
+        }
+        return node;
+    }
+
+    private static JsonNode scalar(String value) {
+        if ("true".equals(value) || "false".equals(value)) {
+            return NODES.booleanNode(Boolean.parseBoolean(value));
+        }
+        if (value.matches("-?\\d{1,15}")) {
+            return NODES.numberNode(Long.parseLong(value));
+        }
+        return NODES.textNode(value);
+    }
+
+    /**
+     * 按 lua-cjson 的方式输出：空数组编码为 {}
+     */
+    private static JsonNode cjson(JsonNode node) {
+        if (node.isArray() && node.size() == 0) {
+            return NODES.objectNode();
+        }
+        if (node.isContainerNode()) {
+            JsonNode copy = node.deepCopy();
+            if (copy.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = copy.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    field.setValue(cjson(field.getValue()));
+                }
+            } else {
+                ArrayNode array = (ArrayNode) copy;
+                for (int i = 0; i < array.size(); i++) {
+                    array.set(i, cjson(array.get(i)));
+                }
+            }
+            return copy;
+        }
+        return node;
+    }
+
+    private static Map<String, String> query(String raw) throws IOException {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static ObjectNode message(String message) {
+        return NODES.objectNode().put("message", message);
+    }
+
+    private static ApiError notFound() {
+        return new ApiError(404, message("Not found"));
+    }
+
+    private static Schema schema(String table, String nameField, boolean seconds) {
+        Schema schema = new Schema(nameField, seconds);
+        SCHEMAS.put(table, schema);
+        return schema;
+    }
+
+    /**
+     * 命令行启动：--port=8001 [--threads=16] [--latency=5] [--jitter=0]（毫秒）
+     */
+    public static void main(String[] args) throws IOException {
+        // 独立进程中只有替身一个 HttpServer，可以直接开启
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq < 0 ? arg.length() : eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        EmbeddedKong kong = new EmbeddedKong(Integer.parseInt(options.getOrDefault("port", "8001")),
+                Integer.parseInt(options.getOrDefault("threads", "16")));
+        kong.setLatency(Long.parseLong(options.getOrDefault("latency", "0")),
+                Long.parseLong(options.getOrDefault("jitter", "0")), TimeUnit.MILLISECONDS);
+        kong.start();
+    }
+
+    /**
+     * 资源定义
+     */
+    private static final class Schema {
+
+        /**
+         * 除ID外可用于查询的字段，如：services的name、consumers的username
+         */
+        final String nameField;
+
+        /**
+         * created_at、updated_at 为秒（services、routes），其他资源只有 created_at 且为毫秒
+         */
+        final boolean seconds;
+
+        final List<String> required = new ArrayList<>();
+        final List<String> requireAny = new ArrayList<>();
+        final List<List<String>> unique = new ArrayList<>();
+        final Set<String> arrays = new HashSet<>();
+
+        /**
+         * 引用字段 → 被引用的资源
+         */
+        final Map<String, String> references = new LinkedHashMap<>();
+
+        ObjectNode defaults = NODES.objectNode();
+
+        Schema(String nameField, boolean seconds) {
+            this.nameField = nameField;
+            this.seconds = seconds;
+        }
+
+        long time(long millis) {
+            return seconds ? millis / 1000 : millis;
+        }
+
+        Schema required(String... fields) {
+            required.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        Schema requireAny(String... fields) {
+            requireAny.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        Schema unique(String... fields) {
+            unique.add(Arrays.asList(fields));
+            return this;
+        }
+
+        Schema arrays(String... fields) {
+            arrays.addAll(Arrays.asList(fields));
+            return this;
+        }
+
+        Schema reference(String field, String table) {
+            references.put(field, table);
+            return this;
+        }
+
+        Schema defaults(String json) {
+            try {
+                defaults = (ObjectNode) MAPPER.readTree(json);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+
+    }
+
+    private static final class Response {
+
+        final int status;
+        final JsonNode body;
+
+        Response(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+    }
+
+    /**
+     * 以指定状态码和响应体结束请求
+     */
+    private static final class ApiError extends RuntimeException {
+
+        final int status;
+        final JsonNode body;
+
+        ApiError(int status, JsonNode body) {
+            super(body.toString(), null, false, false);
+            this.status = status;
+            this.body = body;
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface Action<R> {
+
+        R run() throws IOException;
+
+    }
+
+    @FunctionalInterface
+    private interface Body {
+
+        ObjectNode read() throws IOException;
+
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.zlikun.kong;
+
+import com.zlikun.kong.entity.Consumer;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Reference;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import okhttp3.FormBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 进程内Admin API替身测试，通过 KongAdminClient 和 KongBase 子类中的表单请求访问
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 10:00
+ */
+public class EmbeddedKongTest {
+
+    private EmbeddedKong server;
+    private KongAdminClient kong;
+
+    @Before
+    public void start() throws IOException {
+        server = new EmbeddedKong().start();
+        kong = new KongAdminClient(server.getUrl());
+    }
+
+    @After
+    public void stop() {
+        server.close();
+    }
+
+    @Test
+    public void services() throws IOException {
+        Service service = new Service();
+        service.setName("service_users");
+        service.setUrl("http://api.zlikun.com/users");
+        service.setRetries(3);
+        Service created = kong.services().create(service);
+        assertNotNull(created.getId());
+        assertEquals("api.zlikun.com", created.getHost());
+        assertEquals("/users", created.getPath());
+        assertEquals(Integer.valueOf(80), created.getPort());
+        assertEquals(Integer.valueOf(60000), created.getReadTimeout());
+        assertEquals(created.getCreatedAt(), created.getUpdatedAt());
+
+        try {
+            kong.services().create(service);
+            fail();
+        } catch (KongException e) {
+            assertTrue(e.isConflict());
+            assertEquals("{\"name\":\"already exists with value 'service_users'\"}", e.getBody());
+        }
+
+        Service patch = new Service();
+        patch.setRetries(2);
+        assertEquals(Integer.valueOf(2), kong.services().update("service_users", patch).getRetries());
+        assertEquals(created.getId(), kong.services().retrieve("service_users").getId());
+        assertEquals("service_users", kong.services().retrieve(created.getId()).getName());
+
+        assertTrue(kong.services().delete("service_users"));
+        assertFalse(kong.services().delete("service_users"));
+        assertNull(kong.services().retrieve("service_users"));
+    }
+
+    @Test
+    public void pagination() throws IOException {
+        for (int i = 0; i < 250; i++) {
+            Consumer consumer = new Consumer();
+            consumer.setUsername("consumer_" + i);
+            kong.consumers().create(consumer);
+        }
+        Page<Consumer> first = kong.consumers().list(100, null);
+        assertEquals(100, first.getData().size());
+        assertEquals(Long.valueOf(250), first.getTotal());
+        assertNotNull(first.nextOffset());
+        Page<Consumer> second = kong.consumers().list(100, first.nextOffset());
+        assertFalse(first.getData().contains(second.getData().get(0)));
+
+        try (PageIterator<Consumer> iterator = kong.consumers().iterator()) {
+            List<String> names = new ArrayList<>();
+            iterator.forEachRemaining(c -> names.add(c.getUsername()));
+            assertEquals(250, names.stream().distinct().count());
+        }
+        try (Stream<Consumer> stream = kong.consumers().stream()) {
+            assertEquals(250, stream.count());
+        }
+        assertEquals(1, kong.consumers().listAsync(Collections.singletonMap("username", "consumer_7"), 10, null)
+                .join().getData().size());
+
+        try {
+            kong.consumers().list(100, "not a cursor");
+            fail();
+        } catch (KongException e) {
+            assertEquals(400, e.getStatus());
+        }
+    }
+
+    @Test
+    public void form() throws IOException {
+        Service service = new Service();
+        service.setName("service_users");
+        service.setHost("api.zlikun.com");
+        String serviceId = kong.services().create(service).getId();
+
+        // 与 RouteTest.add 相同的表单请求
+        FormBody body = new FormBody.Builder()
+                .add("protocols[]", "http")
+                .add("protocols[]", "https")
+                .add("methods[]", "GET")
+                .add("methods[]", "POST")
+                .add("hosts[]", "api.zlikun.com")
+                .add("paths[]", "/users")
+                .add("strip_path", "true")
+                .add("service.id", serviceId)
+                .build();
+        try (Response response = KongAdminClient.sharedHttpClient().newCall(new Request.Builder()
+                .url(server.getUrl() + "/routes/").post(body).build()).execute()) {
+            assertEquals(201, response.code());
+        }
+        Route route = kong.routes().listByService("service_users", 100, null).getData().get(0);
+        assertEquals(Arrays.asList("GET", "POST"), route.getMethods());
+        assertEquals(Boolean.TRUE, route.getStripPath());
+        assertEquals(Boolean.FALSE, route.getPreserveHost());
+
+        // 空数组输出为 {}，客户端解析为空集合
+        try (Response response = KongAdminClient.sharedHttpClient().newCall(new Request.Builder()
+                .url(server.getUrl() + "/routes/" + route.getId())
+                .patch(RequestBody.create(KongAdminClient.JSON, "{\"methods\":[]}")).build()).execute()) {
+            assertTrue(response.body().string().contains("\"methods\":{}"));
+        }
+        assertTrue(kong.routes().retrieve(route.getId()).getMethods().isEmpty());
+
+        // 外键约束
+        Route orphan = new Route();
+        orphan.setPaths(Collections.singletonList("/orders"));
+        orphan.setService(new Reference("missing"));
+        try {
+            kong.routes().create(orphan);
+            fail();
+        } catch (KongException e) {
+            assertEquals(400, e.getStatus());
+        }
+        try {
+            kong.services().delete("service_users");
+            fail();
+        } catch (KongException e) {
+            assertEquals(400, e.getStatus());
+        }
+    }
+
+    @Test
+    public void plugins() throws IOException {
+        Consumer consumer = new Consumer();
+        consumer.setUsername("consumer_zlikun");
+        String consumerId = kong.consumers().create(consumer).getId();
+
+        FormBody body = new FormBody.Builder()
+                .add("name", "rate-limiting")
+                .add("consumer_id", consumerId)
+                .add("config.second", "2")
+                .add("config.minute", "5")
+                .build();
+        try (Response response = KongAdminClient.sharedHttpClient().newCall(new Request.Builder()
+                .url(server.getUrl() + "/plugins/").post(body).build()).execute()) {
+            assertEquals(201, response.code());
+        }
+        try (Response response = KongAdminClient.sharedHttpClient().newCall(new Request.Builder()
+                .url(server.getUrl() + "/plugins/").post(body).build()).execute()) {
+            assertEquals(409, response.code());
+        }
+        Plugin plugin = kong.plugins().listByConsumer(consumerId, 10, null).getData().get(0);
+        assertEquals(5, ((Number) plugin.getConfig().get("minute")).intValue());
+        assertEquals(Boolean.TRUE, plugin.getEnabled());
+
+        Plugin patch = new Plugin();
+        patch.setConfig(Collections.singletonMap("second", 3));
+        Plugin updated = kong.plugins().update(plugin.getId(), patch);
+        assertEquals(3, ((Number) updated.getConfig().get("second")).intValue());
+        assertEquals(5, ((Number) updated.getConfig().get("minute")).intValue());
+
+        assertTrue(kong.plugins().enabled().contains("rate-limiting"));
+
+        // 删除消费者时删除其插件
+        kong.consumers().delete("consumer_zlikun");
+        assertEquals(0, server.count("plugins"));
+    }
+
+    @Test
+    public void targets() throws IOException {
+        Upstream upstream = new Upstream();
+        upstream.setName("api.zlikun.com");
+        kong.upstreams().create(upstream);
+        // 同一个上游共用一个实例，监听器能收到之后每次 targets(upstream) 调用的写入
+        List<String> written = new ArrayList<>();
+        kong.targets("api.zlikun.com").addListener((idOrName, entity) -> written.add(idOrName));
+        Target target = new Target();
+        target.setTarget("192.168.0.104");
+        assertEquals("192.168.0.104:8000", kong.targets("api.zlikun.com").create(target).getTarget());
+        target.setWeight(50);
+        kong.targets("api.zlikun.com").create(target);
+        List<Target> targets = kong.targets("api.zlikun.com").list(100, null).getData();
+        assertEquals(1, targets.size());
+        assertEquals(Integer.valueOf(50), targets.get(0).getWeight());
+        assertTrue(kong.targets("api.zlikun.com").delete("192.168.0.104:8000"));
+        assertEquals(0, server.count("targets"));
+        assertEquals(Arrays.asList(null, null, "192.168.0.104:8000"), written);
+    }
+
+    @Test
+    public void latency() throws IOException {
+        server.setLatency(100, 0, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        List<CompletableFuture<Service>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(kong.services().retrieveAsync("service_" + i));
+        }
+        Futures.get(Futures.all(futures));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("elapsed: " + elapsed, elapsed >= 100 && elapsed < 800);
+        assertEquals(8, server.getRequests());
+    }
+
+}
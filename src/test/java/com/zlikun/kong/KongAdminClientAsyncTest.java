@@ -0,0 +1,165 @@
+package com.zlikun.kong;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.kong.entity.Service;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 异步接口测试，本地HTTP服务中 service_users 有两页路由（每个路由一个插件）和一个服务插件，/services/slow 在测试结束前不响应（最多10秒）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 09:00
+ */
+public class KongAdminClientAsyncTest {
+
+    private static final String SERVICE = "{\"id\":\"s1\",\"name\":\"service_users\",\"host\":\"api.zlikun.com\",\"port\":80}";
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private String url;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(16);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                String key = exchange.getRequestMethod() + " " + exchange.getRequestURI();
+                int status = 200;
+                String body;
+                switch (key) {
+                    case "GET /services/service_users":
+                        body = SERVICE;
+                        break;
+                    case "GET /services/service_users/routes?size=1000":
+                        body = "{\"next\":\"/services/service_users/routes?offset=r2\",\"offset\":\"r2\"," +
+                                "\"data\":[{\"id\":\"r1\",\"paths\":[\"/users\"],\"service\":{\"id\":\"s1\"}}]}";
+                        break;
+                    case "GET /services/service_users/routes?size=1000&offset=r2":
+                        body = "{\"data\":[{\"id\":\"r2\",\"hosts\":[\"api.zlikun.com\"],\"service\":{\"id\":\"s1\"}}]}";
+                        break;
+                    case "GET /services/service_users/plugins?size=1000":
+                        body = "{\"data\":[{\"id\":\"p0\",\"name\":\"cors\",\"service_id\":\"s1\"}]}";
+                        break;
+                    case "GET /routes/r1/plugins?size=1000":
+                    case "GET /routes/r2/plugins?size=1000":
+                        String route = exchange.getRequestURI().getPath().split("/")[2];
+                        body = "{\"data\":[{\"id\":\"p-" + route + "\",\"name\":\"rate-limiting\",\"route_id\":\"" + route + "\"}]}";
+                        break;
+                    case "GET /services/slow":
+                        release.await(10, TimeUnit.SECONDS);
+                        body = SERVICE;
+                        break;
+                    case "GET /services/pooled":
+                        Thread.sleep(20);
+                        body = SERVICE;
+                        break;
+                    case "DELETE /services/service_users":
+                        status = 204;
+                        body = "";
+                        break;
+                    default:
+                        status = 404;
+                        body = "{\"message\":\"Not found\"}";
+                }
+                // 开始响应后客户端即可发出下一个请求，不再计入
+                inFlight.decrementAndGet();
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (InterruptedException e) {
+                inFlight.decrementAndGet();
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void stop() {
+        release.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void serviceView() throws IOException {
+        KongAdminClient kong = new KongAdminClient(url, KongAdminClient.sharedHttpClient());
+        ServiceView view = Futures.get(kong.serviceViewAsync("service_users"));
+        assertEquals("s1", view.getService().getId());
+        assertEquals(2, view.getRoutes().size());
+        assertEquals("cors", view.getPlugins().get(0).getName());
+        assertEquals(Arrays.asList("r1", "r2"), new ArrayList<>(view.getRoutePlugins().keySet()));
+        assertEquals("p-r2", view.getRoutePlugins().get("r2").get(0).getId());
+
+        assertNull(Futures.get(kong.serviceViewAsync("service_none")));
+        assertEquals(1, Futures.get(kong.serviceViewsAsync(Arrays.asList("service_none", "service_users"))).size());
+    }
+
+    @Test
+    public void maxRequestsPerHost() throws IOException {
+        KongAdminClient kong = new KongAdminClient(url, 3);
+        List<CompletableFuture<Service>> futures = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            futures.add(kong.services().retrieveAsync("pooled"));
+        }
+        assertEquals(30, Futures.get(Futures.all(futures)).size());
+        assertTrue("max in flight: " + maxInFlight.get(), maxInFlight.get() <= 3);
+        assertEquals(64, KongAdminClient.sharedHttpClient().dispatcher().getMaxRequests());
+    }
+
+    @Test
+    public void failFast() throws IOException {
+        KongAdminClient kong = new KongAdminClient(url, KongAdminClient.sharedHttpClient());
+        CompletableFuture<Service> slow = kong.services().retrieveAsync("slow");
+        CompletableFuture<?> missing = kong.routes().listAllByServiceAsync("service_none");
+        long start = System.nanoTime();
+        try {
+            Futures.get(Futures.all(Arrays.asList(slow, missing)));
+            fail();
+        } catch (KongException e) {
+            assertTrue(e.isNotFound());
+        }
+        // slow 一直挂起，不等它响应即失败才算快速失败，留足余量避免机器繁忙时误报
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void delete() throws IOException {
+        KongAdminClient kong = new KongAdminClient(url, KongAdminClient.sharedHttpClient());
+        assertTrue(Futures.get(kong.services().deleteAsync("service_users")));
+        assertFalse(Futures.get(kong.services().deleteAsync("service_none")));
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.zlikun.kong;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Admin API客户端测试，使用本地HTTP服务返回 ServiceTest、RouteTest、PluginTest 中记录的响应
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 18:00
+ */
+@Slf4j
+public class KongAdminClientTest {
+
+    private static final String SERVICE = "{\"host\":\"api.zlikun.com\",\"created_at\":1524103610,\"connect_timeout\":60000," +
+            "\"id\":\"a5e98b77-5d26-4175-b1a5-7ba55834b1d3\",\"protocol\":\"http\",\"name\":\"service_users\"," +
+            "\"read_timeout\":60000,\"port\":80,\"path\":\"\\/users\",\"updated_at\":1524103610,\"retries\":3,\"write_timeout\":60000}";
+
+    private static final String ROUTES = "{\"next\":\"\\/routes?offset=WyI4MzU4Il0\",\"offset\":\"WyI4MzU4Il0\",\"data\":[" +
+            "{\"created_at\":1524112343,\"strip_path\":true,\"hosts\":[\"api.zlikun.com\"],\"preserve_host\":false," +
+            "\"regex_priority\":0,\"updated_at\":1524112343,\"paths\":{},\"service\":{\"id\":\"5cf0494f-ded9-470c-82ef-07059b1d5c8e\"}," +
+            "\"methods\":[\"GET\",\"POST\"],\"protocols\":[\"http\",\"https\"],\"id\":\"8358b021-6900-474c-8e88-83411b2fa7ae\"}]}";
+
+    private static final String PLUGINS = "{\"total\":1,\"next\":\"http:\\/\\/admin.zlikun.com\\/plugins?offset=abc%3D%3D&size=1\"," +
+            "\"data\":[{\"created_at\":1524202675000,\"config\":{\"minute\":5,\"policy\":\"cluster\",\"second\":2," +
+            "\"limit_by\":\"consumer\",\"fault_tolerant\":true},\"id\":\"0d0cba26-26b3-47b7-b37b-7334d8da4c2e\"," +
+            "\"name\":\"rate-limiting\",\"enabled\":true,\"consumer_id\":\"fb344495-6aee-4909-8213-821d1dbd04bd\"}]}";
+
+    private HttpServer server;
+    private final Map<String, String> requests = new ConcurrentHashMap<>();
+    private final OkHttpClient http = KongAdminClient.newHttpClient(8, 8, 8, 60_000);
+    private KongAdminClient kong;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String key = exchange.getRequestMethod() + " " + exchange.getRequestURI();
+            byte[] in = new byte[4096];
+            int n = Math.max(0, exchange.getRequestBody().read(in));
+            requests.put(key, new String(in, 0, n, StandardCharsets.UTF_8));
+            int status = 200;
+            String body;
+            switch (key) {
+                case "GET /services/service_users":
+                    body = SERVICE;
+                    break;
+                case "POST /services":
+                    status = 409;
+                    body = "{\"name\":\"already exists with value 'service_users'\"}";
+                    break;
+                case "PATCH /services/service_users":
+                    body = SERVICE.replace("\"retries\":3", "\"retries\":2");
+                    break;
+                case "DELETE /services/service_users":
+                    status = 204;
+                    body = "";
+                    break;
+                case "GET /services/service_users/routes?size=1000":
+                    body = ROUTES;
+                    break;
+                case "GET /plugins?size=1&offset=0d0cba26":
+                    body = PLUGINS;
+                    break;
+                case "GET /plugins/enabled":
+                    body = "{\"enabled_plugins\":[\"rate-limiting\",\"key-auth\"]}";
+                    break;
+                default:
+                    status = 404;
+                    body = "{\"message\":\"Not found\"}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, status == 204 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        kong = new KongAdminClient("http://127.0.0.1:" + server.getAddress().getPort(), http);
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void services() throws IOException {
+
+        Service service = kong.services().retrieve("service_users");
+        assertEquals("a5e98b77-5d26-4175-b1a5-7ba55834b1d3", service.getId());
+        assertEquals("/users", service.getPath());
+        assertEquals(Integer.valueOf(60000), service.getConnectTimeout());
+        assertEquals(Long.valueOf(1524103610), service.getCreatedAt());
+        assertNull(kong.services().retrieve("missing"));
+
+        Service patch = new Service();
+        patch.setRetries(2);
+        assertEquals(Integer.valueOf(2), kong.services().update("service_users", patch).getRetries());
+        // 只发送非null字段
+        assertEquals("{\"retries\":2}", requests.get("PATCH /services/service_users"));
+
+        try {
+            kong.services().create(service);
+            fail();
+        } catch (KongException e) {
+            assertTrue(e.isConflict());
+            log.info(e.getMessage());
+        }
+        // 创建、更新时间由Kong生成，不发送
+        assertFalse(requests.get("POST /services").contains("created_at"));
+        assertTrue(requests.get("POST /services").contains("\"connect_timeout\":60000"));
+
+        assertTrue(kong.services().delete("service_users"));
+        assertFalse(kong.services().delete("missing"));
+    }
+
+    @Test
+    public void routes() throws IOException {
+
+        Page<Route> page = kong.routes().listByService("service_users", 5000, null);
+        assertEquals(1, page.getData().size());
+        Route route = page.getData().get(0);
+        assertEquals("5cf0494f-ded9-470c-82ef-07059b1d5c8e", route.getService().getId());
+        assertEquals(2, route.getMethods().size());
+        // Kong将空数组编码为 {}
+        assertTrue(route.getPaths().isEmpty());
+        assertEquals("WyI4MzU4Il0", page.nextOffset());
+    }
+
+    @Test
+    public void plugins() throws IOException {
+
+        Page<Plugin> page = kong.plugins().list(1, "0d0cba26");
+        Plugin plugin = page.getData().get(0);
+        assertEquals("rate-limiting", plugin.getName());
+        assertEquals(5, plugin.getConfig().get("minute"));
+        assertEquals("consumer", plugin.getConfig().get("limit_by"));
+        assertEquals(Long.valueOf(1524202675000L), plugin.getCreatedAt());
+        assertEquals(Long.valueOf(1), page.getTotal());
+        assertEquals("abc==", page.nextOffset());
+        assertEquals(2, kong.plugins().enabled().size());
+    }
+
+    @Test
+    public void pooled() throws IOException {
+
+        // 响应全部关闭时，串行请求始终复用同一个连接
+        for (int i = 0; i < 50; i++) {
+            kong.services().retrieve("service_users");
+            kong.services().retrieve("missing");
+            kong.services().delete("service_users");
+            try {
+                kong.services().create(new Service());
+            } catch (KongException e) {
+                assertTrue(e.isConflict());
+            }
+        }
+        assertEquals(1, http.connectionPool().connectionCount());
+    }
+
+}
@@ -2,6 +2,10 @@ package com.zlikun.kong;
 
 import okhttp3.OkHttpClient;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 配合测试Kong网关
  * https://getkong.org/docs/
@@ -10,13 +14,21 @@ import okhttp3.OkHttpClient;
  */
 public abstract class KongBase {
 
-    protected OkHttpClient client = new OkHttpClient.Builder()
-            .build();
+    /**
+     * -Dkong.admin=embedded 时所有测试共用的进程内Admin API替身
+     */
+    private static EmbeddedKong embedded;
+
+    /**
+     * 与 KongAdminClient 共用连接池和调度器
+     */
+    protected OkHttpClient client = KongAdminClient.sharedHttpClient();
 
     /**
-     * Admin请求前缀
+     * Admin请求前缀，默认为真实的Kong，-Dkong.admin=embedded 时使用进程内替身（-Dkong.latency=5 注入5毫秒延迟），
+     * 也可以指定其他地址，如：-Dkong.admin=http://127.0.0.1:8001
      */
-    protected String admin = "http://admin.zlikun.com";
+    protected String admin = admin();
 
     /**
      * 代理网关请求前缀
@@ -28,4 +40,29 @@ public abstract class KongBase {
      */
     protected String api = "http://api.zlikun.com";
 
+    /**
+     * 类型化的Admin API客户端
+     */
+    protected KongAdminClient kong = new KongAdminClient(admin, client);
+
+    private static synchronized String admin() {
+        String admin = System.getProperty("kong.admin", "http://admin.zlikun.com");
+        if (!"embedded".equals(admin)) {
+            return admin;
+        }
+        if (embedded == null) {
+            // Surefire已通过 systemPropertyVariables 设置，这里兼顾在IDE中直接运行，须在第一个 HttpServer 创建前设置
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            try {
+                embedded = new EmbeddedKong().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            embedded.setLatency(Long.getLong("kong.latency", 0L), 0, TimeUnit.MILLISECONDS);
+        }
+        return embedded.getUrl();
+    }
+
 }
@@ -0,0 +1,133 @@
+package com.zlikun.kong;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.kong.entity.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 分页遍历测试，本地HTTP服务按 offset 返回消费者列表，offset 为不透明的游标
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 21:30
+ */
+@Slf4j
+public class PageIteratorTest {
+
+    private static final int TOTAL = 2500;
+
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile int failAt = -1;
+    private KongAdminClient kong;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/consumers", exchange -> {
+            HttpUrl url = HttpUrl.parse("http://localhost" + exchange.getRequestURI());
+            requests.add(url.encodedQuery());
+            int size = Integer.parseInt(url.queryParameter("size"));
+            String offset = url.queryParameter("offset");
+            int from = offset == null ? 0 : Integer.parseInt(offset.substring("cursor:".length()));
+            int to = Math.min(TOTAL, from + size);
+            StringBuilder sb = new StringBuilder("{\"total\":").append(TOTAL).append(",\"data\":[");
+            for (int i = from; i < to; i++) {
+                sb.append(i > from ? "," : "").append("{\"created_at\":1524143018000,\"username\":\"consumer_")
+                        .append(i).append("\",\"id\":\"").append(i).append("\"}");
+            }
+            sb.append("]");
+            if (to < TOTAL) {
+                // 与Kong一致，next 在 data 之后
+                sb.append(",\"next\":\"http://admin.zlikun.com/consumers?offset=cursor%3A").append(to)
+                        .append("&size=").append(size).append("\",\"offset\":\"cursor:").append(to).append("\"");
+            }
+            sb.append("}");
+            byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+            int status = from == failAt ? 500 : 200;
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        kong = new KongAdminClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                KongAdminClient.newHttpClient(8, 8, 8, 60_000));
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void all() {
+
+        try (Stream<Consumer> consumers = kong.consumers().stream()) {
+            List<String> names = consumers.map(Consumer::getUsername).collect(Collectors.toList());
+            assertEquals(TOTAL, names.size());
+            assertEquals("consumer_0", names.get(0));
+            assertEquals("consumer_2499", names.get(TOTAL - 1));
+        }
+        // 使用最大页，按返回的游标翻页
+        assertEquals(3, requests.size());
+        assertEquals("size=1000", requests.get(0));
+        assertEquals("size=1000&offset=cursor%3A1000", requests.get(1));
+        assertEquals("size=1000&offset=cursor%3A2000", requests.get(2));
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+
+        PageIterator<Consumer> iterator = kong.consumers().iterator();
+        assertEquals("consumer_0", iterator.next().getUsername());
+        // 第一页还没有处理完，第二页已经在请求
+        for (int i = 0; i < 100 && requests.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, requests.size());
+        assertEquals(1, iterator.getPages());
+
+        // 提前结束时不再请求后续页
+        iterator.close();
+        assertTrue(!iterator.hasNext());
+        Thread.sleep(100);
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void failed() {
+
+        failAt = 1000;
+        PageIterator<Consumer> iterator = kong.consumers().iterator();
+        int count = 0;
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            fail();
+        } catch (UncheckedIOException e) {
+            assertEquals(500, ((KongException) e.getCause()).getStatus());
+        }
+        assertEquals(1000, count);
+    }
+
+}
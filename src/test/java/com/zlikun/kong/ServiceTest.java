@@ -121,7 +121,8 @@ public class ServiceTest extends KongBase {
     public void list() throws IOException {
 
         // 需要指定分页参数：offset和size，
-        // offset表示分页偏移量，可选，目前尚不清楚用法(使用一个数值会报500错误)
+        // offset表示分页偏移量，可选，是上一页响应中返回的 offset 游标，不是数值(使用一个数值会报500错误)
+        // 遍历全部数据参考：KongAdminClient#services().stream()
         // size默认值：100，最大：1000
         Request request = new Request.Builder()
                 .url(admin + "/services/" + "?size=3")
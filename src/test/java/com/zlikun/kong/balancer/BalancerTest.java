@@ -0,0 +1,122 @@
+package com.zlikun.kong.balancer;
+
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 17:00
+ */
+public class BalancerTest {
+
+    private static Target target(String address, Integer weight, double createdAt) {
+        Target target = new Target();
+        target.setTarget(address);
+        target.setWeight(weight);
+        target.setCreatedAt(createdAt);
+        return target;
+    }
+
+    @Test
+    public void roundRobin() {
+        Balancer balancer = new Balancer(100, Arrays.asList(
+                target("192.168.0.104:8080", 100, 1), target("192.168.0.105:8080", 50, 2), target("192.168.0.106:8080", null, 3)));
+
+        Map<String, Integer> slots = balancer.slotCounts();
+        assertEquals(Integer.valueOf(40), slots.get("192.168.0.104:8080"));
+        assertEquals(Integer.valueOf(20), slots.get("192.168.0.105:8080"));
+        assertEquals(Integer.valueOf(40), slots.get("192.168.0.106:8080"));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            counts.merge(balancer.next(), 1, Integer::sum);
+        }
+        assertEquals(slots, counts);
+    }
+
+    @Test
+    public void remainder() {
+        Balancer balancer = new Balancer(10, Arrays.asList(
+                target("a:80", 1, 1), target("b:80", 1, 2), target("c:80", 1, 3)));
+        int total = balancer.slotCounts().values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(10, total);
+    }
+
+    @Test
+    public void hashOn() {
+        Upstream upstream = new Upstream();
+        upstream.setHashOn("header");
+        upstream.setHashOnHeader("X-Session");
+        upstream.setHashFallback("consumer");
+        List<Target> targets = Arrays.asList(target("a:80", 100, 1), target("b:80", 100, 2), target("c:80", 100, 3));
+        Balancer balancer = new Balancer(upstream, targets);
+        // 同样的上游和目标得到同样的轮盘
+        Balancer other = new Balancer(upstream, targets);
+
+        for (int i = 0; i < 100; i++) {
+            String session = "session-" + i;
+            String target = balancer.select(null, "127.0.0.1", Collections.singletonMap("x-session", session));
+            assertEquals(balancer.select(session), target);
+            assertEquals(target, other.select("consumer-1", "127.0.0.2", Collections.singletonMap("X-Session", session)));
+        }
+        // 没有请求头时按消费者
+        assertEquals(balancer.select("consumer-1"), balancer.select("consumer-1", "127.0.0.1", Collections.emptyMap()));
+    }
+
+    @Test
+    public void update() {
+        List<Target> targets = new ArrayList<>(Arrays.asList(
+                target("a:80", 100, 1), target("b:80", 100, 2), target("c:80", 100, 3)));
+        Balancer balancer = new Balancer(1000, targets);
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            before.put("key-" + i, balancer.select("key-" + i));
+        }
+
+        // 新增目标只从其他目标移走它需要的槽位
+        targets.add(target("d:80", 100, 4));
+        assertEquals(250, balancer.update(targets));
+        int changed = 0;
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String target = balancer.select(entry.getKey());
+            if (!target.equals(entry.getValue())) {
+                changed++;
+                assertEquals("d:80", target);
+            }
+        }
+        assertTrue(changed > 2000 && changed < 3000);
+
+        // 权重为0的新记录禁用目标，只有该目标的槽位移动
+        targets.add(target("d:80", 0, 5));
+        assertEquals(250, balancer.update(targets));
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            assertEquals(entry.getValue(), balancer.select(entry.getKey()));
+        }
+        assertEquals(3, balancer.weights().size());
+    }
+
+    @Test
+    public void empty() {
+        Balancer balancer = new Balancer(100, Collections.singletonList(target("a:80", 0, 1)));
+        assertNull(balancer.next());
+        assertNull(balancer.select("key"));
+
+        balancer.update(Collections.singletonList(target("a:80", 10, 2)));
+        assertEquals("a:80", balancer.next());
+        assertNotEquals(0, balancer.slotCounts().get("a:80").intValue());
+    }
+
+}
@@ -0,0 +1,274 @@
+package com.zlikun.kong.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Consumer;
+import com.zlikun.kong.entity.Plugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 消费者批量导入测试，使用本地HTTP服务模拟 /consumers、/plugins 资源（username 唯一，consumer_id + name 唯一）
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 23:30
+ */
+public class ConsumerImporterTest {
+
+    private final ObjectMapper mapper = KongAdminClient.newObjectMapper();
+    private final Map<String, Consumer> consumers = new ConcurrentHashMap<>();
+    private final Map<String, Plugin> plugins = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String broken;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private KongAdminClient kong;
+    private Path dir;
+
+    @Before
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.start();
+        kong = new KongAdminClient("http://127.0.0.1:" + server.getAddress().getPort(), KongAdminClient.sharedHttpClient());
+        dir = Files.createTempDirectory("import");
+    }
+
+    @After
+    public void stop() throws IOException {
+        server.stop(0);
+        executor.shutdownNow();
+        for (Path file : Files.list(dir).collect(Collectors.toList())) {
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void csv() throws Exception {
+        Consumer existing = consumer("consumer_zlikun");
+        Plugin limit = new Plugin();
+        limit.setId(UUID.randomUUID().toString());
+        limit.setName("rate-limiting");
+        limit.setConsumerId(existing.getId());
+        limit.setConfig(Collections.singletonMap("minute", 1));
+        plugins.put(limit.getId(), limit);
+
+        Path file = write("consumers.csv",
+                "username,custom_id,rate-limiting.second,rate-limiting.minute,rate-limiting.policy",
+                "consumer_zlikun,,2,5,local",
+                "consumer_a,a-001,,,",
+                "",
+                "consumer_b,\"b,002\",1,,cluster");
+        ImportResult result = new ConsumerImporter(kong, 4).run(file, dir.resolve("consumers.checkpoint"));
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getExisting());
+        assertEquals(1, result.getPluginsCreated());
+        assertEquals(1, result.getPluginsUpdated());
+        assertEquals(3, consumers.size());
+        assertEquals(2, plugins.size());
+        assertEquals(5L, ((Number) plugins.get(limit.getId()).getConfig().get("minute")).longValue());
+        assertTrue(consumers.values().stream().anyMatch(c -> "b,002".equals(c.getCustomId())));
+        assertEquals("5", Files.readAllLines(dir.resolve("consumers.checkpoint")).stream()
+                .filter(line -> line.startsWith("line=")).findFirst().get().substring(5));
+    }
+
+    @Test
+    public void resume() throws Exception {
+        Path file = write("consumers.json",
+                "{\"username\":\"c1\",\"plugins\":[{\"name\":\"rate-limiting\",\"config\":{\"minute\":5}}]}",
+                "{\"username\":\"broken\"}",
+                "{\"custom_id\":\"c3\"}",
+                "{\"username\":\"c4\"}");
+        Path checkpoint = dir.resolve("consumers.json.checkpoint");
+        broken = "broken";
+        ImportResult first = new ConsumerImporter(kong, 2).run(file, checkpoint);
+        assertFalse(first.isSuccess());
+        assertEquals(1, first.getFailed());
+        assertEquals(2, first.getFailures().get(0).getLine());
+        assertEquals(3, consumers.size());
+
+        broken = null;
+        ImportResult second = new ConsumerImporter(kong, 2).run(file, checkpoint);
+        assertTrue(second.isSuccess());
+        assertEquals(3, second.getSkipped());
+        assertEquals(1, second.getCreated());
+        assertEquals(4, consumers.size());
+        assertEquals(1, plugins.size());
+
+        // 全部完成后再次导入不会提交任何请求
+        assertEquals(4, new ConsumerImporter(kong, 2).run(file, checkpoint).getSkipped());
+    }
+
+    @Test
+    public void checkpoint() throws Exception {
+        // 上次导入到第100行，第17行失败；恢复时重新导入第17行，断点不能回退到16
+        Path file = dir.resolve("resume.checkpoint");
+        Files.write(file, Arrays.asList("line=100", "failed=17"), StandardCharsets.UTF_8);
+        Checkpoint checkpoint = Checkpoint.load(file);
+        assertFalse(checkpoint.isDone(17));
+        assertTrue(checkpoint.isDone(18));
+
+        checkpoint.begin(17);
+        checkpoint.begin(101);
+        checkpoint.begin(102);
+        assertEquals(100, checkpoint.getLine());
+        checkpoint.finish(101, true);
+        assertEquals(101, checkpoint.getLine());
+        checkpoint.save();
+        assertTrue(Files.readAllLines(file).contains("line=101"));
+        assertTrue(Files.readAllLines(file).contains("failed=17"));
+
+        checkpoint.finish(17, true);
+        checkpoint.finish(102, true);
+        assertEquals(102, checkpoint.getLine());
+        assertEquals(0, checkpoint.getFailed());
+    }
+
+    @Test
+    public void window() throws Exception {
+        String[] lines = new String[50];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = "{\"username\":\"c" + i + "\",\"plugins\":[{\"name\":\"key-auth\"}]}";
+        }
+        ImportResult result = new ConsumerImporter(kong, 3).run(write("many.json", lines), dir.resolve("many.checkpoint"));
+        assertEquals(50, result.getCreated());
+        assertEquals(50, plugins.size());
+        assertTrue("max in flight: " + maxInFlight.get(), maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void split() {
+        assertEquals(Arrays.asList("a", "b,c", "d\"e", ""), ConsumerRecordReader.split("a, \"b,c\",\"d\"\"e\","));
+        assertEquals(5L, ConsumerRecordReader.value("5"));
+        assertEquals(true, ConsumerRecordReader.value("true"));
+        assertEquals("local", ConsumerRecordReader.value("local"));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+    private Consumer consumer(String username) {
+        Consumer consumer = new Consumer();
+        consumer.setId(UUID.randomUUID().toString());
+        consumer.setUsername(username);
+        consumers.put(consumer.getId(), consumer);
+        return consumer;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(2);
+            respond(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        for (String pair : raw == null ? new String[0] : raw.split("&")) {
+            String[] kv = pair.split("=", 2);
+            query.put(kv[0], URLDecoder.decode(kv[1], "UTF-8"));
+        }
+        int status;
+        Object body;
+        if ("POST /consumers".equals(method + " " + path)) {
+            Consumer consumer = mapper.readValue(exchange.getRequestBody(), Consumer.class);
+            if (consumer.getUsername() != null && consumer.getUsername().equals(broken)) {
+                status = 500;
+                body = Collections.singletonMap("message", "An unexpected error occurred");
+            } else if (consumers.values().stream().anyMatch(c -> Objects.equals(c.getUsername(), consumer.getUsername())
+                    && consumer.getUsername() != null)) {
+                status = 409;
+                body = Collections.singletonMap("username", "already exists with value '" + consumer.getUsername() + "'");
+            } else {
+                consumer.setId(UUID.randomUUID().toString());
+                consumers.put(consumer.getId(), consumer);
+                status = 201;
+                body = consumer;
+            }
+        } else if ("GET /consumers".equals(method + " " + path)) {
+            status = 200;
+            body = page(consumers.values().stream()
+                    .filter(c -> !query.containsKey("username") || query.get("username").equals(c.getUsername()))
+                    .filter(c -> !query.containsKey("custom_id") || query.get("custom_id").equals(c.getCustomId()))
+                    .collect(Collectors.toList()));
+        } else if ("POST /plugins".equals(method + " " + path)) {
+            Plugin plugin = mapper.readValue(exchange.getRequestBody(), Plugin.class);
+            if (plugins.values().stream().anyMatch(p -> p.getName().equals(plugin.getName())
+                    && p.getConsumerId().equals(plugin.getConsumerId()))) {
+                status = 409;
+                body = Collections.singletonMap("name", "already exists with value '" + plugin.getName() + "'");
+            } else {
+                plugin.setId(UUID.randomUUID().toString());
+                plugins.put(plugin.getId(), plugin);
+                status = 201;
+                body = plugin;
+            }
+        } else if ("GET /plugins".equals(method + " " + path)) {
+            status = 200;
+            body = page(plugins.values().stream()
+                    .filter(p -> p.getConsumerId().equals(query.get("consumer_id")) && p.getName().equals(query.get("name")))
+                    .collect(Collectors.toList()));
+        } else if ("PATCH".equals(method) && path.startsWith("/plugins/")) {
+            Plugin plugin = plugins.get(path.substring("/plugins/".length()));
+            plugin.setConfig(mapper.readValue(exchange.getRequestBody(), Plugin.class).getConfig());
+            status = 200;
+            body = plugin;
+        } else {
+            status = 404;
+            body = Collections.singletonMap("message", "Not found");
+        }
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> page(List<?> data) {
+        return Collections.singletonMap("data", data);
+    }
+
+}
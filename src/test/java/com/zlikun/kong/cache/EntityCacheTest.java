@@ -0,0 +1,193 @@
+package com.zlikun.kong.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Service;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 本地缓存测试，使用本地HTTP服务模拟 /services 资源并统计查询次数
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 22:30
+ */
+public class EntityCacheTest {
+
+    private final ObjectMapper mapper = KongAdminClient.newObjectMapper();
+    private final Map<String, Service> services = new ConcurrentHashMap<>();
+    private final AtomicInteger retrieves = new AtomicInteger();
+    private final AtomicInteger lists = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+
+    private HttpServer server;
+    private KongAdminClient kong;
+    private EntityCache<Service> cache;
+
+    @Before
+    public void start() throws IOException {
+        for (int i = 1; i <= 3; i++) {
+            services.put("id-" + i, service("id-" + i, "service_" + i, 1524103610L));
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/services", this::handle);
+        server.start();
+        kong = new KongAdminClient("http://127.0.0.1:" + server.getAddress().getPort(), KongAdminClient.sharedHttpClient());
+        cache = new EntityCache<>(kong.services(), Service::getId, Service::getName, Service::getUpdatedAt, true,
+                TimeUnit.SECONDS.toNanos(60), 2, clock::get);
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void readThrough() throws IOException {
+        Service service = cache.get("service_1");
+        assertEquals("id-1", service.getId());
+        assertSame(service, cache.get("service_1"));
+        assertSame(service, cache.get("id-1"));
+        assertEquals(1, retrieves.get());
+        assertEquals(2, cache.getHits());
+
+        // 不存在的实体不缓存
+        assertNull(cache.get("service_9"));
+        assertNull(cache.get("service_9"));
+        assertEquals(3, retrieves.get());
+
+        // 过期后重新查询
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.get("service_1");
+        assertEquals(4, retrieves.get());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws IOException {
+        cache.get("service_1");
+        cache.get("service_2");
+        cache.get("service_1");
+        cache.get("service_3");
+        assertEquals(2, cache.size());
+        assertEquals(3, retrieves.get());
+
+        cache.get("service_1");
+        assertEquals(3, retrieves.get());
+        cache.get("service_2");
+        assertEquals(4, retrieves.get());
+    }
+
+    @Test
+    public void writeThrough() throws IOException {
+        cache.get("service_1");
+        Service patch = new Service();
+        patch.setRetries(2);
+        kong.services().update("service_1", patch);
+
+        // 更新结果直接写入缓存，不再查询
+        assertEquals(Integer.valueOf(2), cache.get("service_1").getRetries());
+        assertEquals(1, retrieves.get());
+
+        kong.services().delete("id-1");
+        assertNull(cache.get("service_1"));
+        assertEquals(2, retrieves.get());
+    }
+
+    @Test
+    public void refresh() throws IOException {
+        Service first = cache.get("service_1");
+        cache.get("service_2");
+
+        // 修改 service_2、删除 service_1（不经过客户端）
+        services.get("id-2").setUpdatedAt(1524103620L);
+        services.get("id-2").setRetries(9);
+        services.remove("id-1");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        EntityCache.RefreshResult result = cache.refresh();
+        assertEquals(2, result.getScanned());
+        assertEquals(1, result.getChanged());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, lists.get());
+
+        // 刷新延长了有效期
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        assertEquals(Integer.valueOf(9), cache.get("service_2").getRetries());
+        assertEquals(2, retrieves.get());
+        assertEquals(1, cache.size());
+        assertEquals("id-1", first.getId());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String key = path.length() > "/services/".length() ? path.substring("/services/".length()) : null;
+        Service service = key == null ? null : find(key);
+        Object body = null;
+        int status = 200;
+        if (key != null && "GET".equals(method)) {
+            retrieves.incrementAndGet();
+        }
+        if (key == null && "GET".equals(method)) {
+            lists.incrementAndGet();
+            List<Service> data = new ArrayList<>(services.values());
+            body = Collections.singletonMap("data", data);
+        } else if (service == null) {
+            status = 404;
+            body = Collections.singletonMap("message", "Not found");
+        } else if ("GET".equals(method)) {
+            body = service;
+        } else if ("PATCH".equals(method)) {
+            Service patch = mapper.readValue(exchange.getRequestBody(), Service.class);
+            service.setRetries(patch.getRetries());
+            service.setUpdatedAt(service.getUpdatedAt() + 1);
+            body = service;
+        } else if ("DELETE".equals(method)) {
+            services.remove(service.getId());
+            status = 204;
+        }
+        byte[] bytes = body == null ? new byte[0] : mapper.writeValueAsBytes(body);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Service find(String idOrName) {
+        Service service = services.get(idOrName);
+        if (service == null) {
+            service = services.values().stream().filter(s -> idOrName.equals(s.getName())).findFirst().orElse(null);
+        }
+        return service;
+    }
+
+    private Service service(String id, String name, long updatedAt) {
+        Service service = new Service();
+        service.setId(id);
+        service.setName(name);
+        service.setHost("api.zlikun.com");
+        service.setRetries(3);
+        service.setUpdatedAt(updatedAt);
+        return service;
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.zlikun.kong.ratelimit;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 15:00
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void config() {
+        // 与 PluginTest.add 的表单参数一致
+        Map<String, Object> plugin = new HashMap<>();
+        plugin.put("second", "2");
+        plugin.put("minute", 5);
+        plugin.put("limit_by", "consumer");
+        plugin.put("policy", "cluster");
+        RateLimitConfig config = RateLimitConfig.of(plugin);
+
+        assertEquals(Long.valueOf(2), config.getLimits().get(Period.SECOND));
+        assertEquals(Long.valueOf(5), config.getLimits().get(Period.MINUTE));
+        assertEquals("consumer-1", config.identifier("consumer-1", "credential-1", "127.0.0.1"));
+        assertEquals("127.0.0.1", config.identifier(null, null, "127.0.0.1"));
+        config.setLimitBy("ip");
+        assertEquals("127.0.0.1", config.identifier("consumer-1", "credential-1", "127.0.0.1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noLimits() {
+        Map<String, Object> plugin = new HashMap<>();
+        plugin.put("limit_by", "consumer");
+        RateLimitConfig.of(plugin);
+    }
+
+    @Test
+    public void fixed() {
+        RateLimiter limiter = new RateLimiter(new RateLimitConfig().limit(Period.SECOND, 2).limit(Period.MINUTE, 5),
+                WindowMode.FIXED, 4, now::get);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+        assertEquals(0, limiter.remaining("a", Period.SECOND));
+        assertEquals(3, limiter.remaining("a", Period.MINUTE));
+        assertEquals(1000, limiter.retryAfter("a"));
+
+        now.addAndGet(1000);
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        now.addAndGet(1000);
+        assertTrue(limiter.tryAcquire("a"));
+        // 每分钟的限制，被拒绝的请求不计数
+        assertFalse(limiter.tryAcquire("a"));
+        now.addAndGet(1000);
+        assertFalse(limiter.tryAcquire("a"));
+        assertEquals(0, limiter.remaining("a", Period.MINUTE));
+        assertEquals(2, limiter.remaining("a", Period.SECOND));
+        assertEquals(-1, limiter.remaining("a", Period.HOUR));
+
+        now.addAndGet(60 * 1000);
+        assertTrue(limiter.tryAcquire("a"));
+    }
+
+    @Test
+    public void sliding() {
+        RateLimiter limiter = new RateLimiter(new RateLimitConfig().limit(Period.MINUTE, 10),
+                WindowMode.SLIDING, 4, now::get);
+        now.set(60 * 1000 * 100L);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("a"));
+        }
+        assertFalse(limiter.tryAcquire("a"));
+
+        // 下一个窗口过了一半，前一个窗口按一半计算
+        now.addAndGet(90 * 1000);
+        assertEquals(5, limiter.remaining("a", Period.MINUTE));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("a"));
+        }
+        assertFalse(limiter.tryAcquire("a"));
+    }
+
+    @Test
+    public void contention() throws InterruptedException {
+        int limit = 10000;
+        RateLimiter limiter = new RateLimiter(new RateLimitConfig().limit(Period.SECOND, limit * 2).limit(Period.MINUTE, limit),
+                WindowMode.FIXED, 4, now::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < limit; i++) {
+                    if (limiter.tryAcquire("hot")) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(limit, allowed.get());
+        assertEquals(0, limiter.remaining("hot", Period.MINUTE));
+        assertEquals(limit, limiter.remaining("hot", Period.SECOND));
+    }
+
+    @Test
+    public void evict() {
+        RateLimiter limiter = new RateLimiter(new RateLimitConfig().limit(Period.SECOND, 1), WindowMode.FIXED, 1, now::get);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.tryAcquire("consumer-" + i));
+        }
+        now.addAndGet(5000);
+        for (int i = 1000; i < 1100; i++) {
+            assertTrue(limiter.tryAcquire("consumer-" + i));
+        }
+        assertTrue(limiter.size() <= 100);
+        assertFalse(limiter.tryAcquire("consumer-1050"));
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.zlikun.kong.router;
+
+import com.zlikun.kong.entity.Route;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 12:30
+ */
+public class RouteMatcherTest {
+
+    private static Route route(String id, List<String> hosts, List<String> paths, List<String> methods) {
+        Route route = new Route();
+        route.setId(id);
+        route.setHosts(hosts);
+        route.setPaths(paths);
+        route.setMethods(methods);
+        return route;
+    }
+
+    @Test
+    public void host() {
+        Route exact = route("exact", Arrays.asList("api.zlikun.com"), null, null);
+        Route wildcard = route("wildcard", Arrays.asList("*.zlikun.com"), null, null);
+        Route suffix = route("suffix", Arrays.asList("api.zlikun.*"), null, null);
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(wildcard, suffix, exact));
+
+        RouteMatch match = matcher.match("GET", "http://API.zlikun.com:8000/users");
+        assertSame(exact, match.getRoute());
+        assertEquals("api.zlikun.com", match.getHost());
+        assertSame(wildcard, matcher.match("GET", "http://www.zlikun.com/").getRoute());
+        assertSame(suffix, matcher.match("GET", "http://api.zlikun.net/").getRoute());
+        assertEquals("api.zlikun.*", matcher.match("GET", "http://api.zlikun.net/").getHost());
+        // 通配符至少匹配一级
+        assertNull(matcher.match("GET", "http://zlikun.com/"));
+    }
+
+    @Test
+    public void weight() {
+        Route paths = route("paths", null, Arrays.asList("/users"), null);
+        Route methods = route("methods", null, Arrays.asList("/users"), Arrays.asList("POST"));
+        Route hosts = route("hosts", Arrays.asList("api.zlikun.com"), null, null);
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(paths, methods, hosts));
+
+        assertSame(methods, matcher.match("POST", "http://www.zlikun.com/users").getRoute());
+        assertSame(paths, matcher.match("GET", "http://www.zlikun.com/users").getRoute());
+        // 条件数相同时 hosts 优先于 paths
+        assertSame(hosts, matcher.match("GET", "http://api.zlikun.com/users").getRoute());
+        assertNull(matcher.match("GET", "http://www.zlikun.com/orders"));
+    }
+
+    @Test
+    public void paths() {
+        Route root = route("root", null, Arrays.asList("/"), null);
+        Route users = route("users", null, Arrays.asList("/users"), null);
+        Route profile = route("profile", null, Arrays.asList("/users/profile"), null);
+        Route low = route("low", null, Arrays.asList("/users/\\d+"), null);
+        Route high = route("high", null, Arrays.asList("/users/\\d+/orders"), null);
+        high.setRegexPriority(10);
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(root, users, profile, low, high));
+
+        assertSame(root, matcher.match("GET", "http://zlikun.com/orders").getRoute());
+        assertSame(users, matcher.match("GET", "http://zlikun.com/users/zlikun").getRoute());
+        assertSame(profile, matcher.match("GET", "http://zlikun.com/users/profile/1").getRoute());
+        // 正则路径优先于前缀路径
+        assertSame(low, matcher.match("GET", "http://zlikun.com/users/1").getRoute());
+        assertSame(high, matcher.match("GET", "http://zlikun.com/users/1/orders").getRoute());
+    }
+
+    @Test
+    public void protocols() {
+        Route https = route("https", null, Arrays.asList("/pay"), null);
+        https.setProtocols(Arrays.asList("https"));
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(https));
+
+        assertSame(https, matcher.match("GET", "https://zlikun.com/pay").getRoute());
+        assertNull(matcher.match("GET", "http://zlikun.com/pay"));
+    }
+
+    @Test
+    public void stripPath() {
+        Route strip = route("strip", null, Arrays.asList("/users"), null);
+        Route keep = route("keep", null, Arrays.asList("/orders"), null);
+        keep.setStripPath(false);
+        Route regex = route("regex", null, Arrays.asList("/v\\d+"), null);
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(strip, keep, regex));
+
+        assertEquals("/1", matcher.match("GET", "http://zlikun.com/users/1").getUpstreamPath());
+        assertEquals("/", matcher.match("GET", "http://zlikun.com/users").getUpstreamPath());
+        assertEquals("/orders/1", matcher.match("GET", "http://zlikun.com/orders/1").getUpstreamPath());
+        RouteMatch match = matcher.match("GET", "http://zlikun.com/v2/items");
+        assertEquals("/v2", match.getPath());
+        assertEquals("/items", match.getUpstreamPath());
+    }
+
+    @Test
+    public void shadowed() {
+        Route first = route("first", Arrays.asList("api.zlikun.com"), Arrays.asList("/users"), null);
+        first.setCreatedAt(1L);
+        Route second = route("second", Arrays.asList("api.zlikun.com"), Arrays.asList("/users"), null);
+        second.setCreatedAt(2L);
+        Route post = route("post", Arrays.asList("api.zlikun.com"), Arrays.asList("/users"), Arrays.asList("POST"));
+        Route other = route("other", Arrays.asList("*.zlikun.com"), Arrays.asList("/users"), null);
+        RouteMatcher matcher = new RouteMatcher(Arrays.asList(second, first, post, other));
+
+        List<RouteMatcher.Shadowed> shadowed = matcher.shadowed();
+        assertEquals(1, shadowed.size());
+        assertSame(second, shadowed.get(0).getRoute());
+        assertEquals(Arrays.asList(first), shadowed.get(0).getShadowedBy());
+        assertTrue(matcher.match("GET", "http://api.zlikun.com/users").getRoute() == first);
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.zlikun.kong.sync;
+
+import com.zlikun.kong.EmbeddedKong;
+import com.zlikun.kong.KongAdminClient;
+import com.zlikun.kong.entity.Plugin;
+import com.zlikun.kong.entity.Route;
+import com.zlikun.kong.entity.Service;
+import com.zlikun.kong.entity.Target;
+import com.zlikun.kong.entity.Upstream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 同步计划测试，当前状态直接构造，不访问Admin API
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 20:00
+ */
+@Slf4j
+public class SyncEngineTest {
+
+    private static final String DESIRED = "{" +
+            "\"services\": [{" +
+            "  \"name\": \"service_users\", \"url\": \"http://api.zlikun.com/users\", \"retries\": 3," +
+            "  \"routes\": [{\"hosts\": [\"api.zlikun.com\"], \"paths\": [\"/users\"], \"methods\": [\"POST\", \"GET\"]}]," +
+            "  \"plugins\": [{\"name\": \"rate-limiting\", \"config\": {\"second\": 2, \"minute\": 5}}]" +
+            "}]," +
+            "\"upstreams\": [{\"name\": \"api.zlikun.com\", \"targets\": [{\"target\": \"192.168.0.104:8080\"}, {\"target\": \"192.168.0.105:8080\", \"weight\": 50}]}]," +
+            "\"plugins\": [{\"name\": \"correlation-id\"}]" +
+            "}";
+
+    private final KongAdminClient client = new KongAdminClient("http://127.0.0.1:1");
+
+    @Test
+    public void create() throws Exception {
+
+        SyncPlan plan = engine(true).plan(desired(), new CurrentState());
+        log.info("{}", plan);
+        assertEquals(7, plan.count(Change.Action.CREATE));
+        assertEquals(7, plan.getChanges().size());
+        // 按依赖关系排序：服务、上游 → 路由、目标节点 → 插件
+        List<Change.Kind> kinds = new ArrayList<>();
+        plan.getChanges().forEach(c -> kinds.add(c.getKind()));
+        assertTrue(kinds.indexOf(Change.Kind.SERVICE) < kinds.indexOf(Change.Kind.ROUTE));
+        assertTrue(kinds.lastIndexOf(Change.Kind.ROUTE) < kinds.indexOf(Change.Kind.PLUGIN));
+        assertTrue(kinds.indexOf(Change.Kind.UPSTREAM) < kinds.indexOf(Change.Kind.TARGET));
+    }
+
+    @Test
+    public void unchanged() throws Exception {
+
+        // Kong填充的默认值、数组顺序、空数组编码为 {} 均不产生变更
+        SyncPlan plan = engine(true).plan(desired(), current());
+        log.info("{}", plan);
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    public void minimal() throws Exception {
+
+        CurrentState current = current();
+        current.services.get("service_users").setRetries(5);
+        current.routes.get("s1").get(0).setStripPath(false);
+        Route extra = route("r2", "/orders");
+        current.routes.get("s1").add(extra);
+        current.plugins.get(0).getConfig().put("minute", 10);
+        current.targets.get("api.zlikun.com").get(1).setWeight(100);
+        Upstream old = new Upstream();
+        old.setId("u2");
+        old.setName("old.zlikun.com");
+        current.upstreams.put(old.getName(), old);
+
+        DesiredState desired = desired();
+        desired.getServices().get(0).getRoutes().get(0).setStripPath(true);
+
+        SyncPlan plan = engine(true).plan(desired, current);
+        log.info("{}", plan);
+        assertEquals(1, plan.count(Change.Action.CREATE));
+        assertEquals(3, plan.count(Change.Action.UPDATE));
+        assertEquals(2, plan.count(Change.Action.DELETE));
+        assertEquals("UPDATE SERVICE service_users", plan.getChanges().stream()
+                .filter(c -> c.getKind() == Change.Kind.SERVICE).findFirst().get().toString());
+        assertEquals("CREATE TARGET api.zlikun.com 192.168.0.105:8080 weight=50", plan.getChanges().stream()
+                .filter(c -> c.getKind() == Change.Kind.TARGET).findFirst().get().toString());
+        // 删除路由在前，删除上游与服务同一阶段
+        assertEquals(Change.Kind.ROUTE, plan.getChanges().get(0).getKind());
+        assertEquals(Change.Action.DELETE, plan.getChanges().get(0).getAction());
+
+        // 不删除时只保留创建和更新
+        SyncPlan keep = engine(false).plan(desired(), current);
+        assertEquals(0, keep.count(Change.Action.DELETE));
+    }
+
+    /**
+     * 对进程内Admin API替身执行同步，再次同步时没有变更
+     */
+    @Test
+    public void embedded() throws Exception {
+
+        try (EmbeddedKong kong = new EmbeddedKong().start()) {
+            SyncEngine engine = new SyncEngine(new KongAdminClient(kong.getUrl()), 4, true);
+            SyncResult result = engine.sync(desired());
+            assertTrue(result.isSuccess());
+            assertEquals(7, result.getApplied());
+            assertEquals(2, kong.count("targets"));
+            assertTrue(engine.plan(desired()).isEmpty());
+
+            // 删除期望状态中的路由和插件
+            DesiredState desired = desired();
+            desired.getServices().get(0).getRoutes().clear();
+            Route orders = new Route();
+            orders.setPaths(Collections.singletonList("/orders"));
+            desired.getServices().get(0).getRoutes().add(orders);
+            desired.getPlugins().clear();
+            SyncPlan plan = engine.plan(desired);
+            log.info("{}", plan);
+            assertEquals(1, plan.count(Change.Action.CREATE));
+            assertEquals(2, plan.count(Change.Action.DELETE));
+            assertTrue(engine.apply(plan).isSuccess());
+            assertEquals(1, kong.count("routes"));
+            assertEquals(1, kong.count("plugins"));
+        }
+    }
+
+    private SyncEngine engine(boolean prune) {
+        return new SyncEngine(client, 4, prune);
+    }
+
+    private DesiredState desired() throws Exception {
+        return client.getMapper().readValue(DESIRED, DesiredState.class);
+    }
+
+    private CurrentState current() throws Exception {
+        CurrentState current = new CurrentState();
+        Service service = client.getMapper().readValue("{\"host\":\"api.zlikun.com\",\"created_at\":1524103610," +
+                "\"connect_timeout\":60000,\"id\":\"s1\",\"protocol\":\"http\",\"name\":\"service_users\",\"read_timeout\":60000," +
+                "\"port\":80,\"path\":\"\\/users\",\"updated_at\":1524103610,\"retries\":3,\"write_timeout\":60000}", Service.class);
+        current.services.put(service.getName(), service);
+        List<Route> routes = new ArrayList<>();
+        routes.add(route("r1", "/users"));
+        current.routes.put("s1", routes);
+
+        current.plugins.add(client.getMapper().readValue("{\"created_at\":1524202675000,\"config\":{\"minute\":5," +
+                "\"policy\":\"cluster\",\"second\":2,\"limit_by\":\"consumer\",\"fault_tolerant\":true},\"id\":\"p1\"," +
+                "\"name\":\"rate-limiting\",\"enabled\":true,\"service_id\":\"s1\"}", Plugin.class));
+        current.plugins.add(client.getMapper().readValue("{\"config\":{\"header_name\":\"Kong-Request-ID\"},\"id\":\"p2\"," +
+                "\"name\":\"correlation-id\",\"enabled\":true}", Plugin.class));
+        // 消费者级别的插件不受管理
+        current.plugins.add(client.getMapper().readValue("{\"id\":\"p3\",\"name\":\"rate-limiting\",\"consumer_id\":\"c1\"}", Plugin.class));
+
+        Upstream upstream = new Upstream();
+        upstream.setId("u1");
+        upstream.setName("api.zlikun.com");
+        upstream.setSlots(1000);
+        current.upstreams.put(upstream.getName(), upstream);
+        List<Target> targets = new ArrayList<>();
+        targets.add(target("192.168.0.104:8080", 100));
+        targets.add(target("192.168.0.105:8080", 50));
+        current.targets.put(upstream.getName(), targets);
+        return current;
+    }
+
+    private Route route(String id, String path) throws Exception {
+        return client.getMapper().readValue("{\"created_at\":1524112343,\"strip_path\":true,\"hosts\":[\"api.zlikun.com\"]," +
+                "\"preserve_host\":false,\"regex_priority\":0,\"paths\":[\"" + path + "\"],\"service\":{\"id\":\"s1\"}," +
+                "\"methods\":[\"GET\",\"POST\"],\"protocols\":[\"http\",\"https\"],\"id\":\"" + id + "\"}", Route.class);
+    }
+
+    private static Target target(String address, int weight) {
+        Target target = new Target();
+        target.setId(address);
+        target.setTarget(address);
+        target.setWeight(weight);
+        return target;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.zlikun.nginx.access;
+
+import com.zlikun.nginx.header.HeaderSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 访问记录异步管道测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 11:20
+ */
+@Slf4j
+public class AccessRecordPipelineTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("access-record", ".log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void publish() throws Exception {
+
+        AccessRecordProperties properties = new AccessRecordProperties();
+        properties.setFile(file.toString());
+        properties.setCapacity(1024);
+        properties.setOverflowPolicy(OverflowPolicy.BLOCK);
+
+        AccessRecordPipeline pipeline = new AccessRecordPipeline(properties);
+        pipeline.start();
+
+        // 4个线程并发发布，BLOCK策略下不应丢弃任何记录
+        int threads = 4, perThread = 5000;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                HeaderSnapshot snapshot = new HeaderSnapshot();
+                for (int i = 0; i < perThread; i++) {
+                    snapshot.reset("GET", "/nginx");
+                    snapshot.add("host", "192.168.0.9");
+                    snapshot.add("x-request-id", String.valueOf(i));
+                    pipeline.publish(snapshot);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        pipeline.stop();
+
+        List<String> lines = Files.readAllLines(file);
+        log.info("published = {}, written = {}, batches = {}, blocked = {}",
+                pipeline.getPublished(), pipeline.getWritten(), pipeline.getBatches(), pipeline.getBlocked());
+        assertEquals(threads * perThread, lines.size());
+        assertEquals(0, pipeline.getDropped());
+        assertTrue(lines.get(0).contains(" GET /nginx headers={host=192.168.0.9, x-request-id="));
+
+    }
+
+    @Test
+    public void drop() throws Exception {
+
+        AccessRecordProperties properties = new AccessRecordProperties();
+        properties.setFile(file.toString());
+        properties.setCapacity(4);
+        properties.setOverflowPolicy(OverflowPolicy.DROP);
+
+        // 不启动后台线程，缓冲区写满后的记录应被丢弃并计数
+        AccessRecordPipeline pipeline = new AccessRecordPipeline(properties);
+        HeaderSnapshot snapshot = new HeaderSnapshot();
+        snapshot.reset("GET", "/");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pipeline.publish(snapshot));
+        }
+        assertFalse(pipeline.publish(snapshot));
+        assertEquals(1, pipeline.getDropped());
+
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.zlikun.nginx.download;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.nginx.NginxWebApplication;
+import com.zlikun.nginx.securelink.SecureLinkSigner;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * X-Accel-Redirect 模式测试：在本地启动应用，并用一个模拟Nginx的HTTP服务代理请求，
+ * 模拟的Nginx遇到 X-Accel-Redirect 时从内部location（/protected/ -> 临时目录）输出文件，
+ * 应用的下载根目录指向不存在的目录，以证明文件内容不经过应用
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 16:40
+ */
+@Slf4j
+public class AccelRedirectTest {
+
+    private static final String INTERNAL = "/protected";
+
+    private static ConfigurableApplicationContext context;
+    private static StubNginx nginx;
+    private static final OkHttpClient client = new OkHttpClient();
+    private static final SecureLinkSigner signer = new SecureLinkSigner("salt");
+
+    @BeforeClass
+    public static void start() throws Exception {
+        Path files = Files.createTempDirectory("protected");
+        Files.createDirectories(files.resolve("a"));
+        Files.write(files.resolve("a/b.txt"), "Hello, Nginx !".getBytes(StandardCharsets.UTF_8));
+        Files.write(files.resolve("a/c d+1.txt"), "Hello, Kong !".getBytes(StandardCharsets.UTF_8));
+
+        context = SpringApplication.run(NginxWebApplication.class, "--server.port=0",
+                "--nginx.access.file=" + File.createTempFile("access-record", ".log").getAbsolutePath(),
+                "--nginx.download.root=" + files.resolve("missing"),
+                "--nginx.download.accel-redirect=" + INTERNAL,
+                "--nginx.download.accel-buffering=no",
+                "--nginx.download.accel-limit-rate=1048576");
+        nginx = new StubNginx(Integer.parseInt(context.getEnvironment().getProperty("local.server.port")), files);
+    }
+
+    @AfterClass
+    public static void stop() {
+        if (nginx != null) {
+            nginx.server.stop(0);
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void redirected() throws IOException {
+
+        try (Response response = get(signed("/download/a/b.txt"))) {
+            assertEquals(200, response.code());
+            assertEquals("Hello, Nginx !", response.body().string());
+        }
+        assertEquals(INTERNAL + "/a/b.txt", nginx.redirect);
+        assertEquals("no", nginx.buffering);
+        assertEquals("1048576", nginx.limitRate);
+
+        // 空格等字符按URI编码，由Nginx解码
+        try (Response response = get(signed("/download/a/c d+1.txt"))) {
+            assertEquals(200, response.code());
+            assertEquals("Hello, Kong !", response.body().string());
+        }
+        assertEquals(INTERNAL + "/a/c%20d+1.txt", nginx.redirect);
+    }
+
+    @Test
+    public void rejected() throws IOException {
+
+        // 默认即校验 /download/*，未签名或签名错误时由应用拒绝，不会产生 X-Accel-Redirect
+        nginx.redirect = null;
+        try (Response response = get(nginx.url("/download/a/b.txt"))) {
+            assertEquals(403, response.code());
+        }
+        try (Response response = get(nginx.url("/download/a/b.txt").newBuilder()
+                .addQueryParameter("st", signer.sign("/download/a/c.txt", Long.MAX_VALUE / 2))
+                .addQueryParameter("e", Long.toString(Long.MAX_VALUE / 2)).build())) {
+            assertEquals(403, response.code());
+        }
+        assertNull(nginx.redirect);
+
+        // 内部location不能直接访问
+        try (Response response = get(nginx.url(INTERNAL + "/a/b.txt"))) {
+            assertEquals(404, response.code());
+        }
+    }
+
+    private static HttpUrl signed(String uri) {
+        long expire = System.currentTimeMillis() / 1000 + 60;
+        return nginx.url(uri).newBuilder()
+                .addQueryParameter("st", signer.sign(uri, expire))
+                .addQueryParameter("e", Long.toString(expire)).build();
+    }
+
+    private static Response get(HttpUrl url) throws IOException {
+        return client.newCall(new Request.Builder().url(url).build()).execute();
+    }
+
+    /**
+     * 模拟Nginx：代理到应用，遇到 X-Accel-Redirect 时从内部location输出文件，
+     * 对应配置：location /protected/ { internal; alias ${files}/; }
+     */
+    static class StubNginx {
+
+        final HttpServer server;
+        final int upstream;
+        final Path files;
+        volatile String redirect;
+        volatile String buffering;
+        volatile String limitRate;
+
+        StubNginx(int upstream, Path files) throws IOException {
+            this.upstream = upstream;
+            this.files = files;
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            this.server.createContext("/", this::handle);
+            this.server.start();
+        }
+
+        HttpUrl url(String path) {
+            return new HttpUrl.Builder().scheme("http").host("127.0.0.1")
+                    .port(server.getAddress().getPort()).addPathSegments(path.substring(1)).build();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            try {
+                String uri = exchange.getRequestURI().getRawPath();
+                if (uri.startsWith(INTERNAL + "/")) {
+                    respond(exchange, 404, new byte[0]);
+                    return;
+                }
+                String query = exchange.getRequestURI().getRawQuery();
+                Request request = new Request.Builder()
+                        .url("http://127.0.0.1:" + upstream + uri + (query != null ? "?" + query : "")).build();
+                try (Response response = client.newCall(request).execute()) {
+                    String location = response.header("X-Accel-Redirect");
+                    if (location == null) {
+                        respond(exchange, response.code(), response.body().bytes());
+                        return;
+                    }
+                    redirect = location;
+                    buffering = response.header("X-Accel-Buffering");
+                    limitRate = response.header("X-Accel-Limit-Rate");
+                    String path = URLDecoder.decode(location.substring(INTERNAL.length() + 1).replace("+", "%2B"), "UTF-8");
+                    Path file = files.resolve(path);
+                    if (Files.isRegularFile(file)) {
+                        respond(exchange, 200, Files.readAllBytes(file));
+                    } else {
+                        respond(exchange, 404, new byte[0]);
+                    }
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.zlikun.nginx.download;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 文件下载测试：Range解析、条件请求判断及路径解析
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 15:30
+ */
+@Slf4j
+public class FileDownloaderTest {
+
+    private final long length = 1000;
+    private final long lastModified = 1523686533000L;
+    private final String etag = FileDownloader.etag(length, lastModified);
+    private final String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            Instant.ofEpochMilli(lastModified).atOffset(ZoneOffset.UTC));
+
+    @Test
+    public void range() {
+
+        assertRange(0, 99, ByteRange.parse("bytes=0-99", length));
+        assertRange(500, 999, ByteRange.parse("bytes=500-", length));
+        assertRange(900, 999, ByteRange.parse("bytes=-100", length));
+        assertRange(0, 999, ByteRange.parse("bytes=-2000", length));
+        assertRange(990, 999, ByteRange.parse("bytes=990-5000", length));
+        assertRange(0, 0, ByteRange.parse("BYTES=0-0", length));
+        assertEquals("bytes 0-99/1000", ByteRange.parse("bytes=0-99", length).contentRange(length));
+
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", length));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", length));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+
+        // 格式非法及多区间时忽略Range
+        assertNull(ByteRange.parse(null, length));
+        assertNull(ByteRange.parse("bytes=0-1,5-9", length));
+        assertNull(ByteRange.parse("bytes=9-5", length));
+        assertNull(ByteRange.parse("bytes=a-5", length));
+        assertNull(ByteRange.parse("items=0-5", length));
+        assertNull(ByteRange.parse("bytes=-", length));
+    }
+
+    @Test
+    public void decide() {
+
+        assertEquals("\"5ad19c85-3e8\"", etag);
+        assertEquals(200, decide(null, null, null, null).status);
+        assertEquals(206, decide("bytes=0-99", null, null, null).status);
+        assertEquals(416, decide("bytes=1000-", null, null, null).status);
+
+        // If-Range：ETag或日期一致时才按Range输出，弱ETag不匹配
+        assertEquals(206, decide("bytes=0-99", etag, null, null).status);
+        assertEquals(206, decide("bytes=0-99", date, null, null).status);
+        assertEquals(200, decide("bytes=0-99", "\"other\"", null, null).status);
+        assertEquals(200, decide("bytes=0-99", "W/" + etag, null, null).status);
+        assertEquals(200, decide("bytes=0-99", "Thu, 01 Jan 1970 00:00:00 GMT", null, null).status);
+
+        // If-None-Match 优先于 If-Modified-Since
+        assertEquals(304, decide(null, null, "\"x\", W/" + etag, null).status);
+        assertEquals(304, decide(null, null, "*", null).status);
+        // 与事件循环服务共用同一个解析器：引号内的逗号不分隔ETag，格式错误的列表被忽略
+        assertEquals(200, decide(null, null, "\"x, " + etag.substring(1), null).status);
+        assertEquals(200, decide(null, null, "x, " + etag, null).status);
+        assertEquals(200, decide(null, null, "\"x\"", date).status);
+        assertEquals(304, decide("bytes=0-99", null, null, date).status);
+        assertEquals(200, decide(null, null, null, "Thu, 01 Jan 1970 00:00:00 GMT").status);
+        assertEquals(200, decide(null, null, null, "invalid").status);
+    }
+
+    @Test
+    public void resolve() throws Exception {
+
+        Path root = Files.createTempDirectory("download");
+        Path sub = Files.createDirectories(root.resolve("a"));
+        Files.write(sub.resolve("b.txt"), "Hello, Nginx !".getBytes());
+        Files.write(root.getParent().resolve(root.getFileName() + ".secret"), new byte[1]);
+
+        DownloadProperties properties = new DownloadProperties();
+        properties.setRoot(root.toString());
+        FileDownloader downloader = new FileDownloader(properties);
+        assertNotNull(downloader.resolve("/a/b.txt"));
+        assertNotNull(downloader.resolve("/a/../a/b.txt"));
+        assertNull(downloader.resolve("/a"));
+        assertNull(downloader.resolve("/a/c.txt"));
+        assertNull(downloader.resolve("/../" + root.getFileName() + ".secret"));
+        assertNull(downloader.resolve("/a/\u0000.txt"));
+    }
+
+    @Test
+    public void accelLocation() throws Exception {
+
+        assertEquals("/protected/a/b.zip", FileDownloader.accelLocation("/protected", "/a/b.zip"));
+        assertEquals("/protected/a/b.zip", FileDownloader.accelLocation("/protected/", "a/./b.zip"));
+        assertEquals("/protected/%E4%B8%8B%E8%BD%BD/%E6%96%87%E4%BB%B6%201.txt",
+                FileDownloader.accelLocation("/protected", "/下载/文件 1.txt"));
+        assertEquals("/protected/a%3Fv=1", FileDownloader.accelLocation("/protected", "/a?v=1"));
+        assertNull(FileDownloader.accelLocation("/protected", "/../etc/passwd"));
+        assertNull(FileDownloader.accelLocation("/protected", "/a/../../b"));
+        assertNull(FileDownloader.accelLocation("/protected", "/a/"));
+        assertNull(FileDownloader.accelLocation("/protected", ""));
+    }
+
+    private FileDownloader.Decision decide(String range, String ifRange, String ifNoneMatch, String ifModifiedSince) {
+        return FileDownloader.decide(length, lastModified, etag, range, ifRange, ifNoneMatch, ifModifiedSince);
+    }
+
+    private static void assertRange(long start, long end, ByteRange range) {
+        assertNotNull(range);
+        assertEquals(start, range.getStart());
+        assertEquals(end, range.getEnd());
+    }
+
+}
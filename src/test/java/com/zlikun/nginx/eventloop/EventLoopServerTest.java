@@ -0,0 +1,217 @@
+package com.zlikun.nginx.eventloop;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderCaptureProperties;
+import com.zlikun.nginx.response.PreEncodedResponse;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 事件循环服务测试，使用随机端口在本地启动
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 15:10
+ */
+@Slf4j
+public class EventLoopServerTest {
+
+    private Path file;
+    private AccessRecordPipeline pipeline;
+    private HeaderCapture headerCapture;
+    private EventLoopServer server;
+
+    private OkHttpClient client = new OkHttpClient.Builder()
+            .build();
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("access-record", ".log");
+        AccessRecordProperties accessProperties = new AccessRecordProperties();
+        accessProperties.setFile(file.toString());
+        pipeline = new AccessRecordPipeline(accessProperties);
+        pipeline.start();
+        headerCapture = new HeaderCapture(new HeaderCaptureProperties(), pipeline);
+
+        EventLoopProperties properties = new EventLoopProperties();
+        properties.setPort(0);
+        properties.setWorkers(2);
+        server = new EventLoopServer(properties, headerCapture,
+                new PreEncodedResponse("Hello, Nginx !", MediaType.TEXT_PLAIN, true));
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop();
+        pipeline.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void get() throws IOException {
+
+        for (String path : new String[]{"/", "/nginx", "/nginx?from=kong"}) {
+            Request request = new Request.Builder()
+                    .url("http://127.0.0.1:" + server.getPort() + path)
+                    .header("X-Real-IP", "192.168.0.104")
+                    .get()
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                // HTTP_1_1 200
+                log.info("{} {} {}", response.protocol().name(), response.code(), response.message());
+                assertEquals(200, response.code());
+                assertEquals("text/plain;charset=UTF-8", response.header("Content-Type"));
+                assertEquals("Hello, Nginx !", response.body().string());
+            }
+        }
+        // 3个请求都被采集
+        assertEquals(3, headerCapture.getCaptured());
+
+    }
+
+    @Test
+    public void status() throws IOException {
+
+        String base = "http://127.0.0.1:" + server.getPort();
+        try (Response response = client.newCall(new Request.Builder().url(base + "/apache").build()).execute()) {
+            assertEquals(404, response.code());
+        }
+        try (Response response = client.newCall(new Request.Builder().url(base + "/nginx").head().build()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("14", response.header("Content-Length"));
+        }
+        String etag;
+        try (Response response = client.newCall(new Request.Builder().url(base + "/nginx").build()).execute()) {
+            etag = response.header("ETag");
+        }
+        try (Response response = client.newCall(new Request.Builder().url(base + "/nginx")
+                .header("If-None-Match", etag).build()).execute()) {
+            assertEquals(304, response.code());
+        }
+
+    }
+
+    @Test
+    public void pipelining() throws IOException {
+
+        // 同一连接上连续发送3个请求，最后一个要求关闭连接
+        String text = exchange("GET / HTTP/1.1\r\nHost: a\r\n\r\n"
+                + "GET /nginx HTTP/1.1\r\nHost: a\r\n\r\n"
+                + "GET /nginx HTTP/1.1\r\nHost: a\r\nConnection: close\r\n\r\n");
+        assertEquals(3, count(text, "HTTP/1.1 200 "));
+        assertTrue(text.endsWith("Hello, Nginx !"));
+
+    }
+
+    @Test
+    public void http10() throws IOException {
+
+        // HTTP/1.0 长连接需要在响应中回显 keep-alive，不带 keep-alive 的请求按短连接处理
+        String text = exchange("GET /nginx HTTP/1.0\r\nConnection: keep-alive\r\n\r\n"
+                + "HEAD /nginx HTTP/1.0\r\nConnection: Keep-Alive\r\n\r\n"
+                + "GET /nginx HTTP/1.0\r\n\r\n");
+        assertEquals(3, count(text, "HTTP/1.1 200 "));
+        assertEquals(2, count(text, "Connection: keep-alive\r\n"));
+        assertEquals(1, count(text, "Connection: close\r\n"));
+        assertTrue(text.endsWith("Hello, Nginx !"));
+
+    }
+
+    @Test
+    public void backpressure() throws IOException {
+
+        // 响应总量远超写缓冲和socket缓冲，未写出的部分由连接暂存，写完后继续解析剩余请求
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("GET /nginx HTTP/1.1\r\nHost: a\r\n\r\n");
+        }
+        sb.append("GET /nginx HTTP/1.1\r\nHost: a\r\nConnection: close\r\n\r\n");
+        assertEquals(20001, count(exchange(sb.toString()), "HTTP/1.1 200 "));
+
+    }
+
+    @Test
+    public void body() throws IOException {
+
+        // GET请求体按 Content-Length 跳过，"GET /apache" 不会被当作下一个请求
+        String text = exchange("GET /nginx HTTP/1.1\r\nHost: a\r\nContent-Length: 26\r\n\r\n"
+                + "GET /apache HTTP/1.1\r\n\r\n\r\n"
+                + "HEAD /nginx HTTP/1.1\r\nHost: a\r\nConnection: close\r\n\r\n");
+        assertEquals(2, count(text, "HTTP/1.1 200 "));
+        assertEquals(0, count(text, "HTTP/1.1 404 "));
+
+        // 不支持的 Transfer-Encoding 和非法的 Content-Length 返回400并关闭连接
+        text = exchange("GET /nginx HTTP/1.1\r\nHost: a\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "0\r\n\r\n"
+                + "GET /nginx HTTP/1.1\r\nHost: a\r\n\r\n");
+        assertTrue(text.startsWith("HTTP/1.1 400 "));
+        assertEquals(0, count(text, "HTTP/1.1 200 "));
+        text = exchange("GET /nginx HTTP/1.1\r\nHost: a\r\nContent-Length: -1\r\n\r\n");
+        assertTrue(text.startsWith("HTTP/1.1 400 "));
+
+    }
+
+    @Test
+    public void split() throws Exception {
+
+        // 请求和请求体分多次到达，未解析完的部分暂存在连接上
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream os = socket.getOutputStream();
+            for (String part : new String[]{"GET /nginx HTTP/1.1\r\nHost: a\r\nContent-Len", "gth: 6\r\n\r\nab",
+                    "cdef", "GET /nginx HTTP/1.1\r\nConnection: close\r\n\r\n"}) {
+                os.write(part.getBytes(StandardCharsets.ISO_8859_1));
+                os.flush();
+                Thread.sleep(50);
+            }
+            assertEquals(2, count(read(socket), "HTTP/1.1 200 "));
+        }
+
+    }
+
+    /**
+     * 在一个新连接上发送原始请求，读取全部响应直到服务端关闭连接
+     */
+    private String exchange(String requests) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream os = socket.getOutputStream();
+            os.write(requests.getBytes(StandardCharsets.ISO_8859_1));
+            os.flush();
+            return read(socket);
+        }
+    }
+
+    private static String read(Socket socket) throws IOException {
+        InputStream is = socket.getInputStream();
+        StringBuilder sb = new StringBuilder();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = is.read(buf)) > 0) {
+            sb.append(new String(buf, 0, n, StandardCharsets.ISO_8859_1));
+        }
+        return sb.toString();
+    }
+
+    private static int count(String text, String token) {
+        return text.split(token, -1).length - 1;
+    }
+
+}
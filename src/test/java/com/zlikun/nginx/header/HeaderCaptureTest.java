@@ -0,0 +1,125 @@
+package com.zlikun.nginx.header;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.access.OverflowPolicy;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 请求消息头采集测试，管道不启动后台线程，只统计发布的记录数
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 18:00
+ */
+public class HeaderCaptureTest {
+
+    private HeaderCaptureProperties properties;
+    private AccessRecordPipeline pipeline;
+    private HeaderCapture capture;
+
+    @Before
+    public void setUp() {
+        AccessRecordProperties records = new AccessRecordProperties();
+        records.setCapacity(1 << 16);
+        records.setOverflowPolicy(OverflowPolicy.DROP);
+        pipeline = new AccessRecordPipeline(records);
+        properties = new HeaderCaptureProperties();
+        capture = new HeaderCapture(properties, pipeline);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/nginx");
+        request.addHeader("Host", "192.168.0.9");
+        request.addHeader("X-Request-Id", "1");
+        return request;
+    }
+
+    @Test
+    public void full() {
+        properties.setMode(HeaderCaptureMode.FULL);
+        for (int i = 0; i < 10; i++) {
+            capture.capture(request());
+        }
+        assertEquals(10, capture.getCaptured());
+        assertEquals(0, capture.getSkipped());
+        assertEquals(10, pipeline.getPublished());
+    }
+
+    @Test
+    public void off() {
+        properties.setMode(HeaderCaptureMode.OFF);
+        for (int i = 0; i < 10; i++) {
+            capture.capture(request());
+        }
+        assertNull(capture.begin("GET", "/"));
+        assertEquals(0, capture.getCaptured());
+        assertEquals(11, capture.getSkipped());
+        assertEquals(0, pipeline.getPublished());
+    }
+
+    @Test
+    public void sampled() {
+        properties.setMode(HeaderCaptureMode.SAMPLED);
+        properties.setSampleRate(4);
+        int requests = 4000;
+        for (int i = 0; i < requests; i++) {
+            capture.capture(request());
+        }
+        // 期望1000个，二项分布的标准差约27
+        assertEquals(requests, capture.getCaptured() + capture.getSkipped());
+        assertTrue("captured: " + capture.getCaptured(), capture.getCaptured() > 800 && capture.getCaptured() < 1200);
+        assertEquals(capture.getCaptured(), pipeline.getPublished());
+
+        // 抽样比例小于等于1时全部采集
+        properties.setSampleRate(1);
+        long captured = capture.getCaptured();
+        capture.capture(request());
+        assertEquals(captured + 1, capture.getCaptured());
+    }
+
+    @Test
+    public void snapshot() throws InterruptedException {
+        properties.setMode(HeaderCaptureMode.FULL);
+        HeaderSnapshot first = capture.begin("GET", "/a");
+        first.add("host", "192.168.0.9");
+        first.add("x-request-id", "1");
+        assertEquals(2, first.size());
+        assertEquals("x-request-id", first.name(1));
+        assertEquals("1", first.value(1));
+
+        // 同一线程复用快照，并清空上一次的消息头
+        HeaderSnapshot second = capture.begin("POST", "/b");
+        assertSame(first, second);
+        assertEquals(0, second.size());
+        assertEquals("POST", second.getMethod());
+        assertEquals("/b", second.getUri());
+
+        AtomicReference<HeaderSnapshot> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(capture.begin("GET", "/c")));
+        thread.start();
+        thread.join();
+        assertNotSame(first, other.get());
+    }
+
+    @Test
+    public void grow() {
+        HeaderSnapshot snapshot = new HeaderSnapshot();
+        snapshot.reset("GET", "/");
+        for (int i = 0; i < HeaderSnapshot.INITIAL_CAPACITY * 2 + 1; i++) {
+            snapshot.add("x-header-" + i, String.valueOf(i));
+        }
+        assertEquals(HeaderSnapshot.INITIAL_CAPACITY * 2 + 1, snapshot.size());
+        assertEquals("x-header-40", snapshot.name(40));
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.zlikun.nginx.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.eventloop.EventLoopProperties;
+import com.zlikun.nginx.eventloop.EventLoopServer;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderCaptureMode;
+import com.zlikun.nginx.header.HeaderCaptureProperties;
+import com.zlikun.nginx.response.PreEncodedResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 开环压测工具测试，以本地启动的事件循环服务为目标，不依赖外部网络
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+@Slf4j
+public class LoadGeneratorTest {
+
+    @Test
+    public void run() throws Exception {
+
+        HeaderCaptureProperties headerProperties = new HeaderCaptureProperties();
+        headerProperties.setMode(HeaderCaptureMode.OFF);
+        EventLoopProperties properties = new EventLoopProperties();
+        properties.setPort(0);
+        EventLoopServer server = new EventLoopServer(properties,
+                new HeaderCapture(headerProperties, new AccessRecordPipeline(new AccessRecordProperties())),
+                new PreEncodedResponse("Hello, Nginx !", MediaType.TEXT_PLAIN, false));
+        server.start();
+
+        LoadOptions options = LoadOptions.parse(new String[]{
+                "--url=http://127.0.0.1:" + server.getPort() + "/nginx",
+                "--rate=500", "--duration=2", "--warmup=1", "--connections=16"});
+        LoadGenerator generator = new LoadGenerator(options, options.getUrl());
+        try {
+            LoadReport report = generator.run();
+            log.info(new ObjectMapper().writeValueAsString(report));
+            assertEquals(1000, report.getScheduled());
+            assertEquals(report.getScheduled(), report.getCompleted());
+            assertEquals(0, report.getIoErrors() + report.getHttpErrors());
+            assertEquals(Long.valueOf(1000), report.getStatusCodes().get(200));
+            assertTrue(report.getLatency().getP99() >= report.getLatency().getP50());
+        } finally {
+            generator.shutdown();
+            server.stop();
+        }
+
+    }
+
+    @Test
+    public void queueing() throws Exception {
+
+        // 每个请求耗时50ms，只有1个连接：请求在Dispatcher中排队，排队时间计入延迟，但不计入服务时间
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // JDK内置服务不能可靠地复用连接，每次响应后关闭，避免复用已关闭的连接产生I/O错误
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+
+        LoadOptions options = LoadOptions.parse(new String[]{
+                "--url=http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                "--rate=50", "--duration=1", "--warmup=0", "--connections=1"});
+        LoadGenerator generator = new LoadGenerator(options, options.getUrl());
+        try {
+            LoadReport report = generator.run();
+            log.info(new ObjectMapper().writeValueAsString(report));
+            assertEquals(Long.valueOf(50), report.getStatusCodes().get(200));
+            assertTrue(report.getLatency().getMax() > 1000);
+            assertTrue(report.getServiceTime().getMax() < 500);
+        } finally {
+            generator.shutdown();
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse() {
+        LoadOptions.parse(new String[]{"--rate=100"});
+    }
+
+}
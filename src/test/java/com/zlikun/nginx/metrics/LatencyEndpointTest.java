@@ -0,0 +1,63 @@
+package com.zlikun.nginx.metrics;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 接口延迟端点及记录过滤器测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 19:40
+ */
+public class LatencyEndpointTest {
+
+    @Test
+    public void quantile() {
+
+        assertEquals("0.5", LatencyEndpoint.quantile(50));
+        assertEquals("0.99", LatencyEndpoint.quantile(99));
+        assertEquals("0.999", LatencyEndpoint.quantile(99.9));
+        assertEquals("0.9999", LatencyEndpoint.quantile(99.99));
+        assertEquals("1", LatencyEndpoint.quantile(100));
+
+        LatencyMetrics metrics = new LatencyMetrics(new LatencyMetricsProperties());
+        metrics.record("/nginx", 200, 1_000_000);
+        String text = new LatencyEndpoint(metrics).invoke();
+        assertTrue(text.contains("quantile=\"0.999\"} 0.001"));
+        assertFalse(text.contains("0.9990000000000001"));
+
+    }
+
+    @Test
+    public void failure() throws Exception {
+
+        LatencyMetrics metrics = new LatencyMetrics(new LatencyMetricsProperties());
+        LatencyMetricsFilter filter = new LatencyMetricsFilter(metrics);
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/nginx"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        throw new ServletException("handler failed");
+                    });
+            fail();
+        } catch (ServletException e) {
+            // 异常继续向外抛出，由容器返回500
+        }
+        filter.doFilter(new MockHttpServletRequest("GET", "/nginx"), new MockHttpServletResponse(), (request, response) -> {
+        });
+
+        StringBuilder sb = new StringBuilder();
+        metrics.forEach((handler, status, histogram) -> sb.append(status).append('=').append(histogram.total().getCount()).append(' '));
+        assertTrue(sb.toString(), sb.indexOf("5xx=1") >= 0);
+        assertTrue(sb.toString(), sb.indexOf("2xx=1") >= 0);
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.zlikun.nginx.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 无锁延迟直方图测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 17:40
+ */
+@Slf4j
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentile() {
+
+        LatencyHistogram histogram = new LatencyHistogram(3_600_000_000L);
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMin());
+        assertEquals(100_000_000, snapshot.getMax());
+        // 相对误差不超过 1/256
+        assertEquals(50_000_000, snapshot.getValueAtPercentile(50), 50_000_000 / 256.0);
+        assertEquals(99_000_000, snapshot.getValueAtPercentile(99), 99_000_000 / 256.0);
+        assertEquals(99_900_000, snapshot.getValueAtPercentile(99.9), 99_900_000 / 256.0);
+        assertEquals(100_000_000, snapshot.getValueAtPercentile(100));
+        assertEquals(50_000_500, snapshot.getMean(), 0.001);
+
+    }
+
+    @Test
+    public void small() {
+
+        // 小于 2^(precisionBits+1) 的值精确记录
+        LatencyHistogram histogram = new LatencyHistogram(1000);
+        for (int i = 0; i < 500; i++) {
+            histogram.record(i);
+        }
+        histogram.record(5000);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(250, snapshot.getValueAtPercentile(50));
+        // 超出上限的值按上限记录
+        assertEquals(1000, snapshot.getMax());
+
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException {
+
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        int threads = 8, perThread = 100_000;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertEquals(threads * perThread, histogram.snapshot().getCount());
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.zlikun.nginx.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 滑动窗口直方图测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 20:10
+ */
+public class WindowedHistogramTest {
+
+    @Test
+    public void window() {
+
+        // 60秒窗口，6个时间片，每片10秒
+        WindowedHistogram histogram = new WindowedHistogram(1_000_000, 60_000, 6);
+        long now = 1_524_100_000_000L;
+        histogram.record(100, now);
+        histogram.record(200, now + 15_000);
+        histogram.record(300, now + 35_000);
+
+        assertEquals(3, histogram.window(now + 40_000).getCount());
+        // 第一个样本所在时间片已滑出窗口
+        assertEquals(2, histogram.window(now + 65_000).getCount());
+        assertEquals(200, histogram.window(now + 65_000).getMin());
+        // 时间片被复用时先清空
+        histogram.record(400, now + 60_000);
+        assertEquals(3, histogram.window(now + 60_000).getCount());
+        assertEquals(0, histogram.window(now + 200_000).getCount());
+        // 累计数据不受窗口影响
+        assertEquals(4, histogram.total().getCount());
+        assertEquals(1000, histogram.total().getSum());
+
+    }
+
+}
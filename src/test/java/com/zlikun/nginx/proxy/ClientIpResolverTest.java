@@ -0,0 +1,89 @@
+package com.zlikun.nginx.proxy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 客户端IP解析测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 21:00
+ */
+public class ClientIpResolverTest {
+
+    private final CidrTrie trusted = new CidrTrie()
+            .add("127.0.0.1")
+            .add("192.168.0.0/16")
+            .add("10.0.0.0/8")
+            .add("fd00::/8");
+
+    private final ClientIpResolver resolver = new ClientIpResolver(trusted);
+
+    @Test
+    public void trie() {
+
+        assertTrue(trusted.contains("192.168.0.104"));
+        assertTrue(trusted.contains("10.255.255.255"));
+        assertTrue(trusted.contains("127.0.0.1"));
+        assertFalse(trusted.contains("127.0.0.2"));
+        assertFalse(trusted.contains("172.16.0.1"));
+        assertTrue(trusted.contains("fd12:3456::1"));
+        assertTrue(trusted.contains("[fd00::1]"));
+        assertFalse(trusted.contains("fe80::1%eth0"));
+        // IPv4映射的IPv6地址按IPv4匹配
+        assertTrue(trusted.contains("::ffff:192.168.0.9"));
+        assertFalse(trusted.contains("192.168.0"));
+        assertFalse(trusted.contains("192.168.0.256"));
+        assertFalse(trusted.contains("1::2::3"));
+
+        assertTrue(new CidrTrie().add("0.0.0.0/0").contains("8.8.8.8"));
+        assertTrue(new CidrTrie().add("::/0").contains("2001:db8::1"));
+        assertTrue(new CidrTrie().isEmpty());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid() {
+        new CidrTrie().add("192.168.0.0/33");
+    }
+
+    @Test
+    public void resolve() {
+
+        // 直连地址不受信任，忽略伪造的消息头
+        assertEquals("8.8.8.8", resolver.resolve("8.8.8.8", "1.1.1.1", "2.2.2.2"));
+        // 经Kong(192.168.0.104)和Nginx(127.0.0.1)代理
+        assertEquals("61.135.169.121", resolver.resolve("127.0.0.1", "61.135.169.121, 192.168.0.104", null));
+        // 客户端伪造了最左侧地址，取最右侧第一个不受信任的地址
+        assertEquals("61.135.169.121", resolver.resolve("127.0.0.1", "1.1.1.1, 61.135.169.121,192.168.0.104", null));
+        // 全部受信任时取最左侧地址
+        assertEquals("10.0.0.21", resolver.resolve("127.0.0.1", "10.0.0.21, 192.168.0.104", null));
+        // 遇到非法地址时停止
+        assertEquals("192.168.0.104", resolver.resolve("127.0.0.1", "unknown, 192.168.0.104", null));
+        // 没有 X-Forwarded-For 时采用 X-Real-IP
+        assertEquals("61.135.169.121", resolver.resolve("192.168.0.104", null, "61.135.169.121"));
+        assertEquals("192.168.0.104", resolver.resolve("192.168.0.104", null, null));
+        // IPv6
+        assertEquals("2001:db8::1", resolver.resolve("127.0.0.1", "2001:db8::1, fd00::2", null));
+        assertEquals("[2001:db8::1]", resolver.resolve("127.0.0.1", "fe80::1%eth0, [2001:db8::1], 10.0.0.1, [fd00::2]", null));
+
+    }
+
+    @Test
+    public void longChain() {
+
+        // 每一跳只在自身范围内查找分隔符，大量受信任的IPv4跳之前有IPv6地址时也不会反复扫描整个消息头
+        StringBuilder sb = new StringBuilder("2001:db8::1");
+        for (int i = 0; i < 100_000; i++) {
+            sb.append(", 10.0.").append(i / 250 % 250).append('.').append(i % 250 + 1);
+        }
+        long start = System.nanoTime();
+        assertEquals("2001:db8::1", resolver.resolve("127.0.0.1", sb.toString(), null));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.zlikun.nginx.response;
+
+import com.zlikun.nginx.access.AccessRecordPipeline;
+import com.zlikun.nginx.access.AccessRecordProperties;
+import com.zlikun.nginx.controller.NginxController;
+import com.zlikun.nginx.header.HeaderCapture;
+import com.zlikun.nginx.header.HeaderCaptureMode;
+import com.zlikun.nginx.header.HeaderCaptureProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.web.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 预编码响应与 ResponseEntity 输出的对比测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 18:30
+ */
+public class HelloResponseTest {
+
+    private ResponseProperties properties;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        // 与 Spring Boot 的自动配置一致：UTF-8 的 StringHttpMessageConverter 加默认的消息转换器
+        StringHttpMessageConverter string = new StringHttpMessageConverter(StandardCharsets.UTF_8);
+        string.setWriteAcceptCharset(false);
+        HttpMessageConverters converters = new HttpMessageConverters(string);
+
+        properties = new ResponseProperties();
+        HeaderCaptureProperties headerProperties = new HeaderCaptureProperties();
+        headerProperties.setMode(HeaderCaptureMode.OFF);
+        HeaderCapture capture = new HeaderCapture(headerProperties, new AccessRecordPipeline(new AccessRecordProperties()));
+        NginxController controller = new NginxController(capture, new HelloResponse(properties, converters));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(converters.getConverters().toArray(new HttpMessageConverter[0]))
+                .build();
+    }
+
+    private MockHttpServletResponse perform(boolean preEncoded, String accept) throws Exception {
+        properties.setPreEncoded(preEncoded);
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/nginx");
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    @Test
+    public void sameOnTheWire() throws Exception {
+        for (String accept : Arrays.asList(null, "*/*",
+                "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8",
+                "application/json", "application/*", "text/*", "text/plain;q=0.5, text/html",
+                "text/html;charset=ISO-8859-1", "image/png")) {
+            MockHttpServletResponse expected = perform(false, accept);
+            MockHttpServletResponse actual = perform(true, accept);
+            assertEquals(accept, expected.getStatus(), actual.getStatus());
+            assertEquals(accept, expected.getHeader(HttpHeaders.CONTENT_TYPE), actual.getHeader(HttpHeaders.CONTENT_TYPE));
+            assertEquals(accept, expected.getHeader(HttpHeaders.CONTENT_LENGTH), actual.getHeader(HttpHeaders.CONTENT_LENGTH));
+            assertEquals(accept, expected.getContentAsString(), actual.getContentAsString());
+        }
+        assertEquals("text/html;charset=UTF-8", perform(true, "text/html,*/*;q=0.8").getHeader(HttpHeaders.CONTENT_TYPE));
+    }
+
+    @Test
+    public void notAcceptable() throws Exception {
+        assertEquals(406, perform(false, "text/plain;q=").getStatus());
+        assertEquals(406, perform(true, "text/plain;q=").getStatus());
+    }
+
+    @Test
+    public void etag() throws Exception {
+        PreEncodedResponse response = new PreEncodedResponse(HelloResponse.BODY, MediaType.TEXT_PLAIN, true);
+        String etag = response.getEtag();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"1\", W/" + etag);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        response.write(request, notModified);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(etag, notModified.getHeader(HttpHeaders.ETAG));
+
+        // 只是包含ETag的子串时不匹配
+        request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"x" + etag.substring(1));
+        MockHttpServletResponse ok = new MockHttpServletResponse();
+        response.write(request, ok);
+        assertEquals(200, ok.getStatus());
+        assertEquals(HelloResponse.BODY, ok.getContentAsString());
+
+        assertTrue(PreEncodedResponse.matches("*", etag));
+        assertTrue(PreEncodedResponse.matches("\"a,b\" ,\t" + etag, etag));
+        assertFalse(PreEncodedResponse.matches("\"a,b\", " + etag.substring(0, etag.length() - 1), etag));
+        assertFalse(PreEncodedResponse.matches("\"" + etag + "\"", etag));
+    }
+
+}
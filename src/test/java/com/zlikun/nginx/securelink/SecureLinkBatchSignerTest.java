@@ -0,0 +1,139 @@
+package com.zlikun.nginx.securelink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zlikun.nginx.controller.SecureLinkController;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量签名测试，多块并行时输出顺序与输入一致，结果与单个签名一致
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 11:50
+ */
+@Slf4j
+public class SecureLinkBatchSignerTest {
+
+    private final SecureLinkSigner signer = new SecureLinkSigner("salt");
+    private final SecureLinkCache cache = new SecureLinkCache(signer, ExpiryPolicy.bucketed(60, 300), 1024);
+    private final SecureLinkBatchSigner batchSigner = new SecureLinkBatchSigner(cache, new ForkJoinPool(4));
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @After
+    public void shutdown() {
+        batchSigner.shutdown();
+    }
+
+    @Test
+    public void ordered() throws Exception {
+
+        // 跨越多个块和在途上限，最后一块不满
+        int n = SecureLinkBatchSigner.CHUNK_SIZE * 20 + 7;
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            input.append("/file-").append(i).append(".zip\n");
+            if (i % 100 == 0) {
+                input.append("\n");
+            }
+        }
+
+        StringWriter out = new StringWriter();
+        long count = batchSigner.sign(new BufferedReader(new StringReader(input.toString())),
+                ExpiryPolicy.at(1523686533L), "http://k.zlikun.com", out);
+        assertEquals(n, count);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(n, lines.length);
+        for (int i = 0; i < n; i++) {
+            JsonNode node = mapper.readTree(lines[i]);
+            String path = "/file-" + i + ".zip";
+            assertEquals(path, node.get("path").asText());
+            assertEquals(signer.sign(path, 1523686533L), node.get("st").asText());
+            assertEquals(1523686533L, node.get("e").asLong());
+            assertEquals("http://k.zlikun.com" + signer.link(path, 1523686533L), node.get("url").asText());
+        }
+    }
+
+    @Test
+    public void escaped() throws Exception {
+
+        StringWriter out = new StringWriter();
+        String path = "/a\"b\\c\u0001/下载?v=1";
+        batchSigner.sign(new BufferedReader(new StringReader(path)), ExpiryPolicy.ttl(60), null, out);
+
+        JsonNode node = mapper.readTree(out.toString());
+        assertEquals(path, node.get("path").asText());
+        long expire = node.get("e").asLong();
+        // 签名不含查询串，url中的路径百分号编码
+        String token = signer.sign("/a\"b\\c\u0001/下载", expire);
+        assertEquals(token, node.get("st").asText());
+        assertEquals("/a%22b%5Cc%01/%E4%B8%8B%E8%BD%BD?v=1&st=" + token + "&e=" + expire, node.get("url").asText());
+        log.info("{}", out);
+    }
+
+    @Test
+    public void cached() throws Exception {
+
+        // 默认过期策略与缓存一致，重复的路径命中缓存，且与单个链接的签名相同
+        String input = "/a.zip\n/b.zip?v=1\n/a.zip\n/b.zip?v=2\n";
+        StringWriter out = new StringWriter();
+        batchSigner.sign(new BufferedReader(new StringReader(input)), ExpiryPolicy.bucketed(60, 300), null, out);
+        String[] lines = out.toString().split("\n");
+        long expire = mapper.readTree(lines[0]).get("e").asLong();
+        assertEquals(signer.sign("/a.zip", expire), mapper.readTree(lines[2]).get("st").asText());
+        assertEquals(signer.sign("/b.zip", expire), mapper.readTree(lines[3]).get("st").asText());
+        assertTrue(cache.getHits() >= 2);
+
+        // 指定了ttl时直接签名，不占用缓存
+        long hits = cache.getHits(), misses = cache.getMisses();
+        batchSigner.sign(new BufferedReader(new StringReader(input)), ExpiryPolicy.ttl(7), null, new StringWriter());
+        assertEquals(hits, cache.getHits());
+        assertEquals(misses, cache.getMisses());
+
+    }
+
+    @Test
+    public void encode() {
+
+        String[][] cases = {
+                {"/nginx-1.14.0.tar.gz", "/nginx-1.14.0.tar.gz"},
+                {"/a b/100%.txt", "/a%20b/100%25.txt"},
+                {"/emoji/😀.png", "/emoji/%F0%9F%98%80.png"},
+                {"/d?name=a%20b&x=下", "/d?name=a%20b&x=%E4%B8%8B"},
+                {"/q#frag", "/q%23frag"},
+        };
+        for (String[] c : cases) {
+            StringBuilder sb = new StringBuilder();
+            SecureLinkBatchSigner.encode(c[0], sb);
+            assertEquals(c[0], c[1], sb.toString());
+        }
+
+    }
+
+    @Test
+    public void negativeTtl() throws Exception {
+
+        SecureLinkController controller = new SecureLinkController(batchSigner, new SecureLinkProperties());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc.perform(post("/secure-link/batch").param("ttl", "-1").content("/a.zip"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/secure-link/batch").param("expire", "-1").content("/a.zip"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.zlikun.nginx.securelink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分桶过期和链接缓存测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 14:20
+ */
+@Slf4j
+public class SecureLinkCacheTest {
+
+    private final SecureLinkSigner signer = new SecureLinkSigner("salt");
+
+    @Test
+    public void bucketed() {
+
+        ExpiryPolicy policy = ExpiryPolicy.bucketed(60, 300);
+        assertEquals(600, policy.expire(540));
+        assertEquals(600, policy.expire(300));
+        assertEquals(900, policy.expire(541));
+        // 有效期不少于ttl，不超过 ttl + bucket
+        for (long now = 1523686000L; now < 1523687000L; now++) {
+            long expire = policy.expire(now);
+            assertEquals(0, expire % 300);
+            assertTrue(expire - now >= 60 && expire - now < 360);
+        }
+
+        assertEquals(1523686593L, ExpiryPolicy.bucketed(60, 1).expire(1523686533L));
+        assertEquals(1523686593L, ExpiryPolicy.ttl(60).expire(1523686533L));
+        assertEquals(100, ExpiryPolicy.at(100).expire(1523686533L));
+    }
+
+    @Test
+    public void cached() {
+
+        SecureLinkCache cache = new SecureLinkCache(signer, ExpiryPolicy.bucketed(60, 300), 16);
+        long now = 1523686533L;
+        long expire = cache.expire(now);
+        String link = cache.link("/nginx.tar.gz", now);
+        assertEquals(signer.link("/nginx.tar.gz", expire), link);
+        assertEquals(signer.sign("/nginx.tar.gz", expire), cache.sign("/nginx.tar.gz", now));
+
+        // 同一时间桶内链接不变且命中缓存
+        for (long t = now; cache.expire(t) == expire; t++) {
+            assertEquals(link, cache.link("/nginx.tar.gz", t));
+        }
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.getHits() > 1);
+
+        // 进入下一个时间桶后生成新链接
+        String next = cache.link("/nginx.tar.gz", expire - 59);
+        assertNotEquals(link, next);
+        assertEquals(signer.link("/nginx.tar.gz", expire + 300), next);
+        assertEquals(signer.link("/d?v=1", expire), cache.link("/d?v=1", now));
+        // 带查询串时签名只覆盖路径，与Nginx的 $uri 一致
+        assertEquals(signer.sign("/d", expire), cache.sign("/d?v=1", now));
+        assertTrue(cache.link("/d?v=1", now).startsWith("/d?v=1&st=" + signer.sign("/d", expire) + "&e="));
+    }
+
+    @Test
+    public void evicted() {
+
+        // 槽位数远小于资源数时结果仍然正确
+        SecureLinkCache cache = new SecureLinkCache(signer, ExpiryPolicy.bucketed(60, 300), 4);
+        long now = 1523686533L;
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 100; i++) {
+                String uri = "/file-" + i;
+                assertEquals(signer.link(uri, cache.expire(now)), cache.link(uri, now));
+            }
+        }
+        assertEquals(300, cache.getHits() + cache.getMisses());
+        log.info("hits = {}, misses = {}", cache.getHits(), cache.getMisses());
+
+        SecureLinkCache disabled = new SecureLinkCache(signer, ExpiryPolicy.ttl(60), 0);
+        assertEquals(signer.link("/nginx.tar.gz", now + 60), disabled.link("/nginx.tar.gz", now));
+        assertEquals(0, disabled.getHits() + disabled.getMisses());
+    }
+
+}
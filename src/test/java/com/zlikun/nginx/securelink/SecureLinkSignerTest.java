@@ -0,0 +1,109 @@
+package com.zlikun.nginx.securelink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 防盗链签名器测试，与 SecureLinkTest 中基于commons-codec的写法对比输出
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 9:30
+ */
+@Slf4j
+public class SecureLinkSignerTest {
+
+    private final String salt = "salt";
+    private final SecureLinkSigner signer = new SecureLinkSigner(salt);
+
+    /**
+     * SecureLinkTest 中的写法
+     */
+    private String expected(String uri, long expire) {
+        return Base64.encodeBase64URLSafeString(DigestUtils.md5(salt + uri + expire));
+    }
+
+    @Test
+    public void compatible() {
+
+        long expire = System.currentTimeMillis() / 1000 + 60;
+        assertEquals(expected("/nginx.tar.gz", expire), signer.sign("/nginx.tar.gz", expire));
+        assertEquals("/nginx.tar.gz?st=" + expected("/nginx.tar.gz", expire) + "&e=" + expire,
+                signer.link("/nginx.tar.gz", expire));
+        // Nginx的 $uri 不含查询串，签名只覆盖路径
+        assertEquals("/d?v=1&st=" + expected("/d", expire) + "&e=" + expire, signer.link("/d?v=1", expire));
+        StringBuilder sb = new StringBuilder("http://cdn");
+        signer.appendLink("/下载/a.zip?v=2&from=kong", expire, sb);
+        assertEquals("http://cdn/下载/a.zip?v=2&from=kong&st=" + expected("/下载/a.zip", expire) + "&e=" + expire,
+                sb.toString());
+
+        // 非ASCII字符、代理对、非法代理项、边界值
+        String[] uris = {"", "/", "/下载/nginx-1.14.0.tar.gz", "/emoji/😀.png", "/bad/\uD800x", "/é/ü/ß"};
+        long[] expires = {0, 1, 9, 10, 1523686533L, -1, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (String uri : uris) {
+            for (long e : expires) {
+                assertEquals(uri + " " + e, expected(uri, e), signer.sign(uri, e));
+            }
+        }
+
+        // 随机URI，覆盖缓冲扩容
+        Random random = new Random(20180414);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder uri = new StringBuilder("/");
+            int length = random.nextInt(i < 1000 ? 64 : 1024);
+            for (int j = 0; j < length; j++) {
+                uri.append((char) (random.nextBoolean() ? 'a' + random.nextInt(26) : random.nextInt(0xffff)));
+            }
+            long e = random.nextLong();
+            assertEquals(expected(uri.toString(), e), signer.sign(uri, e));
+        }
+
+    }
+
+    @Test
+    public void query() {
+
+        // 带查询串的链接按Nginx的方式校验：$uri 为路径，st 和 e 取自查询参数
+        long now = System.currentTimeMillis() / 1000;
+        String link = signer.link("/files/nginx.tar.gz?v=1.14", now + 60);
+        int query = link.indexOf('?');
+        String st = link.substring(link.indexOf("st=") + 3, link.indexOf("&e="));
+        String e = link.substring(link.indexOf("&e=") + 3);
+        assertEquals(SecureLinkVerifier.Result.VALID,
+                new SecureLinkVerifier(signer, 16).verify(link.substring(0, query), st, e, now));
+
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<?>[] futures = new Future[8];
+        for (int t = 0; t < futures.length; t++) {
+            int seed = t;
+            futures[t] = executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    String uri = "/files/" + seed + "/" + i + ".tar.gz";
+                    assertEquals(expected(uri, i), signer.sign(uri, i));
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+    }
+
+}
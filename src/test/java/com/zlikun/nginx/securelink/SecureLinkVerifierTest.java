@@ -0,0 +1,67 @@
+package com.zlikun.nginx.securelink;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import static com.zlikun.nginx.securelink.SecureLinkVerifier.Result.EXPIRED;
+import static com.zlikun.nginx.securelink.SecureLinkVerifier.Result.INVALID;
+import static com.zlikun.nginx.securelink.SecureLinkVerifier.Result.MISSING;
+import static com.zlikun.nginx.securelink.SecureLinkVerifier.Result.VALID;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 防盗链校验测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/18 10:40
+ */
+public class SecureLinkVerifierTest {
+
+    private final SecureLinkVerifier verifier = new SecureLinkVerifier(new SecureLinkSigner("salt"), 16);
+
+    @Test
+    public void verify() {
+
+        long now = 1523686473L;
+        long expire = now + 60;
+        // 与 SecureLinkTest 的生成方式一致
+        String st = Base64.encodeBase64URLSafeString(DigestUtils.md5("salt" + "/nginx.tar.gz" + expire));
+
+        assertEquals(VALID, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire), now));
+        assertEquals(VALID, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire), expire));
+        assertEquals(EXPIRED, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire), expire + 1));
+        // 篡改URI或过期时间
+        assertEquals(INVALID, verifier.verify("/nginx.zip", st, String.valueOf(expire), now));
+        assertEquals(INVALID, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire + 3600), now));
+        // 篡改签名
+        char c = st.charAt(3) == 'A' ? 'B' : 'A';
+        assertEquals(INVALID, verifier.verify("/nginx.tar.gz", st.substring(0, 3) + c + st.substring(4), String.valueOf(expire), now));
+        // 参数缺失或格式非法
+        assertEquals(MISSING, verifier.verify("/nginx.tar.gz", null, String.valueOf(expire), now));
+        assertEquals(MISSING, verifier.verify("/nginx.tar.gz", st, null, now));
+        assertEquals(MISSING, verifier.verify("/nginx.tar.gz", st, "-1", now));
+        assertEquals(MISSING, verifier.verify("/nginx.tar.gz", st.substring(1), String.valueOf(expire), now));
+        assertEquals(MISSING, verifier.verify("/nginx.tar.gz", st.substring(1) + "=", String.valueOf(expire), now));
+
+    }
+
+    @Test
+    public void cache() {
+
+        long now = 1523686473L;
+        long expire = now + 60;
+        String st = new SecureLinkSigner("salt").sign("/nginx.tar.gz", expire);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(VALID, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire), now));
+        }
+        assertEquals(9, verifier.getHits());
+        // 缓存命中同样要求URI一致
+        assertEquals(INVALID, verifier.verify("/other.tar.gz", st, String.valueOf(expire), now));
+        // 已过期的链接在查缓存前就被拒绝
+        assertEquals(EXPIRED, verifier.verify("/nginx.tar.gz", st, String.valueOf(expire), expire + 1));
+        assertEquals(9, verifier.getHits());
+
+    }
+
+}
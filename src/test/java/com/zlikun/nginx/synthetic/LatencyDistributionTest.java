@@ -0,0 +1,49 @@
+package com.zlikun.nginx.synthetic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 延迟分布测试
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/17 16:30
+ */
+@Slf4j
+public class LatencyDistributionTest {
+
+    @Test
+    public void mean() {
+
+        int n = 200_000;
+        for (LatencyDistribution distribution : LatencyDistribution.values()) {
+            long sum = 0, max = 0;
+            for (int i = 0; i < n; i++) {
+                long value = distribution.next(50, 20, 10_000);
+                assertTrue(value >= 0 && value <= 10_000);
+                sum += value;
+                max = Math.max(max, value);
+            }
+            log.info("{} - mean = {}, max = {}", distribution, (double) sum / n, max);
+            // 各分布的均值都应接近50ms
+            assertEquals(50, (double) sum / n, 1.0);
+        }
+
+    }
+
+    @Test
+    public void bounds() {
+
+        assertEquals(0, LatencyDistribution.EXPONENTIAL.next(0, 0, 1000));
+        assertEquals(1000, LatencyDistribution.FIXED.next(5000, 0, 1000));
+        for (int i = 0; i < 10_000; i++) {
+            long value = LatencyDistribution.UNIFORM.next(10, 20, 1000);
+            assertTrue(value >= 0 && value <= 30);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.zlikun.nginx.synthetic;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 模拟上游端点测试，在随机端口启动内嵌Tomcat，验证延迟、慢速写出和错误状态
+ *
+ * @author zlikun <zlikun-dev@hotmail.com>
+ * @date 2026/10/19 19:10
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"nginx.access.file=target/access-record.log", "nginx.synthetic.scheduler-threads=1"})
+public class SyntheticEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    private OkHttpClient client = new OkHttpClient.Builder()
+            .readTimeout(10, TimeUnit.SECONDS)
+            .build();
+
+    private Response get(String query) throws IOException {
+        return client.newCall(new Request.Builder()
+                .url("http://127.0.0.1:" + port + "/synthetic?" + query)
+                .build()).execute();
+    }
+
+    @Test
+    public void delay() throws IOException {
+
+        long start = System.nanoTime();
+        try (Response response = get("size=100&latency=200")) {
+            assertEquals(200, response.code());
+            assertEquals(100, response.body().bytes().length);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("delay elapsed {}ms", elapsed);
+        assertTrue(elapsed >= 200);
+
+    }
+
+    @Test
+    public void drip() throws IOException {
+
+        // 1000字节分10次写出，每次间隔50ms
+        long start = System.nanoTime();
+        try (Response response = get("size=1000&dripBytes=100&dripInterval=50")) {
+            assertEquals(200, response.code());
+            assertEquals("1000", response.header("Content-Length"));
+            BufferedSource source = response.body().source();
+            byte[] body = source.readByteArray();
+            assertEquals(1000, body.length);
+            // 每次写出都从共享缓冲的起始位置开始
+            assertEquals(SyntheticResponder.PAYLOAD[99], body[999]);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("drip elapsed {}ms", elapsed);
+        assertTrue(elapsed >= 450);
+
+    }
+
+    @Test
+    public void status() throws IOException {
+
+        try (Response response = get("size=100&errorRate=1&errorStatus=503")) {
+            assertEquals(503, response.code());
+            assertEquals(0, response.body().bytes().length);
+        }
+        try (Response response = get("latency=50&errorRate=1")) {
+            assertEquals(502, response.code());
+        }
+        try (Response response = get("size=100&errorRate=0")) {
+            assertEquals(200, response.code());
+        }
+
+    }
+
+    @Test
+    public void slowReader() throws Exception {
+
+        // 不读取响应的客户端让写出阻塞，只有1个调度线程时其它延迟请求也应按时完成
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setReceiveBufferSize(4096);
+            OutputStream os = socket.getOutputStream();
+            os.write(("GET /synthetic?size=67108864&dripBytes=33554432&dripInterval=10 HTTP/1.1\r\n"
+                    + "Host: a\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            os.flush();
+            InputStream is = socket.getInputStream();
+            assertTrue(is.read() > 0);
+
+            long start = System.nanoTime();
+            try (Response response = get("size=10&latency=100")) {
+                assertEquals(200, response.code());
+            }
+            try (Response response = get("size=10&dripBytes=5&dripInterval=10")) {
+                assertEquals(10, response.body().bytes().length);
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("slow reader elapsed {}ms", elapsed);
+            assertTrue(elapsed < 5000);
+        }
+
+    }
+
+}